@@ -1,7 +1,6 @@
 package com.backend.hotel_management.configuration;
 
 import java.math.BigDecimal;
-import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -10,7 +9,7 @@ import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
 import com.backend.hotel_management.enums.EmployeeRole;
@@ -29,6 +28,7 @@ import com.backend.hotel_management.repository.EmployeeRepository;
 import com.backend.hotel_management.repository.GuestRepository;
 import com.backend.hotel_management.repository.HotelServingRepository;
 import com.backend.hotel_management.repository.RoomRepository;
+import com.backend.hotel_management.service.PricingEngine;
 
 @Component
 public class DataInitializer implements CommandLineRunner {
@@ -52,7 +52,10 @@ public class DataInitializer implements CommandLineRunner {
    private ComplaintRepository complaintRepository;
 
    @Autowired
-   private BCryptPasswordEncoder passwordEncoder;
+   private PasswordEncoder passwordEncoder;
+
+   @Autowired
+   private PricingEngine pricingEngine;
 
    @Override
    public void run(String... args) throws Exception {
@@ -218,13 +221,9 @@ public class DataInitializer implements CommandLineRunner {
       booking1.setServiceQuantities(serviceQuantities1);
 
       // Calculate total price for booking 1
-      long nights1 = Duration.between(booking1.getCheckInDateTime(), booking1.getCheckOutDateTime()).toDays();
-      BigDecimal roomCost1 = room1.getPricePerNight().multiply(BigDecimal.valueOf(nights1));
-      BigDecimal servicesCost1 = services.stream()
-            .map(service -> service.getPrice().multiply(BigDecimal.valueOf(
-                  serviceQuantities1.getOrDefault(service.getId(), 1))))
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-      booking1.setTotalPrice(roomCost1.add(servicesCost1));
+      booking1.setTotalPrice(PricingEngine.toMoney(pricingEngine.totalCents(room1.getRoomType(),
+            booking1.getCheckInDateTime(), booking1.getCheckOutDateTime(), Arrays.asList(1L, 2L),
+            serviceQuantities1)));
 
       // Booking 2 for Bob
       Booking booking2 = new Booking();
@@ -240,13 +239,9 @@ public class DataInitializer implements CommandLineRunner {
       booking2.setServiceQuantities(serviceQuantities2);
 
       // Calculate total price for booking 2
-      long nights2 = Duration.between(booking2.getCheckInDateTime(), booking2.getCheckOutDateTime()).toDays();
-      BigDecimal roomCost2 = room2.getPricePerNight().multiply(BigDecimal.valueOf(nights2));
-      BigDecimal servicesCost2 = services.subList(0, 1).stream()
-            .map(service -> service.getPrice().multiply(BigDecimal.valueOf(
-                  serviceQuantities2.getOrDefault(service.getId(), 1))))
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-      booking2.setTotalPrice(roomCost2.add(servicesCost2));
+      booking2.setTotalPrice(PricingEngine.toMoney(pricingEngine.totalCents(room2.getRoomType(),
+            booking2.getCheckInDateTime(), booking2.getCheckOutDateTime(), Arrays.asList(1L),
+            serviceQuantities2)));
 
       bookingRepository.saveAll(Arrays.asList(booking1, booking2));
       System.out.println("Created 2 bookings");
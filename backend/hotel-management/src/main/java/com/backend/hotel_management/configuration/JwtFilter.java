@@ -3,6 +3,7 @@ package com.backend.hotel_management.configuration;
 import java.io.IOException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -10,9 +11,10 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.backend.hotel_management.service.EmployeeDetailsService;
-import com.backend.hotel_management.service.GuestDetailsService;
+import com.backend.hotel_management.model.TokenPrincipal;
 import com.backend.hotel_management.service.JwtService;
+import com.backend.hotel_management.service.JwtService.VerifiedToken;
+import com.backend.hotel_management.service.PrincipalCache;
 
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.security.SignatureException;
@@ -28,10 +30,11 @@ public class JwtFilter extends OncePerRequestFilter {
    private JwtService jwtService;
 
    @Autowired
-   private EmployeeDetailsService employeeDetailsService;
+   private PrincipalCache principalCache;
 
-   @Autowired
-   private GuestDetailsService guestDetailsService;
+   // Whether to confirm through PrincipalCache that the token's account still exists; off trusts the claims alone
+   @Value("${hotel.security.principals.check-account:true}")
+   private boolean checkAccount;
 
    @Override
    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -39,6 +42,7 @@ public class JwtFilter extends OncePerRequestFilter {
 
       String authHeader = request.getHeader("Authorization");
       String token = null;
+      VerifiedToken verified = null;
       String email = null;
 
       // Extract token safely
@@ -50,7 +54,9 @@ public class JwtFilter extends OncePerRequestFilter {
       // Only proceed if token exists
       if (token != null) {
          try {
-            email = jwtService.extractUserName(token);
+            // Verified once; the role and expiry below come from the same claims
+            verified = jwtService.verify(token);
+            email = verified.subject();
             logger.info("Extracted email from token: " + email);
          } catch (ExpiredJwtException e) {
             logger.warn("JWT token is expired: " + token);
@@ -75,18 +81,12 @@ public class JwtFilter extends OncePerRequestFilter {
          UserDetails userDetails = null;
 
          try {
-            // Extract role from JWT to determine which UserDetailsService to use
-            String role = jwtService.extractRole(token);
+            // The principal comes from the token's claims, not from a query per request
+            String role = verified.role();
             logger.info("Extracted role from token: " + role);
+            userDetails = resolvePrincipal(verified);
 
-            if ("ROLE_GUEST".equals(role)) {
-               userDetails = guestDetailsService.loadUserByUsername(email);
-            } else {
-               // Default to employee for ROLE_MANAGER, ROLE_EMPLOYEE, etc.
-               userDetails = employeeDetailsService.loadUserByUsername(email);
-            }
-
-            if (jwtService.validateToken(token, userDetails)) {
+            if (userDetails != null && jwtService.isValidFor(verified, userDetails)) {
                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                      userDetails, null, userDetails.getAuthorities());
                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -103,4 +103,17 @@ public class JwtFilter extends OncePerRequestFilter {
 
       filterChain.doFilter(request, response);
    }
+
+   // The employee or guest named by the token, null if the account is gone or the token has no user id
+   private TokenPrincipal resolvePrincipal(VerifiedToken verified) {
+      if (verified.userId() == null || verified.role() == null) {
+         return null;
+      }
+      String authority = TokenPrincipal.authorityOf(verified.role());
+      if (!checkAccount) {
+         return new TokenPrincipal(verified.userId(), verified.subject(), authority);
+      }
+      // Current email and role, at most one query per account and cache ttl
+      return principalCache.find(TokenPrincipal.GUEST_AUTHORITY.equals(authority), verified.userId()).orElse(null);
+   }
 }
\ No newline at end of file
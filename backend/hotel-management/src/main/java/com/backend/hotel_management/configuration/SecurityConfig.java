@@ -14,7 +14,6 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -23,6 +22,7 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import com.backend.hotel_management.service.EmployeeDetailsService;
 import com.backend.hotel_management.service.GuestDetailsService;
+import com.backend.hotel_management.service.PasswordHashingService;
 
 @Configuration
 @EnableWebSecurity
@@ -38,6 +38,9 @@ public class SecurityConfig {
    @Autowired
    private JwtFilter jwtFilter;
 
+   @Autowired
+   private PasswordHashingService passwordHashingService;
+
    @Bean
    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
       return http
@@ -47,6 +50,8 @@ public class SecurityConfig {
                   .requestMatchers("/api/auth/login").permitAll()
                   .requestMatchers("/api/hotel/guests/**").permitAll()
                   .requestMatchers("/api/hotel/apply-booking").permitAll()
+                  .requestMatchers("/api/hotel/apply-booking/status/**").permitAll()
+                  .requestMatchers("/api/hotel/quote", "/api/hotel/quotes").permitAll()
                   .requestMatchers("/api/hotel/services/**").permitAll()
                   .requestMatchers("/api/hotel/rooms/**").permitAll()
                   .requestMatchers("/api/hotel/complaints/**").permitAll()
@@ -85,7 +90,7 @@ public class SecurityConfig {
       configuration.setAllowCredentials(true);
 
       // 5. (Optional) Expose headers the frontend might need to read from the response
-      configuration.setExposedHeaders(List.of("Authorization")); // Useful if the backend sends custom headers
+      configuration.setExposedHeaders(List.of("Authorization", "X-Next-Cursor")); // Useful if the backend sends custom headers
 
       // 6. Apply this configuration to all paths
       UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -104,21 +109,18 @@ public class SecurityConfig {
    @Bean
    public AuthenticationProvider employeeAuthenticationProvider() {
       DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
-      provider.setPasswordEncoder(passwordEncoder());
+      provider.setPasswordEncoder(passwordHashingService);
       provider.setUserDetailsService(employeeDetailsService);
+      provider.setUserDetailsPasswordService(employeeDetailsService); // rehashes at the configured cost
       return provider;
    }
 
    @Bean
    public AuthenticationProvider guestAuthenticationProvider() {
       DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
-      provider.setPasswordEncoder(passwordEncoder());
+      provider.setPasswordEncoder(passwordHashingService);
       provider.setUserDetailsService(guestDetailsService);
+      provider.setUserDetailsPasswordService(guestDetailsService);
       return provider;
    }
-
-   @Bean
-   public BCryptPasswordEncoder passwordEncoder() {
-      return new BCryptPasswordEncoder(12);
-   }
 }
\ No newline at end of file
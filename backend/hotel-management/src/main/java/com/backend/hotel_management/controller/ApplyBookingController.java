@@ -1,18 +1,34 @@
 package com.backend.hotel_management.controller;
 
+import java.net.URI;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.backend.hotel_management.dto.request.ApplyBookingRequestDto;
 import com.backend.hotel_management.dto.response.ApplyBookingResponseDto;
-import com.backend.hotel_management.service.ApplyBookingService;
+import com.backend.hotel_management.dto.response.BookingCommandStatusResponseDto;
+import com.backend.hotel_management.exception.GuestPasswordMismatchException;
+import com.backend.hotel_management.exception.PasswordHashingBusyException;
+import com.backend.hotel_management.exception.RoomNotAvailableException;
+import com.backend.hotel_management.service.BookingCommandEngine;
+import com.backend.hotel_management.service.BookingCommandEngine.BookingCommand;
+import com.backend.hotel_management.service.LoginThrottle;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
@@ -20,19 +36,67 @@ import jakarta.validation.Valid;
 @CrossOrigin(origins = "*")
 public class ApplyBookingController {
 
+   // How long a synchronous request waits for the booking engine before answering 202
+   private static final long SYNC_WAIT_SECONDS = 10;
+
    @Autowired
-   private ApplyBookingService applyBookingService;
+   private BookingCommandEngine bookingCommandEngine;
+
+   @Autowired
+   private LoginThrottle loginThrottle;
 
    // Create new booking application - Public endpoint for hotel webpage visitors
+   // With async=true the request is only queued and answered with 202 and a status link
+   // A wrong password for an existing guest counts as a failed sign-in, see LoginThrottle
    @PostMapping
-   public ResponseEntity<ApplyBookingResponseDto> createApplyBooking(
-         @RequestBody @Valid ApplyBookingRequestDto requestDto) {
+   public ResponseEntity<?> createApplyBooking(@RequestBody @Valid ApplyBookingRequestDto requestDto,
+         @RequestParam(defaultValue = "false") boolean async, HttpServletRequest request) {
+      String email = requestDto.getEmail();
+      String address = request.getRemoteAddr();
+      loginThrottle.checkAllowed(email, address);
+      BookingCommand command = bookingCommandEngine.submit(requestDto);
+      command.getFuture().whenComplete((response, error) -> {
+         if (error instanceof GuestPasswordMismatchException) {
+            loginThrottle.recordFailure(email, address);
+         }
+      });
+      if (async) {
+         return accepted(command);
+      }
       try {
-         ApplyBookingResponseDto responseDto = applyBookingService.createApplyBooking(requestDto);
+         ApplyBookingResponseDto responseDto = command.getFuture().get(SYNC_WAIT_SECONDS, TimeUnit.SECONDS);
          return new ResponseEntity<>(responseDto, HttpStatus.CREATED);
-      } catch (RuntimeException e) {
-         throw new RuntimeException("Error creating booking application: " + e.getMessage());
+      } catch (TimeoutException e) {
+         return accepted(command);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         return accepted(command);
+      } catch (ExecutionException e) {
+         if (e.getCause() instanceof RoomNotAvailableException notAvailable) {
+            throw notAvailable; // answered with 409 by ApiExceptionHandler
+         }
+         if (e.getCause() instanceof PasswordHashingBusyException busy) {
+            throw busy; // answered with 503 by ApiExceptionHandler
+         }
+         if (e.getCause() instanceof GuestPasswordMismatchException mismatch) {
+            throw mismatch; // answered with 401 by ApiExceptionHandler
+         }
+         throw new RuntimeException("Error creating booking application: " + e.getCause().getMessage());
       }
    }
 
-}
\ No newline at end of file
+   // Poll the outcome of a queued booking application
+   @GetMapping("/status/{commandId}")
+   public ResponseEntity<BookingCommandStatusResponseDto> getApplyBookingStatus(@PathVariable UUID commandId) {
+      return bookingCommandEngine.findCommand(commandId)
+            .map(command -> ResponseEntity.ok(command.toStatus()))
+            .orElse(ResponseEntity.notFound().build());
+   }
+
+   private ResponseEntity<BookingCommandStatusResponseDto> accepted(BookingCommand command) {
+      return ResponseEntity.accepted()
+            .location(URI.create("/api/hotel/apply-booking/status/" + command.getId()))
+            .body(command.toStatus());
+   }
+
+}
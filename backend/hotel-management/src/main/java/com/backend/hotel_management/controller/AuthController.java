@@ -14,7 +14,9 @@ import com.backend.hotel_management.dto.response.GuestJwtResponseDto;
 import com.backend.hotel_management.dto.response.JwtResponseDto;
 import com.backend.hotel_management.service.EmployeeService;
 import com.backend.hotel_management.service.GuestService;
+import com.backend.hotel_management.service.LoginThrottle;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
@@ -28,15 +30,23 @@ public class AuthController {
    @Autowired
    private GuestService guestService;
 
+   @Autowired
+   private LoginThrottle loginThrottle;
+
+   // Failed sign-ins are throttled per account and client address, see LoginThrottle
    @PostMapping("/login")
-   public ResponseEntity<JwtResponseDto> login(@Valid @RequestBody LoginRequestDto loginRequest) {
-      JwtResponseDto response = employeeService.login(loginRequest);
+   public ResponseEntity<JwtResponseDto> login(@Valid @RequestBody LoginRequestDto loginRequest,
+         HttpServletRequest request) {
+      JwtResponseDto response = loginThrottle.attempt(loginRequest.getEmail(), request.getRemoteAddr(),
+            () -> employeeService.login(loginRequest));
       return ResponseEntity.ok(response);
    }
 
    @PostMapping("/guestlogin")
-   public ResponseEntity<GuestJwtResponseDto> guestLogin(@Valid @RequestBody GuestLoginRequestDto loginRequest) {
-      GuestJwtResponseDto response = guestService.login(loginRequest);
+   public ResponseEntity<GuestJwtResponseDto> guestLogin(@Valid @RequestBody GuestLoginRequestDto loginRequest,
+         HttpServletRequest request) {
+      GuestJwtResponseDto response = loginThrottle.attempt(loginRequest.getEmail(), request.getRemoteAddr(),
+            () -> guestService.login(loginRequest));
       return ResponseEntity.ok(response);
    }
 }
\ No newline at end of file
@@ -1,9 +1,18 @@
 package com.backend.hotel_management.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -13,11 +22,19 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.backend.hotel_management.dto.request.BookingRequestDto;
+import com.backend.hotel_management.dto.response.BookingImportStatusResponseDto;
 import com.backend.hotel_management.dto.response.BookingResponseDto;
+import com.backend.hotel_management.enums.ExportFormat;
+import com.backend.hotel_management.exception.RoomNotAvailableException;
 import com.backend.hotel_management.model.Booking;
+import com.backend.hotel_management.service.BookingExportService;
+import com.backend.hotel_management.service.BookingImportService;
+import com.backend.hotel_management.service.BookingImportService.BookingImport;
 import com.backend.hotel_management.service.BookingService;
 
 import jakarta.validation.Valid;
@@ -30,23 +47,109 @@ public class BookingController {
    @Autowired
    private BookingService bookingService;
 
+   @Autowired
+   private BookingExportService bookingExportService;
+
+   @Autowired
+   private BookingImportService bookingImportService;
+
    @PostMapping
    public ResponseEntity<BookingResponseDto> createBooking(@RequestBody @Valid BookingRequestDto requestDto) {
       try {
          BookingResponseDto responseDto = bookingService.createBooking(requestDto);
          return new ResponseEntity<>(responseDto, HttpStatus.CREATED);
+      } catch (RoomNotAvailableException e) {
+         throw e; // answered with 409 by ApiExceptionHandler
       } catch (RuntimeException e) {
          throw new RuntimeException("Error creating booking: " + e.getMessage());
       }
    }
 
+   // ?sort=&limit=&cursor= returns one page in keyset order, see KeysetRepository
    @GetMapping
    @PreAuthorize("hasRole('MANAGER') or hasRole('RECEPTIONIST')")
-   public ResponseEntity<List<BookingResponseDto>> getAllBookings() {
+   public ResponseEntity<List<BookingResponseDto>> getAllBookings(@RequestParam(required = false) String sort,
+         @RequestParam(required = false) Integer limit, @RequestParam(required = false) String cursor) {
+      if (PagedResponses.isPaged(sort, limit, cursor)) {
+         return PagedResponses.of(bookingService.getBookingPage(sort, limit, cursor));
+      }
       List<BookingResponseDto> bookings = bookingService.getAllBookings();
       return new ResponseEntity<>(bookings, HttpStatus.OK);
    }
 
+   // GET /api/hotel/bookings/export?format=csv&fromDate=2024-01-01&toDate=2024-12-31&gzip=true
+   // Streams bookings as CSV or NDJSON from a database cursor, optionally gzip-compressed
+   @GetMapping("/export")
+   @PreAuthorize("hasRole('MANAGER') or hasRole('RECEPTIONIST')")
+   public ResponseEntity<StreamingResponseBody> exportBookings(
+         @RequestParam(defaultValue = "csv") String format,
+         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+         @RequestParam(defaultValue = "false") boolean gzip) {
+
+      ExportFormat exportFormat;
+      try {
+         exportFormat = ExportFormat.valueOf(format.toUpperCase());
+      } catch (IllegalArgumentException e) {
+         return ResponseEntity.badRequest().build();
+      }
+      if (fromDate != null && toDate != null && fromDate.isAfter(toDate)) {
+         return ResponseEntity.badRequest().build();
+      }
+
+      String fileName = "bookings." + exportFormat.name().toLowerCase() + (gzip ? ".gz" : "");
+      MediaType contentType = gzip ? MediaType.parseMediaType("application/gzip")
+            : exportFormat == ExportFormat.CSV ? MediaType.parseMediaType("text/csv; charset=UTF-8")
+                  : MediaType.APPLICATION_NDJSON;
+      StreamingResponseBody body = out -> {
+         if (gzip) {
+            GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+            bookingExportService.exportBookings(exportFormat, fromDate, toDate, compressed);
+            compressed.finish();
+         } else {
+            bookingExportService.exportBookings(exportFormat, fromDate, toDate, out);
+         }
+      };
+      return ResponseEntity.ok()
+            .contentType(contentType)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+            .body(body);
+   }
+
+   // POST /api/hotel/bookings/import?format=csv&gzip=true with the file as the body, in the export's columns
+   // Imports in the background; poll the Location for progress and the rows that were skipped
+   @PostMapping("/import")
+   @PreAuthorize("hasRole('MANAGER')")
+   public ResponseEntity<BookingImportStatusResponseDto> importBookings(
+         @RequestParam(defaultValue = "csv") String format,
+         @RequestParam(defaultValue = "false") boolean gzip,
+         InputStream body) throws IOException {
+
+      ExportFormat importFormat;
+      try {
+         importFormat = ExportFormat.valueOf(format.toUpperCase());
+      } catch (IllegalArgumentException e) {
+         return ResponseEntity.badRequest().build();
+      }
+      BookingImport bookingImport;
+      try {
+         bookingImport = bookingImportService.submit(importFormat, gzip, body);
+      } catch (IllegalStateException e) {
+         return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+      }
+      return ResponseEntity.accepted()
+            .location(URI.create("/api/hotel/bookings/import/" + bookingImport.getId()))
+            .body(bookingImport.toStatus());
+   }
+
+   @GetMapping("/import/{id}")
+   @PreAuthorize("hasRole('MANAGER')")
+   public ResponseEntity<BookingImportStatusResponseDto> getImportStatus(@PathVariable UUID id) {
+      return bookingImportService.findImport(id)
+            .map(bookingImport -> ResponseEntity.ok(bookingImport.toStatus()))
+            .orElse(ResponseEntity.notFound().build());
+   }
+
    @GetMapping("/entity/{reference}")
    @PreAuthorize("hasRole('MANAGER') or hasRole('RECEPTIONIST') or hasRole('HOUSEKEEPING') or hasRole('GUEST')")
    public ResponseEntity<BookingResponseDto> getBookingByReference(@PathVariable String reference) {
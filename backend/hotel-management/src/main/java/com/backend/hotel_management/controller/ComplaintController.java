@@ -12,10 +12,12 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.backend.hotel_management.dto.request.ComplaintRequestDto;
 import com.backend.hotel_management.dto.response.ComplaintResponseDto;
+import com.backend.hotel_management.exception.InvalidPageRequestException;
 import com.backend.hotel_management.service.ComplaintService;
 
 import jakarta.validation.Valid;
@@ -53,12 +55,19 @@ public class ComplaintController {
       }
    }
 
+   // ?sort=&limit=&cursor= returns one page in keyset order, see KeysetRepository
    @GetMapping
    // @PreAuthorize("hasRole('MANAGER')")
-   public ResponseEntity<List<ComplaintResponseDto>> getAllComplaints() {
+   public ResponseEntity<List<ComplaintResponseDto>> getAllComplaints(@RequestParam(required = false) String sort,
+         @RequestParam(required = false) Integer limit, @RequestParam(required = false) String cursor) {
+      if (PagedResponses.isPaged(sort, limit, cursor)) {
+         return PagedResponses.of(complaintService.getComplaintPage(sort, limit, cursor));
+      }
       try {
          List<ComplaintResponseDto> responses = complaintService.getAllComplaints();
          return new ResponseEntity<>(responses, HttpStatus.OK);
+      } catch (InvalidPageRequestException e) {
+         throw e; // answered with 400 by ApiExceptionHandler
       } catch (Exception e) {
          return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
       }
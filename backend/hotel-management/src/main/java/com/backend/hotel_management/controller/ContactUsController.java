@@ -11,10 +11,12 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.backend.hotel_management.dto.request.ContactUsRequestDto;
 import com.backend.hotel_management.dto.response.ContactUsResponseDto;
+import com.backend.hotel_management.exception.InvalidPageRequestException;
 import com.backend.hotel_management.service.ContactUsService;
 
 import jakarta.validation.Valid;
@@ -57,11 +59,18 @@ public class ContactUsController {
       }
    }
 
+   // ?sort=&limit=&cursor= returns one page in keyset order, see KeysetRepository
    @GetMapping
-   public ResponseEntity<List<ContactUsResponseDto>> getAllContactUs() {
+   public ResponseEntity<List<ContactUsResponseDto>> getAllContactUs(@RequestParam(required = false) String sort,
+         @RequestParam(required = false) Integer limit, @RequestParam(required = false) String cursor) {
+      if (PagedResponses.isPaged(sort, limit, cursor)) {
+         return PagedResponses.of(contactUsService.getContactUsPage(sort, limit, cursor));
+      }
       try {
          List<ContactUsResponseDto> responseDtoList = contactUsService.getAllContactUs();
          return new ResponseEntity<>(responseDtoList, HttpStatus.OK);
+      } catch (InvalidPageRequestException e) {
+         throw e; // answered with 400 by ApiExceptionHandler
       } catch (Exception e) {
          return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
       }
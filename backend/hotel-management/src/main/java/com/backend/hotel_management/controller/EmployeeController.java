@@ -14,6 +14,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.backend.hotel_management.dto.request.EmployeeRequestDto;
@@ -43,9 +44,14 @@ public class EmployeeController {
    }
 
    // Get all employees - Only MANAGER can view all employees
+   // ?sort=&limit=&cursor= returns one page in keyset order, see KeysetRepository
    @GetMapping
    @PreAuthorize("hasRole('MANAGER')")
-   public ResponseEntity<List<EmployeeResponseDto>> getAllEmployees() {
+   public ResponseEntity<List<EmployeeResponseDto>> getAllEmployees(@RequestParam(required = false) String sort,
+         @RequestParam(required = false) Integer limit, @RequestParam(required = false) String cursor) {
+      if (PagedResponses.isPaged(sort, limit, cursor)) {
+         return PagedResponses.of(employeeService.getEmployeePage(sort, limit, cursor));
+      }
       List<EmployeeResponseDto> employees = employeeService.getAllEmployees();
       return new ResponseEntity<>(employees, HttpStatus.OK);
    }
@@ -14,6 +14,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.backend.hotel_management.dto.request.GuestRequestDto;
@@ -42,9 +43,14 @@ public class GuestController {
    }
 
    // Get all guests - MANAGER and RECEPTIONIST can view all guests
+   // ?sort=&limit=&cursor= returns one page in keyset order, see KeysetRepository
    @GetMapping
    @PreAuthorize("hasRole('MANAGER') or hasRole('RECEPTIONIST')")
-   public ResponseEntity<List<GuestResponseDto>> getAllGuests() {
+   public ResponseEntity<List<GuestResponseDto>> getAllGuests(@RequestParam(required = false) String sort,
+         @RequestParam(required = false) Integer limit, @RequestParam(required = false) String cursor) {
+      if (PagedResponses.isPaged(sort, limit, cursor)) {
+         return PagedResponses.of(guestService.getGuestPage(sort, limit, cursor));
+      }
       List<GuestResponseDto> guests = guestService.getAllGuests();
       return new ResponseEntity<>(guests, HttpStatus.OK);
    }
@@ -0,0 +1,33 @@
+package com.backend.hotel_management.controller;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.backend.hotel_management.repository.KeysetPage;
+
+// Response shape shared by the paged list endpoints
+final class PagedResponses {
+
+   // Cursor for the next page; absent on the last page. Exposed to the browser in SecurityConfig
+   static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+   private PagedResponses() {
+   }
+
+   // Whether a list request asked for paging; without sort, limit or cursor the whole list is returned,
+   // or a 400 once it is longer than KeysetRepository.UNPAGED_LIMIT
+   static boolean isPaged(String sort, Integer limit, String cursor) {
+      return sort != null || limit != null || cursor != null;
+   }
+
+   // The page items as the body, as the unpaged list is, and the next cursor as a header
+   static <T> ResponseEntity<List<T>> of(KeysetPage<T> page) {
+      ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK);
+      if (page.nextCursor() != null) {
+         response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+      }
+      return response.body(page.items());
+   }
+}
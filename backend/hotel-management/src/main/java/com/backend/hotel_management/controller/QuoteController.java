@@ -0,0 +1,43 @@
+package com.backend.hotel_management.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.backend.hotel_management.dto.request.BatchQuoteRequestDto;
+import com.backend.hotel_management.dto.request.QuoteRequestDto;
+import com.backend.hotel_management.dto.response.QuoteResponseDto;
+import com.backend.hotel_management.service.QuoteService;
+
+import jakarta.validation.Valid;
+
+@RestController
+@CrossOrigin(origins = "*")
+@RequestMapping("/api/hotel")
+public class QuoteController {
+
+   @Autowired
+   private QuoteService quoteService;
+
+   // Price a stay - Public endpoint so the booking page can show totals before applying
+   @PostMapping("/quote")
+   public ResponseEntity<QuoteResponseDto> quote(@RequestBody @Valid QuoteRequestDto requestDto) {
+      try {
+         return ResponseEntity.ok(quoteService.quote(requestDto));
+      } catch (RuntimeException e) {
+         throw new RuntimeException("Error calculating quote: " + e.getMessage());
+      }
+   }
+
+   // Price many stays in one call; results come back in request order
+   @PostMapping("/quotes")
+   public ResponseEntity<List<QuoteResponseDto>> quoteBatch(@RequestBody @Valid BatchQuoteRequestDto requestDto) {
+      return ResponseEntity.ok(quoteService.quoteBatch(requestDto.getQuotes()));
+   }
+}
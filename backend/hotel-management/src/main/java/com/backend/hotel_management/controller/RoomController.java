@@ -1,5 +1,6 @@
 package com.backend.hotel_management.controller;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -20,7 +21,9 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.backend.hotel_management.dto.request.RoomRequestDto;
+import com.backend.hotel_management.dto.response.RoomCalendarResponseDto;
 import com.backend.hotel_management.dto.response.RoomResponseDto;
+import com.backend.hotel_management.exception.InvalidPageRequestException;
 import com.backend.hotel_management.service.RoomService;
 
 import jakarta.validation.Valid;
@@ -46,12 +49,19 @@ public class RoomController {
    }
 
    // Get All rooms
+   // ?sort=&limit=&cursor= returns one page in keyset order, see KeysetRepository
    @GetMapping
    // @PreAuthorize("hasRole('MANAGER') or hasRole('RECEPTIONIST') or hasRole('HOUSEKEEPING') or hasRole('MAINTENANCE') or hasRole('KITCHEN')")
-   public ResponseEntity<List<RoomResponseDto>> getAllRooms() {
+   public ResponseEntity<List<RoomResponseDto>> getAllRooms(@RequestParam(required = false) String sort,
+         @RequestParam(required = false) Integer limit, @RequestParam(required = false) String cursor) {
+      if (PagedResponses.isPaged(sort, limit, cursor)) {
+         return PagedResponses.of(roomService.getRoomPage(sort, limit, cursor));
+      }
       try {
          List<RoomResponseDto> roomsResponseDtos = roomService.getAllRooms();
          return new ResponseEntity<>(roomsResponseDtos, HttpStatus.OK);
+      } catch (InvalidPageRequestException e) {
+         throw e; // answered with 400 by ApiExceptionHandler
       } catch (Exception e) {
          throw new RuntimeException("Error getting rooms: " + e.getMessage());
       }
@@ -104,4 +114,17 @@ public class RoomController {
          return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
       }
    }
+
+   // Front-desk grid, e.g. /api/hotel/rooms/calendar?fromDate=2024-01-01&toDate=2024-01-31
+   @GetMapping("/calendar")
+   @PreAuthorize("hasRole('MANAGER') or hasRole('RECEPTIONIST')")
+   public ResponseEntity<List<RoomCalendarResponseDto>> getRoomCalendar(
+         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate) {
+      if (fromDate.isAfter(toDate) || fromDate.plusDays(366).isBefore(toDate)) {
+         return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+      }
+      List<RoomCalendarResponseDto> calendar = roomService.getRoomCalendar(fromDate, toDate);
+      return new ResponseEntity<>(calendar, HttpStatus.OK);
+   }
 }
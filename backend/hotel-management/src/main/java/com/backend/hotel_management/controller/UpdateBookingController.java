@@ -13,7 +13,8 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.backend.hotel_management.dto.request.UpdateBookingRequestDto;
 import com.backend.hotel_management.dto.response.UpdateBookingResponseDto;
-import com.backend.hotel_management.model.GuestPrincipal;
+import com.backend.hotel_management.exception.RoomNotAvailableException;
+import com.backend.hotel_management.model.TokenPrincipal;
 import com.backend.hotel_management.service.UpdateBookingService;
 
 import jakarta.validation.Valid;
@@ -30,16 +31,16 @@ public class UpdateBookingController {
    public ResponseEntity<UpdateBookingResponseDto> updateBooking(
          @PathVariable String bookingReference,
          @Valid @RequestBody UpdateBookingRequestDto requestDto,
-         @AuthenticationPrincipal GuestPrincipal guestPrincipal) {
+         @AuthenticationPrincipal TokenPrincipal principal) {
 
       try {
          // Add null check for authentication
-         if (guestPrincipal == null || guestPrincipal.getGuest() == null) {
+         if (principal == null || !principal.isGuest()) {
             System.err.println("Authentication failed - no guest principal");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(null);
          }
 
-         Long authenticatedGuestId = guestPrincipal.getGuest().getId();
+         Long authenticatedGuestId = principal.getId();
 
          System.out.println("Authenticated Guest ID: " + authenticatedGuestId);
          System.out.println("Received bookingReference: " + bookingReference);
@@ -56,6 +57,8 @@ public class UpdateBookingController {
 
          return ResponseEntity.ok(response);
 
+      } catch (RoomNotAvailableException e) {
+         throw e; // answered with 409 by ApiExceptionHandler
       } catch (IllegalArgumentException e) {
          System.err.println("Validation error: " + e.getMessage());
          return ResponseEntity.badRequest().body(null);
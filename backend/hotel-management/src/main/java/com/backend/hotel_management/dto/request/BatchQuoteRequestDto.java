@@ -0,0 +1,19 @@
+package com.backend.hotel_management.dto.request;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchQuoteRequestDto {
+   @NotEmpty(message = "At least one quote is required")
+   @Size(max = 500, message = "At most 500 quotes per request")
+   private List<@Valid QuoteRequestDto> quotes;
+}
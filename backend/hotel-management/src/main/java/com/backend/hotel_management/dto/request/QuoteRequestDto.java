@@ -0,0 +1,32 @@
+package com.backend.hotel_management.dto.request;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import com.backend.hotel_management.enums.RoomType;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuoteRequestDto {
+   // Either a specific room or a room type
+   private Long roomId;
+
+   private RoomType roomType;
+
+   @NotNull(message = "Check-in date is required")
+   private LocalDateTime checkInDateTime;
+
+   @NotNull(message = "Check-out date is required")
+   private LocalDateTime checkOutDateTime;
+
+   private List<Long> hotelServiceIds;
+
+   private Map<Long, Integer> serviceQuantities; // service ID -> quantity
+}
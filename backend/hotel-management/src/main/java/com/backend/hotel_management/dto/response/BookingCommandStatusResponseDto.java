@@ -0,0 +1,20 @@
+package com.backend.hotel_management.dto.response;
+
+import java.util.UUID;
+
+import com.backend.hotel_management.enums.BookingCommandStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// State of a booking request handed to the booking engine
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingCommandStatusResponseDto {
+   private UUID commandId;
+   private BookingCommandStatus status;
+   private ApplyBookingResponseDto booking; // set once COMPLETED
+   private String error; // set once FAILED
+}
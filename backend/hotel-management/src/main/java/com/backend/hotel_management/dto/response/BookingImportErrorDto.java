@@ -0,0 +1,14 @@
+package com.backend.hotel_management.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A row the booking import skipped, and why
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingImportErrorDto {
+   private long line; // Line of the file the row starts on, the CSV header being line 1
+   private String message;
+}
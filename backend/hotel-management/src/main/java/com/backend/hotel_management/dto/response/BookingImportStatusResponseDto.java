@@ -0,0 +1,29 @@
+package com.backend.hotel_management.dto.response;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import com.backend.hotel_management.enums.BookingImportStatus;
+import com.backend.hotel_management.enums.ExportFormat;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Progress of a bulk booking import
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingImportStatusResponseDto {
+   private UUID importId;
+   private ExportFormat format;
+   private BookingImportStatus status;
+   private long rowsRead;
+   private long imported;
+   private long skipped;
+   private List<BookingImportErrorDto> errors; // The first skipped rows, see BookingImportService.MAX_REPORTED_ERRORS
+   private String error; // set once FAILED
+   private Instant submittedAt;
+   private Instant finishedAt;
+}
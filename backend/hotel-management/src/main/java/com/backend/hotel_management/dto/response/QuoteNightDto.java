@@ -0,0 +1,19 @@
+package com.backend.hotel_management.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Charges for the night starting on date
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuoteNightDto {
+   private LocalDate date;
+   private BigDecimal roomCharge;
+   private BigDecimal servicesCharge; // PER_NIGHT services only
+   private BigDecimal total;
+}
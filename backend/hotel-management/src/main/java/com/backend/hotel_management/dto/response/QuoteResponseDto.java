@@ -0,0 +1,33 @@
+package com.backend.hotel_management.dto.response;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import com.backend.hotel_management.enums.RoomType;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuoteResponseDto {
+   private Long roomId;
+   private RoomType roomType;
+   private long nights;
+   private BigDecimal roomTotal;
+   private BigDecimal servicesTotal;
+   private BigDecimal oneTimeServicesTotal; // PER_ORDER and PER_HOUR services, not part of any night
+   private BigDecimal totalPrice;
+   private List<QuoteNightDto> breakdown;
+   private String error; // set instead of the amounts when this quote could not be priced
+
+   public static QuoteResponseDto failed(Long roomId, RoomType roomType, String error) {
+      QuoteResponseDto response = new QuoteResponseDto();
+      response.setRoomId(roomId);
+      response.setRoomType(roomType);
+      response.setError(error);
+      return response;
+   }
+}
@@ -0,0 +1,20 @@
+package com.backend.hotel_management.dto.response;
+
+import java.util.List;
+
+import com.backend.hotel_management.enums.RoomType;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One row of the front-desk grid
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomCalendarResponseDto {
+   private Long roomId;
+   private String roomNumber;
+   private RoomType roomType;
+   private List<Boolean> bookedNights; // index 0 = fromDate
+}
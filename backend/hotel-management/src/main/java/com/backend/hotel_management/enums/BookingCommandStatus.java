@@ -0,0 +1,5 @@
+package com.backend.hotel_management.enums;
+
+public enum BookingCommandStatus {
+   QUEUED, COMPLETED, FAILED
+}
@@ -0,0 +1,9 @@
+package com.backend.hotel_management.enums;
+
+public enum BookingImportStatus {
+   QUEUED, RUNNING, REFRESHING, COMPLETED, FAILED;
+
+   public boolean isFinished() {
+      return this == COMPLETED || this == FAILED;
+   }
+}
@@ -0,0 +1,5 @@
+package com.backend.hotel_management.enums;
+
+public enum ExportFormat {
+   CSV, NDJSON
+}
@@ -0,0 +1,9 @@
+package com.backend.hotel_management.enums;
+
+public enum ReportJobStatus {
+   QUEUED, RUNNING, COMPLETED, FAILED;
+
+   public boolean isFinished() {
+      return this == COMPLETED || this == FAILED;
+   }
+}
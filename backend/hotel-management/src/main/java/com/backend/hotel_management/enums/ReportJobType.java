@@ -0,0 +1,5 @@
+package com.backend.hotel_management.enums;
+
+public enum ReportJobType {
+   OCCUPANCY, OCCUPANCY_BREAKDOWN, REVENUE, REVENUE_SERIES, GUEST_ACTIVITY
+}
@@ -0,0 +1,28 @@
+package com.backend.hotel_management.enums;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+// Period a revenue series is grouped by; weeks start on Monday
+public enum RevenueBucket {
+   DAY, WEEK, MONTH;
+
+   // First day of the bucket containing the date
+   public LocalDate startOf(LocalDate date) {
+      return switch (this) {
+         case DAY -> date;
+         case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+         case MONTH -> date.withDayOfMonth(1);
+      };
+   }
+
+   // First day of the bucket after the one starting at start
+   public LocalDate next(LocalDate start) {
+      return switch (this) {
+         case DAY -> start.plusDays(1);
+         case WEEK -> start.plusWeeks(1);
+         case MONTH -> start.plusMonths(1);
+      };
+   }
+}
@@ -0,0 +1,33 @@
+package com.backend.hotel_management.event;
+
+import java.time.LocalDateTime;
+
+import com.backend.hotel_management.model.Booking;
+
+/**
+ * Published whenever a booking is created, moved or removed.
+ * previous is null for a new booking, current is null for a deleted one.
+ */
+public record BookingChangedEvent(Long bookingId, BookingSlot previous, BookingSlot current) {
+
+   // Room and stay dates of a booking at one point in time
+   public record BookingSlot(Long roomId, LocalDateTime checkIn, LocalDateTime checkOut) {
+
+      public static BookingSlot of(Booking booking) {
+         Long roomId = booking.getRoom() != null ? booking.getRoom().getId() : null;
+         return new BookingSlot(roomId, booking.getCheckInDateTime(), booking.getCheckOutDateTime());
+      }
+   }
+
+   public static BookingChangedEvent created(Booking booking) {
+      return new BookingChangedEvent(booking.getId(), null, BookingSlot.of(booking));
+   }
+
+   public static BookingChangedEvent updated(BookingSlot previous, Booking booking) {
+      return new BookingChangedEvent(booking.getId(), previous, BookingSlot.of(booking));
+   }
+
+   public static BookingChangedEvent deleted(Booking booking) {
+      return new BookingChangedEvent(booking.getId(), BookingSlot.of(booking), null);
+   }
+}
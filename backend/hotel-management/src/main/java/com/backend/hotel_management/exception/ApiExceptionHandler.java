@@ -0,0 +1,45 @@
+package com.backend.hotel_management.exception;
+
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+// Turns the domain exceptions into clean JSON error responses
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+   @ExceptionHandler(RoomNotAvailableException.class)
+   public ResponseEntity<Map<String, String>> handleRoomNotAvailable(RoomNotAvailableException e) {
+      return new ResponseEntity<>(Map.of("error", e.getMessage()), HttpStatus.CONFLICT);
+   }
+
+   @ExceptionHandler(GuestPasswordMismatchException.class)
+   public ResponseEntity<Map<String, String>> handleGuestPasswordMismatch(GuestPasswordMismatchException e) {
+      return new ResponseEntity<>(Map.of("error", e.getMessage()), HttpStatus.UNAUTHORIZED);
+   }
+
+   @ExceptionHandler(InvalidPageRequestException.class)
+   public ResponseEntity<Map<String, String>> handleInvalidPageRequest(InvalidPageRequestException e) {
+      return new ResponseEntity<>(Map.of("error", e.getMessage()), HttpStatus.BAD_REQUEST);
+   }
+
+   @ExceptionHandler(LoginThrottledException.class)
+   public ResponseEntity<Map<String, String>> handleLoginThrottled(LoginThrottledException e) {
+      // Whole seconds, rounded up
+      long seconds = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+      return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, Long.toString(seconds))
+            .body(Map.of("error", e.getMessage()));
+   }
+
+   @ExceptionHandler(PasswordHashingBusyException.class)
+   public ResponseEntity<Map<String, String>> handlePasswordHashingBusy(PasswordHashingBusyException e) {
+      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(Map.of("error", e.getMessage()));
+   }
+}
@@ -0,0 +1,13 @@
+package com.backend.hotel_management.exception;
+
+/**
+ * Thrown when a booking application names an existing guest's email with a
+ * password that does not match theirs. The stored password is never replaced
+ * from a public booking form.
+ */
+public class GuestPasswordMismatchException extends RuntimeException {
+
+   public GuestPasswordMismatchException() {
+      super("An account with this email already exists and the password does not match");
+   }
+}
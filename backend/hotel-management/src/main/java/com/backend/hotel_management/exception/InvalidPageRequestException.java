@@ -0,0 +1,10 @@
+package com.backend.hotel_management.exception;
+
+// Thrown for a list request with an unknown sort key, a bad limit or a cursor this server did not issue,
+// and for an unpaged list request over KeysetRepository.UNPAGED_LIMIT rows
+public class InvalidPageRequestException extends RuntimeException {
+
+   public InvalidPageRequestException(String message) {
+      super(message);
+   }
+}
@@ -0,0 +1,21 @@
+package com.backend.hotel_management.exception;
+
+import java.time.Duration;
+
+/**
+ * Thrown when an account or a client address has failed to sign in too often
+ * recently; answered with 429 and how long to wait.
+ */
+public class LoginThrottledException extends RuntimeException {
+
+   private final Duration retryAfter;
+
+   public LoginThrottledException(Duration retryAfter) {
+      super("Too many failed sign-in attempts, please try again later");
+      this.retryAfter = retryAfter;
+   }
+
+   public Duration getRetryAfter() {
+      return retryAfter;
+   }
+}
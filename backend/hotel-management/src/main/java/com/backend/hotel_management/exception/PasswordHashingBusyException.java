@@ -0,0 +1,12 @@
+package com.backend.hotel_management.exception;
+
+/**
+ * Thrown when a password cannot be hashed or checked now because the hashing
+ * threads are saturated; answered with 503 so the client retries later.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+   public PasswordHashingBusyException() {
+      super("Too many sign-ins at the moment, please try again shortly");
+   }
+}
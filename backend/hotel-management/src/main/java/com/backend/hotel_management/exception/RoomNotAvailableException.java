@@ -0,0 +1,34 @@
+package com.backend.hotel_management.exception;
+
+import java.sql.SQLException;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * Thrown when a booking would overlap another booking of the same room, either
+ * because the pre-check found one or because the database exclusion constraint
+ * rejected the write.
+ */
+public class RoomNotAvailableException extends RuntimeException {
+
+   // Name of the exclusion constraint added in V2__booking_stay_range_exclusion.sql
+   public static final String OVERLAP_CONSTRAINT = "booking_no_overlapping_stays";
+
+   // SQLSTATE Postgres reports for exclusion constraint violations
+   private static final String EXCLUSION_VIOLATION = "23P01";
+
+   public RoomNotAvailableException() {
+      super("Room is not available for the selected dates");
+   }
+
+   // Whether a failed booking write was rejected by the no-overlap constraint
+   public static boolean isCausedByOverlap(DataIntegrityViolationException e) {
+      for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+         if (cause instanceof SQLException sqlException
+               && EXCLUSION_VIOLATION.equals(sqlException.getSQLState())) {
+            return cause.getMessage() == null || cause.getMessage().contains(OVERLAP_CONSTRAINT);
+         }
+      }
+      return false;
+   }
+}
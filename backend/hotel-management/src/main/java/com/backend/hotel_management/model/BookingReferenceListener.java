@@ -0,0 +1,24 @@
+package com.backend.hotel_management.model;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.backend.hotel_management.service.BookingReferenceService;
+
+import jakarta.persistence.PrePersist;
+
+// Gives a new booking its id and public reference before it is inserted
+public class BookingReferenceListener {
+
+   @Autowired
+   private BookingReferenceService bookingReferenceService;
+
+   @PrePersist
+   public void assignIdAndReference(Booking booking) {
+      if (booking.getId() == null) {
+         booking.setId(bookingReferenceService.nextBookingId());
+      }
+      if (booking.getBookingReference() == null || booking.getBookingReference().isEmpty()) {
+         booking.setBookingReference(bookingReferenceService.referenceFor(booking.getId()));
+      }
+   }
+}
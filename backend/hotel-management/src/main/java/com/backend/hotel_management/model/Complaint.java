@@ -9,6 +9,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -20,7 +21,8 @@ import lombok.NoArgsConstructor;
 public class Complaint {
 
       @Id
-      @GeneratedValue(strategy = GenerationType.IDENTITY)
+      @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "complaint_id")
+      @SequenceGenerator(name = "complaint_id", sequenceName = "complaint_id_seq", allocationSize = 50)
       private Long id;
       private String title;
       private String message;
@@ -10,6 +10,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
@@ -23,7 +24,8 @@ import lombok.NoArgsConstructor;
 public class Guest {
 
       @Id
-      @GeneratedValue(strategy = GenerationType.IDENTITY)
+      @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "guest_id")
+      @SequenceGenerator(name = "guest_id", sequenceName = "guest_id_seq", allocationSize = 50)
       private Long id;
 
       @NotBlank
@@ -11,6 +11,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -22,7 +23,8 @@ import lombok.NoArgsConstructor;
 public class HotelServing {
 
       @Id
-      @GeneratedValue(strategy = GenerationType.IDENTITY)
+      @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "hotel_serving_id")
+      @SequenceGenerator(name = "hotel_serving_id", sequenceName = "hotel_serving_id_seq", allocationSize = 50)
       private Long id;
 
       @Column(nullable = false, unique = true)
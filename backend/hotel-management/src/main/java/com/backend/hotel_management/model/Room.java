@@ -15,6 +15,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.PostLoad;
+import jakarta.persistence.SequenceGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -24,8 +25,14 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class Room {
+   private static final BigDecimal SINGLE_RATE = new BigDecimal("100.00");
+   private static final BigDecimal DOUBLE_RATE = new BigDecimal("150.00");
+   private static final BigDecimal DELUXE_RATE = new BigDecimal("250.00");
+   private static final BigDecimal SUITE_RATE = new BigDecimal("400.00");
+
    @Id
-   @GeneratedValue(strategy = GenerationType.IDENTITY)
+   @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "room_id")
+   @SequenceGenerator(name = "room_id", sequenceName = "room_id_seq", allocationSize = 50)
    private Long id;
 
    @Column(unique = true, nullable = false)
@@ -67,17 +74,17 @@ public class Room {
       this.maxOccupancy = getMaxOccupancyByRoomType(roomType); // Set occupancy based on room type
    }
 
-   private static BigDecimal getPriceByRoomType(RoomType roomType) {
+   // Nightly rate of a room type; PricingEngine compiles these into its rate table
+   public static BigDecimal getPriceByRoomType(RoomType roomType) {
       if (roomType == null) {
-         return new BigDecimal("100.00");
+         return SINGLE_RATE;
       }
 
       return switch (roomType) {
-         case SINGLE -> new BigDecimal("100.00");
-         case DOUBLE -> new BigDecimal("150.00");
-         case DELUXE -> new BigDecimal("250.00");
-         case SUITE -> new BigDecimal("400.00");
-         default -> new BigDecimal("100.00");
+         case SINGLE -> SINGLE_RATE;
+         case DOUBLE -> DOUBLE_RATE;
+         case DELUXE -> DELUXE_RATE;
+         case SUITE -> SUITE_RATE;
       };
    }
 
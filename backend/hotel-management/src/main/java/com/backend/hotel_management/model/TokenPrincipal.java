@@ -0,0 +1,78 @@
+package com.backend.hotel_management.model;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+// The signed-in employee or guest of a request, built from the token's claims without loading the entity
+public class TokenPrincipal implements UserDetails {
+
+   public static final String GUEST_AUTHORITY = "ROLE_GUEST";
+
+   private final Long id;
+   private final String email;
+   private final String authority;
+
+   public TokenPrincipal(Long id, String email, String authority) {
+      this.id = id;
+      this.email = email;
+      this.authority = authority;
+   }
+
+   // Employee tokens carry the role name, guest tokens the authority itself
+   public static String authorityOf(String role) {
+      return role.startsWith("ROLE_") ? role : "ROLE_" + role;
+   }
+
+   // Employee id or guest id, depending on isGuest()
+   public Long getId() {
+      return id;
+   }
+
+   public String getAuthority() {
+      return authority;
+   }
+
+   public boolean isGuest() {
+      return GUEST_AUTHORITY.equals(authority);
+   }
+
+   @Override
+   public Collection<? extends GrantedAuthority> getAuthorities() {
+      return Collections.singletonList(new SimpleGrantedAuthority(authority));
+   }
+
+   // Never known; the password was checked at login
+   @Override
+   public String getPassword() {
+      return null;
+   }
+
+   @Override
+   public String getUsername() {
+      return email;
+   }
+
+   @Override
+   public boolean isAccountNonExpired() {
+      return true;
+   }
+
+   @Override
+   public boolean isAccountNonLocked() {
+      return true;
+   }
+
+   @Override
+   public boolean isCredentialsNonExpired() {
+      return true;
+   }
+
+   @Override
+   public boolean isEnabled() {
+      return true;
+   }
+}
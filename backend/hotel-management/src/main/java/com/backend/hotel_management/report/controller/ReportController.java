@@ -1,21 +1,45 @@
 package com.backend.hotel_management.report.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.backend.hotel_management.enums.RevenueBucket;
 import com.backend.hotel_management.report.dto.GuestActivityReportResponseDto;
+import com.backend.hotel_management.report.dto.OccupancyBreakdownResponseDto;
 import com.backend.hotel_management.report.dto.OccupancyReportResponseDto;
+import com.backend.hotel_management.report.dto.ReportCacheStatsResponseDto;
+import com.backend.hotel_management.report.dto.ReportJobRequestDto;
+import com.backend.hotel_management.report.dto.ReportJobStatusResponseDto;
 import com.backend.hotel_management.report.dto.RevenueReportResponseDto;
+import com.backend.hotel_management.report.service.ReportCache;
+import com.backend.hotel_management.report.service.ReportCache.Report;
+import com.backend.hotel_management.report.service.ReportJobService;
+import com.backend.hotel_management.report.service.ReportJobService.ReportJob;
 import com.backend.hotel_management.report.service.ReportService;
+import com.backend.hotel_management.report.service.RevenueRollupService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
 @RestController
@@ -23,7 +47,81 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 @CrossOrigin("*")
 public class ReportController {
+   // How long a job status subscription stays open
+   private static final long JOB_EVENTS_TIMEOUT_MILLIS = 10 * 60 * 1000;
+
    private final ReportService reportService;
+   private final RevenueRollupService revenueRollupService;
+   private final ObjectMapper objectMapper;
+   private final ReportCache reportCache;
+   private final ReportJobService reportJobService;
+
+   // POST /api/hotel/reports/jobs
+   // Runs a report in the background; answers 202 with the job id and a status link
+   @PostMapping("/jobs")
+   public ResponseEntity<?> submitReportJob(@RequestBody @Valid ReportJobRequestDto requestDto) {
+      try {
+         ReportJob job = reportJobService.submit(requestDto);
+         return ResponseEntity.accepted()
+               .location(URI.create("/api/hotel/reports/jobs/" + job.getId()))
+               .body(job.toStatus());
+      } catch (IllegalArgumentException e) {
+         return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+      } catch (IllegalStateException e) {
+         return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Map.of("error", e.getMessage()));
+      }
+   }
+
+   // GET /api/hotel/reports/jobs/{jobId}
+   // Poll status, progress and, once finished, the result or error
+   @GetMapping("/jobs/{jobId}")
+   public ResponseEntity<ReportJobStatusResponseDto> getReportJob(@PathVariable UUID jobId) {
+      return reportJobService.findJob(jobId)
+            .map(job -> ResponseEntity.ok(job.toStatus()))
+            .orElse(ResponseEntity.notFound().build());
+   }
+
+   // GET /api/hotel/reports/jobs/{jobId}/events
+   // Server-sent "status" events: the current status, then every change until the job finishes
+   @GetMapping(value = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+   public ResponseEntity<SseEmitter> streamReportJob(@PathVariable UUID jobId) {
+      Optional<ReportJob> job = reportJobService.findJob(jobId);
+      if (job.isEmpty()) {
+         return ResponseEntity.notFound().build();
+      }
+      SseEmitter emitter = new SseEmitter(JOB_EVENTS_TIMEOUT_MILLIS);
+      Runnable unsubscribe = job.get().subscribe(status -> {
+         try {
+            emitter.send(SseEmitter.event().name("status").data(status));
+            if (status.getStatus().isFinished()) {
+               emitter.complete();
+            }
+         } catch (IOException e) {
+            emitter.completeWithError(e); // client went away; onError unsubscribes
+         }
+      });
+      emitter.onCompletion(unsubscribe);
+      emitter.onTimeout(unsubscribe);
+      emitter.onError(e -> unsubscribe.run());
+      return ResponseEntity.ok(emitter);
+   }
+
+   // GET /api/hotel/reports/cache/stats
+   // Hit, miss and eviction counters of the report cache, for sizing it
+   @GetMapping("/cache/stats")
+   public ResponseEntity<ReportCacheStatsResponseDto> getCacheStats() {
+      return ResponseEntity.ok(reportCache.stats());
+   }
+
+   // POST /api/hotel/reports/rollup/rebuild
+   // Recomputes the daily rollup from the bookings in the background
+   @PostMapping("/rollup/rebuild")
+   public ResponseEntity<String> rebuildRollup() {
+      if (!revenueRollupService.startRebuild()) {
+         return ResponseEntity.status(HttpStatus.CONFLICT).body("A rollup rebuild is already running");
+      }
+      return ResponseEntity.accepted().body("Rollup rebuild started");
+   }
 
    // GET /api/reports/occupancy?fromDate=2024-01-01&toDate=2024-01-31
    @GetMapping("/occupancy")
@@ -31,12 +129,33 @@ public class ReportController {
          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate) {
 
-      if (fromDate.isAfter(toDate)) {
+      if (fromDate.isAfter(toDate) || fromDate.plusYears(ReportService.MAX_RANGE_YEARS).isBefore(toDate)) {
          return ResponseEntity.badRequest().build();
       }
 
       try {
-         OccupancyReportResponseDto report = reportService.generateOccupancyReport(fromDate, toDate);
+         OccupancyReportResponseDto report = reportCache.get(Report.OCCUPANCY, fromDate, toDate,
+               () -> reportService.generateOccupancyReport(fromDate, toDate));
+         return ResponseEntity.ok(report);
+      } catch (Exception e) {
+         return ResponseEntity.internalServerError().build();
+      }
+   }
+
+   // GET /api/hotel/reports/occupancy/breakdown?fromDate=2024-01-01&toDate=2024-12-31
+   // Occupied and available room-nights per day and per room type
+   @GetMapping("/occupancy/breakdown")
+   public ResponseEntity<OccupancyBreakdownResponseDto> getOccupancyBreakdown(
+         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate) {
+
+      if (fromDate.isAfter(toDate) || fromDate.plusYears(ReportService.MAX_RANGE_YEARS).isBefore(toDate)) {
+         return ResponseEntity.badRequest().build();
+      }
+
+      try {
+         OccupancyBreakdownResponseDto report = reportCache.get(Report.OCCUPANCY_BREAKDOWN, fromDate, toDate,
+               () -> reportService.generateOccupancyBreakdown(fromDate, toDate));
          return ResponseEntity.ok(report);
       } catch (Exception e) {
          return ResponseEntity.internalServerError().build();
@@ -55,13 +174,45 @@ public class ReportController {
       }
 
       try {
-         RevenueReportResponseDto report = reportService.generateRevenueReport(fromDate, toDate);
+         RevenueReportResponseDto report = reportCache.get(Report.REVENUE, fromDate, toDate,
+               () -> reportService.generateRevenueReport(fromDate, toDate));
          return ResponseEntity.ok(report);
       } catch (Exception e) {
          return ResponseEntity.internalServerError().build();
       }
    }
 
+   // GET /api/hotel/reports/revenue/series?fromDate=2024-01-01&toDate=2024-12-31&bucket=month
+   // Streams one JSON object per bucket and line (NDJSON) as the buckets are completed
+   @GetMapping("/revenue/series")
+   public ResponseEntity<StreamingResponseBody> getRevenueSeries(
+         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+         @RequestParam(defaultValue = "day") String bucket) {
+
+      RevenueBucket revenueBucket;
+      try {
+         revenueBucket = RevenueBucket.valueOf(bucket.toUpperCase());
+      } catch (IllegalArgumentException e) {
+         return ResponseEntity.badRequest().build();
+      }
+      if (fromDate.isAfter(toDate) || fromDate.plusYears(ReportService.MAX_RANGE_YEARS).isBefore(toDate)) {
+         return ResponseEntity.badRequest().build();
+      }
+
+      StreamingResponseBody body = out -> reportService.streamRevenueSeries(fromDate, toDate, revenueBucket,
+            point -> {
+               try {
+                  out.write(objectMapper.writeValueAsBytes(point));
+                  out.write('\n');
+                  out.flush();
+               } catch (IOException e) {
+                  throw new UncheckedIOException(e);
+               }
+            });
+      return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+   }
+
    // GET /api/reports/guest-activity/1
    @GetMapping("/guest-activity/{guestId}")
    public ResponseEntity<GuestActivityReportResponseDto> getGuestActivityReport(
@@ -0,0 +1,21 @@
+package com.backend.hotel_management.report.dto;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import com.backend.hotel_management.enums.RoomType;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyOccupancyDto {
+   private LocalDate date;
+   private long occupiedRoomNights;
+   private long availableRoomNights;
+   private double occupancyRate; // Percentage
+   private Map<RoomType, Long> occupiedByRoomType;
+}
@@ -0,0 +1,22 @@
+package com.backend.hotel_management.report.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OccupancyBreakdownResponseDto {
+   private LocalDate fromDate;
+   private LocalDate toDate;
+   private int totalRooms;
+   private long occupiedRoomNights;
+   private long availableRoomNights;
+   private double occupancyRate; // Percentage
+   private List<RoomTypeOccupancyDto> roomTypes;
+   private List<DailyOccupancyDto> days;
+}
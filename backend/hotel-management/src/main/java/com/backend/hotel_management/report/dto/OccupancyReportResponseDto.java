@@ -13,6 +13,8 @@ public class OccupancyReportResponseDto {
    private LocalDate fromDate;
    private LocalDate toDate;
    private int totalRooms;
-   private int occupiedRooms;
-   private double occupancyRate; // Percentage
+   private int occupiedRooms; // Average per night
+   private double occupancyRate; // Percentage of available room-nights
+   private long occupiedRoomNights;
+   private long availableRoomNights;
 }
\ No newline at end of file
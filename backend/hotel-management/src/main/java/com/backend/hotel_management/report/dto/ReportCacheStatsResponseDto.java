@@ -0,0 +1,19 @@
+package com.backend.hotel_management.report.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportCacheStatsResponseDto {
+   private int size;
+   private int maxEntries;
+   private long ttlSeconds;
+   private long hits;
+   private long misses;
+   private long evictions; // Dropped to stay within maxEntries
+   private long expirations; // Dropped for being older than the ttl
+   private long invalidations; // Dropped because a booking in their range changed
+}
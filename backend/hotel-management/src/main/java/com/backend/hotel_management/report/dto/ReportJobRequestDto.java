@@ -0,0 +1,27 @@
+package com.backend.hotel_management.report.dto;
+
+import java.time.LocalDate;
+
+import com.backend.hotel_management.enums.ReportJobType;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobRequestDto {
+   @NotNull(message = "Report type is required")
+   private ReportJobType type;
+
+   // Date range reports
+   private LocalDate fromDate;
+   private LocalDate toDate;
+   private String bucket; // REVENUE_SERIES only: day, week or month (default day)
+
+   // GUEST_ACTIVITY: either a guest id or an email
+   private Long guestId;
+   private String email;
+}
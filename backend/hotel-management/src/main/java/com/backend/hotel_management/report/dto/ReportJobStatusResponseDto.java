@@ -0,0 +1,26 @@
+package com.backend.hotel_management.report.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import com.backend.hotel_management.enums.ReportJobStatus;
+import com.backend.hotel_management.enums.ReportJobType;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// State of a report job
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobStatusResponseDto {
+   private UUID jobId;
+   private ReportJobType type;
+   private ReportJobStatus status;
+   private int progress; // Percentage
+   private Object result; // set once COMPLETED, the same body the synchronous endpoint returns
+   private String error; // set once FAILED
+   private Instant submittedAt;
+   private Instant finishedAt;
+}
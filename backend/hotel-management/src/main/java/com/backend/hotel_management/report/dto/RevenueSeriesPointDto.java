@@ -0,0 +1,20 @@
+package com.backend.hotel_management.report.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevenueSeriesPointDto {
+   private LocalDate periodStart;
+   private LocalDate periodEnd; // Inclusive
+   private BigDecimal totalRevenue;
+   private BigDecimal roomRevenue;
+   private BigDecimal servicesRevenue;
+   private long roomNights;
+}
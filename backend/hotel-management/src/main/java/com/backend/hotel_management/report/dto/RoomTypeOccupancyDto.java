@@ -0,0 +1,18 @@
+package com.backend.hotel_management.report.dto;
+
+import com.backend.hotel_management.enums.RoomType;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomTypeOccupancyDto {
+   private RoomType roomType;
+   private int rooms;
+   private long occupiedRoomNights;
+   private long availableRoomNights;
+   private double occupancyRate; // Percentage
+}
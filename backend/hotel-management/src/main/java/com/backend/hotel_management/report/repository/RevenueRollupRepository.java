@@ -0,0 +1,151 @@
+package com.backend.hotel_management.report.repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import com.backend.hotel_management.enums.RoomType;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Plain JDBC access to daily_room_type_rollup and the booking columns it is
+ * built from. The rollup is derived data with a composite key, so it has no
+ * entity of its own.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RevenueRollupRepository {
+
+      // Booking ids per IN list when loading service lines
+      private static final int ID_CHUNK = 1000;
+
+      private final JdbcTemplate jdbcTemplate;
+
+      public record RollupBooking(long bookingId, RoomType roomType, LocalDateTime checkIn,
+                  LocalDateTime checkOut) {
+      }
+
+      public record RollupServiceLine(long bookingId, long serviceId, int quantity) {
+      }
+
+      public record RollupRow(LocalDate day, RoomType roomType, long roomNights, long roomRevenueCents,
+                  long serviceRevenueCents) {
+      }
+
+      public record RollupTotals(long roomNights, long roomRevenueCents, long serviceRevenueCents) {
+      }
+
+      // Serialise rollup writers touching the same month until the surrounding transaction ends
+      public void lockMonth(int year, int month) {
+            jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?, ?)", 7_301, year * 12 + month);
+      }
+
+      // Bookings with a room whose nights or check-in fall in [start, end)
+      public List<RollupBooking> findBookingsTouching(LocalDateTime start, LocalDateTime end) {
+            return jdbcTemplate.query(
+                        "SELECT b.id, r.room_type, b.check_in_date_time, b.check_out_date_time " +
+                                    "FROM booking b JOIN room r ON r.id = b.room_id " +
+                                    "WHERE b.stay_range && tsrange(CAST(? AS timestamp), CAST(? AS timestamp), '[)') " +
+                                    "OR (b.check_in_date_time >= ? AND b.check_in_date_time < ?)",
+                        (rs, rowNum) -> new RollupBooking(
+                                    rs.getLong(1),
+                                    RoomType.valueOf(rs.getString(2)),
+                                    rs.getObject(3, LocalDateTime.class),
+                                    rs.getObject(4, LocalDateTime.class)),
+                        start, end, start, end);
+      }
+
+      // Selected services of the given bookings; a missing quantity counts as 1
+      public List<RollupServiceLine> findServiceLines(List<Long> bookingIds) {
+            List<RollupServiceLine> lines = new ArrayList<>();
+            for (int from = 0; from < bookingIds.size(); from += ID_CHUNK) {
+                  List<Long> chunk = bookingIds.subList(from, Math.min(from + ID_CHUNK, bookingIds.size()));
+                  String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+                  lines.addAll(jdbcTemplate.query(
+                              "SELECT bs.booking_id, bs.hotel_serving_id, COALESCE(q.quantity, 1) " +
+                                          "FROM booking_services bs LEFT JOIN booking_serving_quantities q " +
+                                          "ON q.booking_id = bs.booking_id AND q.service_id = bs.hotel_serving_id " +
+                                          "WHERE bs.booking_id IN (" + placeholders + ")",
+                              (rs, rowNum) -> new RollupServiceLine(rs.getLong(1), rs.getLong(2), rs.getInt(3)),
+                              chunk.toArray()));
+            }
+            return lines;
+      }
+
+      // Replace every row for the days [from, to] with the given rows
+      public void replaceDays(LocalDate from, LocalDate to, Collection<RollupRow> rows) {
+            jdbcTemplate.update("DELETE FROM daily_room_type_rollup WHERE day BETWEEN ? AND ?",
+                        Date.valueOf(from), Date.valueOf(to));
+            jdbcTemplate.batchUpdate(
+                        "INSERT INTO daily_room_type_rollup " +
+                                    "(day, room_type, room_nights, room_revenue_cents, service_revenue_cents) " +
+                                    "VALUES (?, ?, ?, ?, ?)",
+                        rows, 500, (ps, row) -> {
+                              ps.setDate(1, Date.valueOf(row.day()));
+                              ps.setString(2, row.roomType().name());
+                              ps.setLong(3, row.roomNights());
+                              ps.setLong(4, row.roomRevenueCents());
+                              ps.setLong(5, row.serviceRevenueCents());
+                        });
+      }
+
+      public RollupTotals sumDays(LocalDate from, LocalDate to) {
+            return jdbcTemplate.queryForObject(
+                        "SELECT COALESCE(SUM(room_nights), 0), COALESCE(SUM(room_revenue_cents), 0), " +
+                                    "COALESCE(SUM(service_revenue_cents), 0) " +
+                                    "FROM daily_room_type_rollup WHERE day BETWEEN ? AND ?",
+                        (rs, rowNum) -> new RollupTotals(rs.getLong(1), rs.getLong(2), rs.getLong(3)),
+                        Date.valueOf(from), Date.valueOf(to));
+      }
+
+      // Rows for the days [from, to] in day order
+      public List<RollupRow> findDays(LocalDate from, LocalDate to) {
+            return jdbcTemplate.query(
+                        "SELECT day, room_type, room_nights, room_revenue_cents, service_revenue_cents " +
+                                    "FROM daily_room_type_rollup WHERE day BETWEEN ? AND ? ORDER BY day, room_type",
+                        (rs, rowNum) -> new RollupRow(
+                                    rs.getDate(1).toLocalDate(),
+                                    RoomType.valueOf(rs.getString(2)),
+                                    rs.getLong(3),
+                                    rs.getLong(4),
+                                    rs.getLong(5)),
+                        Date.valueOf(from), Date.valueOf(to));
+      }
+
+      // Totals of each day in [from, to] that has rows, handed over one at a time in day order
+      public void forEachDay(LocalDate from, LocalDate to, BiConsumer<LocalDate, RollupTotals> consumer) {
+            jdbcTemplate.query(
+                        "SELECT day, SUM(room_nights), SUM(room_revenue_cents), SUM(service_revenue_cents) " +
+                                    "FROM daily_room_type_rollup WHERE day BETWEEN ? AND ? GROUP BY day ORDER BY day",
+                        (RowCallbackHandler) rs -> consumer.accept(rs.getDate(1).toLocalDate(),
+                                    new RollupTotals(rs.getLong(2), rs.getLong(3), rs.getLong(4))),
+                        Date.valueOf(from), Date.valueOf(to));
+      }
+
+      public boolean isEmpty() {
+            return !Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                        "SELECT EXISTS (SELECT 1 FROM daily_room_type_rollup)", Boolean.class));
+      }
+
+      // First check-in and last check-out date over all bookings, or null when there are none
+      public LocalDate[] bookedDateRange() {
+            return jdbcTemplate.queryForObject(
+                        "SELECT MIN(check_in_date_time), MAX(check_out_date_time) FROM booking",
+                        (rs, rowNum) -> {
+                              LocalDateTime first = rs.getObject(1, LocalDateTime.class);
+                              LocalDateTime last = rs.getObject(2, LocalDateTime.class);
+                              return first == null ? null
+                                          : new LocalDate[] { first.toLocalDate(), last.toLocalDate() };
+                        });
+      }
+}
@@ -0,0 +1,202 @@
+package com.backend.hotel_management.report.service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+
+import com.backend.hotel_management.enums.RoomType;
+import com.backend.hotel_management.report.dto.DailyOccupancyDto;
+import com.backend.hotel_management.report.dto.OccupancyBreakdownResponseDto;
+import com.backend.hotel_management.report.dto.RoomTypeOccupancyDto;
+import com.backend.hotel_management.report.repository.RevenueRollupRepository;
+import com.backend.hotel_management.report.repository.RevenueRollupRepository.RollupRow;
+import com.backend.hotel_management.repository.RoomRepository;
+import com.backend.hotel_management.repository.projection.RoomTypeRow;
+import com.backend.hotel_management.service.RoomNightCalendar;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Occupied and available room-nights per day and room type.
+ *
+ * Nights inside the room night calendar's window are counted straight from its
+ * bitmap, split into date chunks and counted in parallel, so the cost depends
+ * on rooms times nights and not on how many bookings there are. Nights before
+ * or after the window come from the daily rollup, which stores one row per day
+ * and room type. Available room-nights are the rooms that exist today.
+ */
+@Service
+@RequiredArgsConstructor
+public class OccupancyEngine {
+
+      private static final RoomType[] ROOM_TYPES = RoomType.values();
+
+      private final RoomNightCalendar roomNightCalendar;
+      private final RevenueRollupRepository rollupRepository;
+      private final RoomRepository roomRepository;
+
+      // Whole-range figures of an occupancy report, without the per-day breakdown
+      public record OccupancyTotals(int totalRooms, long occupiedRoomNights, long availableRoomNights,
+                  double occupancyRate) {
+      }
+
+      // Nights of the calendar's window counted per room type, counts[type][n] for the night from + n
+      private record CalendarCounts(LocalDate from, LocalDate to, int[][] counts) {
+      }
+
+      // Occupancy of every night from fromDate to toDate inclusive
+      public OccupancyBreakdownResponseDto compute(LocalDate fromDate, LocalDate toDate) {
+            int days = (int) ChronoUnit.DAYS.between(fromDate, toDate) + 1;
+
+            Map<Long, Integer> typeOfRoom = new HashMap<>();
+            int[] roomsPerType = new int[ROOM_TYPES.length];
+            loadRoomTypes(typeOfRoom, roomsPerType);
+
+            // occupied[type][n] = rooms of that type booked for the night fromDate + n
+            long[][] occupied = new long[ROOM_TYPES.length][days];
+            LocalDate endExclusive = toDate.plusDays(1);
+            LocalDate calendarFrom = endExclusive;
+            LocalDate calendarTo = endExclusive;
+
+            CalendarCounts calendar = countFromCalendar(fromDate, endExclusive, typeOfRoom);
+            if (calendar != null) {
+                  int offset = (int) ChronoUnit.DAYS.between(fromDate, calendar.from());
+                  for (int type = 0; type < ROOM_TYPES.length; type++) {
+                        for (int night = 0; night < calendar.counts()[type].length; night++) {
+                              occupied[type][offset + night] = calendar.counts()[type][night];
+                        }
+                  }
+                  calendarFrom = calendar.from();
+                  calendarTo = calendar.to();
+            }
+
+            if (fromDate.isBefore(calendarFrom)) {
+                  addRollupNights(occupied, fromDate, fromDate, calendarFrom.minusDays(1));
+            }
+            if (calendarTo.isBefore(endExclusive)) {
+                  addRollupNights(occupied, fromDate, calendarTo, toDate);
+            }
+
+            return toResponse(fromDate, toDate, days, roomsPerType, occupied);
+      }
+
+      // Same figures as compute's totals, summed without an array or DTO per day
+      public OccupancyTotals computeTotals(LocalDate fromDate, LocalDate toDate) {
+            long days = ChronoUnit.DAYS.between(fromDate, toDate) + 1;
+
+            Map<Long, Integer> typeOfRoom = new HashMap<>();
+            int[] roomsPerType = new int[ROOM_TYPES.length];
+            int totalRooms = loadRoomTypes(typeOfRoom, roomsPerType);
+
+            long occupied = 0;
+            LocalDate endExclusive = toDate.plusDays(1);
+            LocalDate calendarFrom = endExclusive;
+            LocalDate calendarTo = endExclusive;
+
+            CalendarCounts calendar = countFromCalendar(fromDate, endExclusive, typeOfRoom);
+            if (calendar != null) {
+                  for (int[] nights : calendar.counts()) {
+                        for (int count : nights) {
+                              occupied += count;
+                        }
+                  }
+                  calendarFrom = calendar.from();
+                  calendarTo = calendar.to();
+            }
+
+            if (fromDate.isBefore(calendarFrom)) {
+                  occupied += rollupRepository.sumDays(fromDate, calendarFrom.minusDays(1)).roomNights();
+            }
+            if (calendarTo.isBefore(endExclusive)) {
+                  occupied += rollupRepository.sumDays(calendarTo, toDate).roomNights();
+            }
+
+            long available = totalRooms * days;
+            return new OccupancyTotals(totalRooms, occupied, available, rate(occupied, available));
+      }
+
+      // Fills the room type of every room and the rooms per type; returns the number of rooms
+      private int loadRoomTypes(Map<Long, Integer> typeOfRoom, int[] roomsPerType) {
+            int totalRooms = 0;
+            for (RoomTypeRow row : roomRepository.findAllRoomTypes()) {
+                  if (row.roomType() != null) {
+                        typeOfRoom.put(row.roomId(), row.roomType().ordinal());
+                        roomsPerType[row.roomType().ordinal()]++;
+                        totalRooms++;
+                  }
+            }
+            return totalRooms;
+      }
+
+      // The nights of [fromDate, endExclusive) inside the calendar's window, or null if there are none
+      private CalendarCounts countFromCalendar(LocalDate fromDate, LocalDate endExclusive,
+                  Map<Long, Integer> typeOfRoom) {
+            LocalDate windowStart = roomNightCalendar.windowStart();
+            LocalDate windowEnd = roomNightCalendar.windowEnd();
+            if (windowStart == null) {
+                  return null;
+            }
+            LocalDate from = fromDate.isAfter(windowStart) ? fromDate : windowStart;
+            LocalDate to = endExclusive.isBefore(windowEnd) ? endExclusive : windowEnd;
+            if (!from.isBefore(to)) {
+                  return null;
+            }
+            int[][] counts = roomNightCalendar.countBookedNights(from, to, typeOfRoom, ROOM_TYPES.length);
+            // null if the window rolled in between; then the rollup covers everything
+            return counts == null ? null : new CalendarCounts(from, to, counts);
+      }
+
+      private void addRollupNights(long[][] occupied, LocalDate origin, LocalDate from, LocalDate to) {
+            for (RollupRow row : rollupRepository.findDays(from, to)) {
+                  occupied[row.roomType().ordinal()][(int) ChronoUnit.DAYS.between(origin, row.day())] += row
+                              .roomNights();
+            }
+      }
+
+      private static OccupancyBreakdownResponseDto toResponse(LocalDate fromDate, LocalDate toDate, int days,
+                  int[] roomsPerType, long[][] occupied) {
+            int totalRooms = 0;
+            for (int rooms : roomsPerType) {
+                  totalRooms += rooms;
+            }
+
+            List<DailyOccupancyDto> daily = new ArrayList<>(days);
+            long[] occupiedPerType = new long[ROOM_TYPES.length];
+            long occupiedTotal = 0;
+            for (int night = 0; night < days; night++) {
+                  Map<RoomType, Long> byType = new EnumMap<>(RoomType.class);
+                  long occupiedNight = 0;
+                  for (int type = 0; type < ROOM_TYPES.length; type++) {
+                        byType.put(ROOM_TYPES[type], occupied[type][night]);
+                        occupiedPerType[type] += occupied[type][night];
+                        occupiedNight += occupied[type][night];
+                  }
+                  occupiedTotal += occupiedNight;
+                  daily.add(new DailyOccupancyDto(fromDate.plusDays(night), occupiedNight, totalRooms,
+                              rate(occupiedNight, totalRooms), byType));
+            }
+
+            List<RoomTypeOccupancyDto> roomTypes = new ArrayList<>(ROOM_TYPES.length);
+            for (int type = 0; type < ROOM_TYPES.length; type++) {
+                  long available = (long) roomsPerType[type] * days;
+                  roomTypes.add(new RoomTypeOccupancyDto(ROOM_TYPES[type], roomsPerType[type], occupiedPerType[type],
+                              available, rate(occupiedPerType[type], available)));
+            }
+
+            long availableTotal = (long) totalRooms * days;
+            return new OccupancyBreakdownResponseDto(fromDate, toDate, totalRooms, occupiedTotal, availableTotal,
+                        rate(occupiedTotal, availableTotal), roomTypes, daily);
+      }
+
+      // Percentage rounded to 2 decimal places
+      static double rate(long occupied, long available) {
+            double rate = available > 0 ? (double) occupied / available * 100 : 0.0;
+            return Math.round(rate * 100.0) / 100.0;
+      }
+}
@@ -0,0 +1,138 @@
+package com.backend.hotel_management.report.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.backend.hotel_management.event.BookingChangedEvent;
+import com.backend.hotel_management.event.BookingChangedEvent.BookingSlot;
+import com.backend.hotel_management.report.dto.ReportCacheStatsResponseDto;
+
+/**
+ * Results of the date-range reports, keyed by report and range.
+ *
+ * Bounded by entry count (least recently used goes first) and by age. A
+ * booking change evicts only the entries whose range touches the days of the
+ * booking's old or new stay. A result computed while an invalidation happened
+ * is returned but not stored, so a report can never cache data from before a
+ * committed change.
+ */
+@Component
+public class ReportCache {
+
+      public enum Report {
+            OCCUPANCY, OCCUPANCY_BREAKDOWN, REVENUE
+      }
+
+      private record Key(Report report, LocalDate fromDate, LocalDate toDate) {
+      }
+
+      private record Entry(Object value, long expiresAt) {
+      }
+
+      private final int maxEntries;
+      private final long ttlNanos;
+
+      // Access-ordered for LRU eviction; guarded by this
+      private final LinkedHashMap<Key, Entry> entries;
+      // Bumped by every invalidation; guarded by this
+      private long generation;
+
+      private final LongAdder hits = new LongAdder();
+      private final LongAdder misses = new LongAdder();
+      private final LongAdder evictions = new LongAdder();
+      private final LongAdder expirations = new LongAdder();
+      private final LongAdder invalidations = new LongAdder();
+
+      public ReportCache(@Value("${hotel.reports.cache.max-entries:256}") int maxEntries,
+                  @Value("${hotel.reports.cache.ttl:PT10M}") Duration ttl) {
+            this.maxEntries = maxEntries;
+            this.ttlNanos = ttl.toNanos();
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                  @Override
+                  protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                        if (size() > ReportCache.this.maxEntries) {
+                              evictions.increment();
+                              return true;
+                        }
+                        return false;
+                  }
+            };
+      }
+
+      // Cached result for the report and range, computing (outside the lock) on a miss
+      @SuppressWarnings("unchecked")
+      public <T> T get(Report report, LocalDate fromDate, LocalDate toDate, Supplier<T> compute) {
+            Key key = new Key(report, fromDate, toDate);
+            long seenGeneration;
+            synchronized (this) {
+                  Entry entry = entries.get(key);
+                  if (entry != null) {
+                        if (System.nanoTime() - entry.expiresAt() < 0) {
+                              hits.increment();
+                              return (T) entry.value();
+                        }
+                        entries.remove(key);
+                        expirations.increment();
+                  }
+                  seenGeneration = generation;
+            }
+            misses.increment();
+            T value = compute.get();
+            synchronized (this) {
+                  if (generation == seenGeneration) {
+                        entries.put(key, new Entry(value, System.nanoTime() + ttlNanos));
+                  }
+            }
+            return value;
+      }
+
+      // After the availability index and room night calendar have applied the change
+      @Order(Ordered.LOWEST_PRECEDENCE)
+      @TransactionalEventListener(fallbackExecution = true)
+      public void onBookingChanged(BookingChangedEvent event) {
+            invalidate(event.previous());
+            invalidate(event.current());
+      }
+
+      private void invalidate(BookingSlot slot) {
+            if (slot == null) {
+                  return;
+            }
+            LocalDate from = slot.checkIn().toLocalDate();
+            LocalDate to = slot.checkOut().toLocalDate();
+            synchronized (this) {
+                  generation++;
+                  Iterator<Key> keys = entries.keySet().iterator();
+                  while (keys.hasNext()) {
+                        Key key = keys.next();
+                        if (!key.fromDate().isAfter(to) && !key.toDate().isBefore(from)) {
+                              keys.remove();
+                              invalidations.increment();
+                        }
+                  }
+            }
+      }
+
+      // Drop everything, e.g. after rooms were added or the rollup was rebuilt
+      public synchronized void invalidateAll() {
+            generation++;
+            invalidations.add(entries.size());
+            entries.clear();
+      }
+
+      public synchronized ReportCacheStatsResponseDto stats() {
+            return new ReportCacheStatsResponseDto(entries.size(), maxEntries, Duration.ofNanos(ttlNanos).toSeconds(),
+                        hits.sum(), misses.sum(), evictions.sum(), expirations.sum(), invalidations.sum());
+      }
+}
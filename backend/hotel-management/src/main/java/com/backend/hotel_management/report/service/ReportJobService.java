@@ -0,0 +1,269 @@
+package com.backend.hotel_management.report.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.backend.hotel_management.enums.ReportJobStatus;
+import com.backend.hotel_management.enums.ReportJobType;
+import com.backend.hotel_management.enums.RevenueBucket;
+import com.backend.hotel_management.report.dto.ReportJobRequestDto;
+import com.backend.hotel_management.report.dto.ReportJobStatusResponseDto;
+import com.backend.hotel_management.report.dto.RevenueSeriesPointDto;
+import com.backend.hotel_management.report.service.ReportCache.Report;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Runs reports in the background so no request thread waits for them.
+ *
+ * Every job gets its own virtual thread; a semaphore caps how many compute at
+ * once, so heavy report traffic queues up here instead of holding Tomcat
+ * workers and database connections the booking endpoints need. Callers poll
+ * the job or subscribe to its status changes.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReportJobService {
+
+      private static final Logger log = LoggerFactory.getLogger(ReportJobService.class);
+
+      private static final Duration JOB_RETENTION = Duration.ofMinutes(15);
+
+      private final ReportService reportService;
+      private final ReportCache reportCache;
+
+      @Value("${hotel.reports.jobs.max-concurrent:4}")
+      private int maxConcurrent;
+
+      // Unfinished jobs accepted at most; beyond that submissions are rejected
+      @Value("${hotel.reports.jobs.max-pending:200}")
+      private int maxPending;
+
+      private final Map<UUID, ReportJob> jobs = new ConcurrentHashMap<>();
+      private final AtomicInteger pending = new AtomicInteger();
+      private Semaphore permits;
+      private ExecutorService executor;
+
+      @PostConstruct
+      public void start() {
+            permits = new Semaphore(maxConcurrent, true);
+            executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("report-job-", 0).factory());
+      }
+
+      @PreDestroy
+      public void stop() {
+            executor.shutdownNow();
+      }
+
+      // Queue a report; throws IllegalArgumentException for a bad request, IllegalStateException when full
+      public ReportJob submit(ReportJobRequestDto request) {
+            validate(request);
+            if (pending.incrementAndGet() > maxPending) {
+                  pending.decrementAndGet();
+                  throw new IllegalStateException("Too many report jobs, please try again shortly");
+            }
+            ReportJob job = new ReportJob(UUID.randomUUID(), request);
+            jobs.put(job.getId(), job);
+            executor.execute(() -> run(job));
+            return job;
+      }
+
+      public Optional<ReportJob> findJob(UUID id) {
+            return Optional.ofNullable(jobs.get(id));
+      }
+
+      // Forget finished jobs once callers have had time to fetch them
+      @Scheduled(fixedDelay = 60000)
+      public void evictFinishedJobs() {
+            Instant cutoff = Instant.now().minus(JOB_RETENTION);
+            jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+      }
+
+      private void run(ReportJob job) {
+            try {
+                  permits.acquire();
+            } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                  job.fail("Report job cancelled");
+                  pending.decrementAndGet();
+                  return;
+            }
+            try {
+                  job.start();
+                  job.complete(compute(job));
+            } catch (RuntimeException e) {
+                  log.error("Report job {} ({}) failed", job.getId(), job.request.getType(), e);
+                  job.fail(e.getMessage());
+            } finally {
+                  permits.release();
+                  pending.decrementAndGet();
+            }
+      }
+
+      private Object compute(ReportJob job) {
+            ReportJobRequestDto request = job.request;
+            LocalDate fromDate = request.getFromDate();
+            LocalDate toDate = request.getToDate();
+            return switch (request.getType()) {
+                  case OCCUPANCY -> reportCache.get(Report.OCCUPANCY, fromDate, toDate,
+                              () -> reportService.generateOccupancyReport(fromDate, toDate));
+                  case OCCUPANCY_BREAKDOWN -> reportCache.get(Report.OCCUPANCY_BREAKDOWN, fromDate, toDate,
+                              () -> reportService.generateOccupancyBreakdown(fromDate, toDate));
+                  case REVENUE -> reportCache.get(Report.REVENUE, fromDate, toDate,
+                              () -> reportService.generateRevenueReport(fromDate, toDate));
+                  case REVENUE_SERIES -> revenueSeries(job, fromDate, toDate, bucketOf(request));
+                  case GUEST_ACTIVITY -> request.getGuestId() != null
+                              ? reportService.generateGuestActivityReport(request.getGuestId())
+                              : reportService.generateGuestActivityReportByEmail(request.getEmail());
+            };
+      }
+
+      // Collects the series, reporting progress as buckets complete
+      private List<RevenueSeriesPointDto> revenueSeries(ReportJob job, LocalDate fromDate, LocalDate toDate,
+                  RevenueBucket bucket) {
+            int buckets = 0;
+            for (LocalDate start = bucket.startOf(fromDate); !start.isAfter(toDate); start = bucket.next(start)) {
+                  buckets++;
+            }
+            int total = buckets;
+            List<RevenueSeriesPointDto> points = new ArrayList<>(total);
+            reportService.streamRevenueSeries(fromDate, toDate, bucket, point -> {
+                  points.add(point);
+                  job.progress(points.size() * 100 / total);
+            });
+            return points;
+      }
+
+      private static void validate(ReportJobRequestDto request) {
+            if (request.getType() == ReportJobType.GUEST_ACTIVITY) {
+                  if (request.getGuestId() == null && (request.getEmail() == null || request.getEmail().isBlank())) {
+                        throw new IllegalArgumentException("Guest activity needs a guestId or an email");
+                  }
+                  return;
+            }
+            LocalDate fromDate = request.getFromDate();
+            LocalDate toDate = request.getToDate();
+            if (fromDate == null || toDate == null) {
+                  throw new IllegalArgumentException("fromDate and toDate are required");
+            }
+            if (fromDate.isAfter(toDate) || fromDate.plusYears(ReportService.MAX_RANGE_YEARS).isBefore(toDate)) {
+                  throw new IllegalArgumentException(
+                              "Date range must be ordered and at most " + ReportService.MAX_RANGE_YEARS + " years");
+            }
+            if (request.getType() == ReportJobType.REVENUE_SERIES) {
+                  bucketOf(request);
+            }
+      }
+
+      private static RevenueBucket bucketOf(ReportJobRequestDto request) {
+            String bucket = request.getBucket() != null ? request.getBucket() : "day";
+            try {
+                  return RevenueBucket.valueOf(bucket.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                  throw new IllegalArgumentException("Unknown bucket: " + bucket);
+            }
+      }
+
+      /**
+       * One submitted report and its outcome. Status changes and subscriptions
+       * are serialised on the job, so a subscriber sees every change in order
+       * and nothing after the final one.
+       */
+      public static final class ReportJob {
+
+            private final UUID id;
+            private final ReportJobRequestDto request;
+            private final Instant submittedAt = Instant.now();
+            private final List<Consumer<ReportJobStatusResponseDto>> subscribers = new CopyOnWriteArrayList<>();
+            private volatile ReportJobStatus status = ReportJobStatus.QUEUED;
+            private volatile int progress;
+            private volatile Object result;
+            private volatile String error;
+            private volatile Instant finishedAt;
+
+            ReportJob(UUID id, ReportJobRequestDto request) {
+                  this.id = id;
+                  this.request = request;
+            }
+
+            public UUID getId() {
+                  return id;
+            }
+
+            public ReportJobStatusResponseDto toStatus() {
+                  return new ReportJobStatusResponseDto(id, request.getType(), status, progress, result, error,
+                              submittedAt, finishedAt);
+            }
+
+            // Sends the current status right away, then every change; returns the unsubscribe action
+            public synchronized Runnable subscribe(Consumer<ReportJobStatusResponseDto> subscriber) {
+                  subscriber.accept(toStatus());
+                  if (!status.isFinished()) {
+                        subscribers.add(subscriber);
+                  }
+                  return () -> subscribers.remove(subscriber);
+            }
+
+            synchronized void start() {
+                  status = ReportJobStatus.RUNNING;
+                  publish();
+            }
+
+            synchronized void progress(int percent) {
+                  if (percent != progress) {
+                        progress = percent;
+                        publish();
+                  }
+            }
+
+            synchronized void complete(Object value) {
+                  result = value;
+                  progress = 100;
+                  finish(ReportJobStatus.COMPLETED);
+            }
+
+            synchronized void fail(String message) {
+                  error = message;
+                  finish(ReportJobStatus.FAILED);
+            }
+
+            private void finish(ReportJobStatus finalStatus) {
+                  finishedAt = Instant.now();
+                  status = finalStatus;
+                  publish();
+                  subscribers.clear();
+            }
+
+            private void publish() {
+                  ReportJobStatusResponseDto snapshot = toStatus();
+                  for (Consumer<ReportJobStatusResponseDto> subscriber : subscribers) {
+                        try {
+                              subscriber.accept(snapshot);
+                        } catch (RuntimeException e) {
+                              subscribers.remove(subscriber); // gone away; don't let it fail the job
+                        }
+                  }
+            }
+      }
+}
@@ -1,89 +1,149 @@
 package com.backend.hotel_management.report.service;
 
 import java.math.BigDecimal;
-import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import com.backend.hotel_management.model.Booking;
+import com.backend.hotel_management.enums.RevenueBucket;
 import com.backend.hotel_management.model.Guest;
 import com.backend.hotel_management.report.dto.GuestActivityReportResponseDto;
+import com.backend.hotel_management.report.dto.OccupancyBreakdownResponseDto;
 import com.backend.hotel_management.report.dto.OccupancyReportResponseDto;
 import com.backend.hotel_management.report.dto.RevenueReportResponseDto;
+import com.backend.hotel_management.report.dto.RevenueSeriesPointDto;
 import com.backend.hotel_management.report.dto.SimpleBookingDataDto;
+import com.backend.hotel_management.report.repository.RevenueRollupRepository;
+import com.backend.hotel_management.report.repository.RevenueRollupRepository.RollupTotals;
+import com.backend.hotel_management.report.service.OccupancyEngine.OccupancyTotals;
 import com.backend.hotel_management.repository.BookingRepository;
 import com.backend.hotel_management.repository.GuestRepository;
-import com.backend.hotel_management.repository.RoomRepository;
+import com.backend.hotel_management.repository.projection.GuestBookingRow;
+import com.backend.hotel_management.service.PricingEngine;
 
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class ReportService {
 
+      // Longest range a date-range report covers
+      public static final int MAX_RANGE_YEARS = 10;
+
       private final BookingRepository bookingRepository;
-      private final RoomRepository roomRepository;
       private final GuestRepository guestRepository;
+      private final RevenueRollupRepository rollupRepository;
+      private final OccupancyEngine occupancyEngine;
 
       //////// ===== HELPER METHODS ===== ////////
-      private List<Booking> getBookingsInDateRange(LocalDate fromDate, LocalDate toDate) {
-            LocalDateTime startDateTime = fromDate.atStartOfDay();
-            LocalDateTime endDateTime = toDate.atTime(23, 59, 59);
-
-            return bookingRepository.findAll().stream()
-                        .filter(booking -> booking.getCheckInDateTime().isBefore(endDateTime)
-                                    && booking.getCheckOutDateTime().isAfter(startDateTime))
-                        .collect(Collectors.toList());
+      // Reports cover whole days; a booking counts if it overlaps (start, end)
+      private static LocalDateTime rangeStart(LocalDate fromDate) {
+            return fromDate.atStartOfDay();
       }
 
-      private BigDecimal calculateRoomCost(Booking booking) {
-            long nights = Duration.between(booking.getCheckInDateTime(), booking.getCheckOutDateTime()).toDays();
-            return booking.getRoom().getPricePerNight().multiply(BigDecimal.valueOf(nights));
+      private static LocalDateTime rangeEnd(LocalDate toDate) {
+            return toDate.atTime(23, 59, 59);
       }
 
       //////// ===== OCCUPANCY REPORT ===== ////////
       public OccupancyReportResponseDto generateOccupancyReport(LocalDate fromDate, LocalDate toDate) {
 
-            int totalRooms = (int) roomRepository.count();
+            // Room-nights sold against room-nights available; the per-day breakdown is not needed here
+            OccupancyTotals totals = occupancyEngine.computeTotals(fromDate, toDate);
+            long days = ChronoUnit.DAYS.between(fromDate, toDate) + 1;
 
-            List<Booking> bookings = getBookingsInDateRange(fromDate, toDate);
+            // Rooms occupied on an average night of the range
+            int occupiedRooms = (int) Math.round((double) totals.occupiedRoomNights() / days);
 
-            int occupiedRooms = (int) bookings.stream() // .stream() converts the collection to a stream
-                        .map(booking -> booking.getRoom().getId()) //.map(): Transforms each booking into its room ID and gets it
-                        .distinct() // .distinct(): Removes duplicate room IDs
-                        .count(); // .count(): Counts the number of distinct room IDs
+            return new OccupancyReportResponseDto(fromDate, toDate, totals.totalRooms(), occupiedRooms,
+                        totals.occupancyRate(), totals.occupiedRoomNights(), totals.availableRoomNights());
 
-            double occupancyRate = totalRooms > 0 ? (double) occupiedRooms / totalRooms * 100 : 0.0;
-            occupancyRate = Math.round(occupancyRate * 100.0) / 100.0; // Round to 2 decimal places
-
-            return new OccupancyReportResponseDto(fromDate, toDate, totalRooms, occupiedRooms, occupancyRate);
+      }
 
+      public OccupancyBreakdownResponseDto generateOccupancyBreakdown(LocalDate fromDate, LocalDate toDate) {
+            return occupancyEngine.compute(fromDate, toDate);
       }
 
       //////// ===== REVENUE REPORT ===== ////////
       public RevenueReportResponseDto generateRevenueReport(LocalDate fromDate, LocalDate toDate) {
-            // Get bookings in the date range
-            List<Booking> bookings = getBookingsInDateRange(fromDate, toDate);
 
-            // Calculate Room Revenue
-            BigDecimal roomRevenue = bookings.stream()
-                        .map(this::calculateRoomCost)
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
+            // Revenue of the nights and check-ins falling in the range, from the daily rollup
+            RollupTotals totals = rollupRepository.sumDays(fromDate, toDate);
+            long roomRevenueCents = totals.roomRevenueCents();
+            long servicesRevenueCents = totals.serviceRevenueCents();
 
-            // Calculate Servuce Revenue
-            BigDecimal servicesRevenue = bookings.stream()
-                        .map(Booking::calculateServicesTotal)
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
+            int totalBookings = (int) bookingRepository.countBookingsWithStayOverlapping(rangeStart(fromDate),
+                        rangeEnd(toDate));
+
+            BigDecimal totalRevenue = PricingEngine.toMoney(roomRevenueCents + servicesRevenueCents);
 
-            BigDecimal totalRevenue = roomRevenue.add(servicesRevenue);
+            return new RevenueReportResponseDto(fromDate, toDate, totalRevenue, PricingEngine.toMoney(roomRevenueCents),
+                        PricingEngine.toMoney(servicesRevenueCents), totalBookings);
+      }
+
+      //////// ===== REVENUE SERIES ===== ////////
+      // One pass over the day-ordered rollup; each bucket goes to the sink as soon as it is complete
+      public void streamRevenueSeries(LocalDate fromDate, LocalDate toDate, RevenueBucket bucket,
+                  Consumer<RevenueSeriesPointDto> sink) {
+            SeriesBuilder series = new SeriesBuilder(toDate, bucket, sink, fromDate);
+            rollupRepository.forEachDay(fromDate, toDate, series::add);
+            series.finish();
+      }
 
-            return new RevenueReportResponseDto(fromDate, toDate, totalRevenue, roomRevenue,
-                        servicesRevenue, bookings.size());
+      // Sums consecutive days into buckets; the first and last bucket are clipped to the range
+      private static final class SeriesBuilder {
+            private final LocalDate toDate;
+            private final RevenueBucket bucket;
+            private final Consumer<RevenueSeriesPointDto> sink;
+            private LocalDate start;
+            private LocalDate nextStart;
+            private long roomNights;
+            private long roomCents;
+            private long serviceCents;
+
+            SeriesBuilder(LocalDate toDate, RevenueBucket bucket, Consumer<RevenueSeriesPointDto> sink,
+                        LocalDate fromDate) {
+                  this.toDate = toDate;
+                  this.bucket = bucket;
+                  this.sink = sink;
+                  this.start = fromDate;
+                  this.nextStart = bucket.next(bucket.startOf(fromDate));
+            }
+
+            void add(LocalDate day, RollupTotals totals) {
+                  // Days without bookings have no rows; still emit their (empty) buckets
+                  while (!day.isBefore(nextStart)) {
+                        emit();
+                  }
+                  roomNights += totals.roomNights();
+                  roomCents += totals.roomRevenueCents();
+                  serviceCents += totals.serviceRevenueCents();
+            }
+
+            void finish() {
+                  while (!start.isAfter(toDate)) {
+                        emit();
+                  }
+            }
+
+            private void emit() {
+                  LocalDate end = nextStart.minusDays(1);
+                  sink.accept(new RevenueSeriesPointDto(start, end.isAfter(toDate) ? toDate : end,
+                              PricingEngine.toMoney(roomCents + serviceCents), PricingEngine.toMoney(roomCents),
+                              PricingEngine.toMoney(serviceCents), roomNights));
+                  start = nextStart;
+                  nextStart = bucket.next(nextStart);
+                  roomNights = 0;
+                  roomCents = 0;
+                  serviceCents = 0;
+            }
       }
 
       //////// ===== GUEST ACTIVITY REPORT ===== ////////
@@ -93,23 +153,23 @@ public class ReportService {
             Guest guest = guestRepository.findById(guestId)
                         .orElseThrow(() -> new RuntimeException("Guest not found with id : " + guestId));
 
-            // Get his booking(s)
-            List<Booking> guestBookings = guest.getBookings() != null ? guest.getBookings() : new ArrayList<>();
+            // Get his booking(s), only the columns the report shows
+            List<GuestBookingRow> guestBookings = bookingRepository.findGuestBookingRows(guestId);
 
             // Calculate Total spent
             BigDecimal totalSpent = guestBookings.stream()
-                        .map(Booking::getTotalPrice)
+                        .map(GuestBookingRow::totalPrice)
                         .reduce(BigDecimal.ZERO, BigDecimal::add);
 
             // Convert to simple booking data
             List<SimpleBookingDataDto> bookingData = guestBookings
                         .stream()
                         .map(booking -> new SimpleBookingDataDto(
-                                    booking.getBookingReference(),
-                                    booking.getCheckInDateTime().toLocalDate(),
-                                    booking.getCheckOutDateTime().toLocalDate(),
-                                    booking.getRoom().getRoomNumber(),
-                                    booking.getTotalPrice()))
+                                    booking.bookingReference(),
+                                    booking.checkIn().toLocalDate(),
+                                    booking.checkOut().toLocalDate(),
+                                    booking.roomNumber(),
+                                    booking.totalPrice()))
                         .collect(Collectors.toList());
 
             return new GuestActivityReportResponseDto(guest.getFullName(), guest.getEmail(), guestBookings.size(),
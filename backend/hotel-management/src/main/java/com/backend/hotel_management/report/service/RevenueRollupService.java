@@ -0,0 +1,251 @@
+package com.backend.hotel_management.report.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.backend.hotel_management.enums.RoomType;
+import com.backend.hotel_management.event.BookingChangedEvent;
+import com.backend.hotel_management.event.BookingChangedEvent.BookingSlot;
+import com.backend.hotel_management.report.repository.RevenueRollupRepository;
+import com.backend.hotel_management.report.repository.RevenueRollupRepository.RollupBooking;
+import com.backend.hotel_management.report.repository.RevenueRollupRepository.RollupRow;
+import com.backend.hotel_management.report.repository.RevenueRollupRepository.RollupServiceLine;
+import com.backend.hotel_management.service.PricingEngine;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Keeps daily_room_type_rollup in step with the bookings.
+ *
+ * Every booking change recomputes the days its old and new stay cover, inside
+ * the transaction that made the change, so a report never sees a booking
+ * without its rollup rows or the other way round. Writers serialise on a
+ * transaction-scoped advisory lock per month. A transaction takes all of its
+ * month locks at once, just before it commits and in ascending order, so
+ * batches of bookings touching the same months cannot deadlock.
+ * Days are recomputed from the bookings rather than adjusted by deltas, which
+ * keeps the table self-healing: rebuilding any range gives the same rows.
+ */
+@Service
+@RequiredArgsConstructor
+public class RevenueRollupService {
+
+      private static final Logger log = LoggerFactory.getLogger(RevenueRollupService.class);
+
+      private final RevenueRollupRepository rollupRepository;
+      private final PricingEngine pricingEngine;
+      private final TransactionTemplate transactionTemplate;
+      private final EntityManager entityManager;
+      private final ReportCache reportCache;
+
+      private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+      // Ranges are collected for the whole transaction and recomputed once just before it commits, so a
+      // batch of bookings takes all its month locks in one ascending pass; runs at once when there is none
+      @EventListener
+      public void onBookingChanged(BookingChangedEvent event) {
+            List<LocalDate[]> ranges = new ArrayList<>(2);
+            addRange(ranges, event.previous());
+            addRange(ranges, event.current());
+            if (ranges.isEmpty()) {
+                  return;
+            }
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                  recompute(ranges);
+                  return;
+            }
+            PendingRanges pending = (PendingRanges) TransactionSynchronizationManager.getResource(this);
+            if (pending == null) {
+                  pending = new PendingRanges();
+                  TransactionSynchronizationManager.bindResource(this, pending);
+                  TransactionSynchronizationManager.registerSynchronization(pending);
+            }
+            for (LocalDate[] range : ranges) {
+                  addRange(pending.ranges, range[0], range[1]);
+            }
+      }
+
+      // Ranges changed by the current transaction, recomputed in it before it commits
+      private final class PendingRanges implements TransactionSynchronization {
+
+            private final List<LocalDate[]> ranges = new ArrayList<>();
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                  recompute(ranges);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                  TransactionSynchronizationManager.unbindResourceIfPossible(RevenueRollupService.this);
+            }
+      }
+
+      // Joins the surrounding transaction, or runs in its own
+      private void recompute(List<LocalDate[]> ranges) {
+            transactionTemplate.executeWithoutResult(status -> {
+                  // Pending deletes and collection changes must be visible to the queries below
+                  entityManager.flush();
+                  lockMonths(ranges);
+                  ranges.forEach(range -> recomputeDays(range[0], range[1]));
+            });
+      }
+
+      // Days whose nights or one-time services a stay contributes to
+      private static void addRange(List<LocalDate[]> ranges, BookingSlot slot) {
+            if (slot == null || slot.roomId() == null) {
+                  return;
+            }
+            addRange(ranges, slot.checkIn().toLocalDate(), slot.checkOut().toLocalDate());
+      }
+
+      private static void addRange(List<LocalDate[]> ranges, LocalDate from, LocalDate to) {
+            for (LocalDate[] range : ranges) {
+                  if (!from.isAfter(range[1]) && !to.isBefore(range[0])) {
+                        // Overlapping stays: recompute the union once
+                        range[0] = from.isBefore(range[0]) ? from : range[0];
+                        range[1] = to.isAfter(range[1]) ? to : range[1];
+                        return;
+                  }
+            }
+            ranges.add(new LocalDate[] { from, to });
+      }
+
+      private void lockMonths(List<LocalDate[]> ranges) {
+            TreeSet<YearMonth> months = new TreeSet<>();
+            for (LocalDate[] range : ranges) {
+                  for (YearMonth month = YearMonth.from(range[0]); !month.isAfter(YearMonth.from(range[1])); month = month
+                              .plusMonths(1)) {
+                        months.add(month);
+                  }
+            }
+            months.forEach(month -> rollupRepository.lockMonth(month.getYear(), month.getMonthValue()));
+      }
+
+      // Rebuild the rows for days [from, to] from the bookings; caller holds the month locks
+      private void recomputeDays(LocalDate from, LocalDate to) {
+            List<RollupBooking> bookings = rollupRepository.findBookingsTouching(from.atStartOfDay(),
+                        to.plusDays(1).atStartOfDay());
+
+            Map<Long, List<Long>> serviceIds = new HashMap<>();
+            Map<Long, Map<Long, Integer>> quantities = new HashMap<>();
+            if (!bookings.isEmpty()) {
+                  for (RollupServiceLine line : rollupRepository
+                              .findServiceLines(bookings.stream().map(RollupBooking::bookingId).toList())) {
+                        serviceIds.computeIfAbsent(line.bookingId(), id -> new ArrayList<>()).add(line.serviceId());
+                        quantities.computeIfAbsent(line.bookingId(), id -> new HashMap<>())
+                                    .put(line.serviceId(), line.quantity());
+                  }
+            }
+
+            Map<LocalDate, Map<RoomType, long[]>> totals = new HashMap<>();
+            for (RollupBooking booking : bookings) {
+                  List<Long> ids = serviceIds.get(booking.bookingId());
+                  Map<Long, Integer> bookingQuantities = quantities.get(booking.bookingId());
+                  LocalDate checkInDay = booking.checkIn().toLocalDate();
+                  long roomRate = pricingEngine.roomRateCents(booking.roomType());
+                  long nightlyServices = pricingEngine.nightlyServicesCents(ids, bookingQuantities);
+
+                  // Night i starts on checkInDay + i; only visit the nights inside [from, to]
+                  long nights = PricingEngine.nights(booking.checkIn(), booking.checkOut());
+                  long first = Math.max(0, ChronoUnit.DAYS.between(checkInDay, from));
+                  long last = Math.min(nights - 1, ChronoUnit.DAYS.between(checkInDay, to));
+                  for (long night = first; night <= last; night++) {
+                        long[] row = rowOf(totals, checkInDay.plusDays(night), booking.roomType());
+                        row[0]++;
+                        row[1] += roomRate;
+                        row[2] += nightlyServices;
+                  }
+                  if (!checkInDay.isBefore(from) && !checkInDay.isAfter(to)) {
+                        long oneTimeServices = pricingEngine.oneTimeServicesCents(ids, bookingQuantities);
+                        if (oneTimeServices != 0) {
+                              rowOf(totals, checkInDay, booking.roomType())[2] += oneTimeServices;
+                        }
+                  }
+            }
+
+            List<RollupRow> rows = new ArrayList<>();
+            totals.forEach((day, byType) -> byType.forEach((roomType, row) -> rows
+                        .add(new RollupRow(day, roomType, row[0], row[1], row[2]))));
+            rollupRepository.replaceDays(from, to, rows);
+      }
+
+      // Accumulator of room nights, room cents and service cents for one day and room type
+      private static long[] rowOf(Map<LocalDate, Map<RoomType, long[]>> totals, LocalDate day, RoomType roomType) {
+            return totals.computeIfAbsent(day, d -> new HashMap<>()).computeIfAbsent(roomType, t -> new long[3]);
+      }
+
+      // Backfill once on a fresh database, without holding up startup
+      @EventListener(ApplicationReadyEvent.class)
+      public void backfillIfEmpty() {
+            try {
+                  if (rollupRepository.isEmpty()) {
+                        startRebuild();
+                  }
+            } catch (RuntimeException e) {
+                  log.error("Could not check the revenue rollup", e);
+            }
+      }
+
+      // Start a full rebuild in the background; false if one is already running
+      public boolean startRebuild() {
+            if (!rebuilding.compareAndSet(false, true)) {
+                  return false;
+            }
+            Thread thread = new Thread(() -> {
+                  try {
+                        rebuild();
+                  } catch (RuntimeException e) {
+                        log.error("Revenue rollup rebuild failed", e);
+                  } finally {
+                        rebuilding.set(false);
+                  }
+            }, "revenue-rollup-rebuild");
+            thread.setDaemon(true);
+            thread.start();
+            return true;
+      }
+
+      // Recompute every booked month, one transaction per month so writers are only ever blocked briefly
+      public void rebuild() {
+            LocalDate[] booked = rollupRepository.bookedDateRange();
+            if (booked == null) {
+                  log.info("Revenue rollup rebuild skipped, there are no bookings");
+                  return;
+            }
+            rebuild(booked[0], booked[1]);
+      }
+
+      // Recompute the months covering [from, to], e.g. after bookings were written without events
+      public void rebuild(LocalDate from, LocalDate to) {
+            YearMonth last = YearMonth.from(to);
+            int months = 0;
+            for (YearMonth month = YearMonth.from(from); !month.isAfter(last); month = month.plusMonths(1)) {
+                  YearMonth current = month;
+                  transactionTemplate.executeWithoutResult(status -> {
+                        rollupRepository.lockMonth(current.getYear(), current.getMonthValue());
+                        recomputeDays(current.atDay(1), current.atEndOfMonth());
+                  });
+                  months++;
+            }
+            reportCache.invalidateAll();
+            log.info("Revenue rollup rebuilt for {} months", months);
+      }
+}
@@ -1,42 +1,88 @@
 package com.backend.hotel_management.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import com.backend.hotel_management.model.Booking;
+import com.backend.hotel_management.repository.projection.BookingGuestNameRow;
+import com.backend.hotel_management.repository.projection.BookingInterval;
+import com.backend.hotel_management.repository.projection.BookingRow;
+import com.backend.hotel_management.repository.projection.BookingServiceQuantityRow;
+import com.backend.hotel_management.repository.projection.BookingServiceRow;
+import com.backend.hotel_management.repository.projection.GuestBookingIds;
+import com.backend.hotel_management.repository.projection.GuestBookingRow;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
       /**
-       * Find bookings where check-in has passed but check-out hasn't
-       * This identifies currently active stays
+       * Find bookings for a specific room that overlap with the given date range
+       * This is used to check for booking conflicts before creating new bookings
+       * Served by the GiST index behind the booking_no_overlapping_stays constraint
        */
-      @Query("SELECT b FROM Booking b WHERE b.checkInDateTime <= :now AND b.checkOutDateTime > :now")
-      List<Booking> findByCheckInDateTimeBeforeAndCheckOutDateTimeAfter(@Param("now") LocalDateTime now);
+      @Query(value = "SELECT b.* FROM booking b WHERE b.room_id = :roomId AND " +
+                  "b.stay_range && tsrange(CAST(:checkIn AS timestamp), CAST(:checkOut AS timestamp), '[)')",
+                  nativeQuery = true)
+      List<Booking> findByRoom_IdAndDateRangeOverlap(
+                  @Param("roomId") Long roomId,
+                  @Param("checkIn") LocalDateTime checkIn,
+                  @Param("checkOut") LocalDateTime checkOut);
 
       /**
-       * Find bookings where check-out time has passed
-       * This identifies completed stays
+       * Find all bookings that overlap the given date range, in any room
        */
-      @Query("SELECT b FROM Booking b WHERE b.checkOutDateTime <= :now")
-      List<Booking> findByCheckOutDateTimeBefore(@Param("now") LocalDateTime now);
+      @Query(value = "SELECT b.* FROM booking b WHERE " +
+                  "b.stay_range && tsrange(CAST(:checkIn AS timestamp), CAST(:checkOut AS timestamp), '[)')",
+                  nativeQuery = true)
+      List<Booking> findByDateRangeOverlap(
+                  @Param("checkIn") LocalDateTime checkIn,
+                  @Param("checkOut") LocalDateTime checkOut);
 
       /**
-       * Find bookings for a specific room that overlap with the given date range
-       * This is used to check for booking conflicts before creating new bookings
+       * Find the ids of all rooms that have a booking overlapping the given date range
+       * Single-query replacement for running the overlap check room by room
        */
-      @Query("SELECT b FROM Booking b WHERE b.room.id = :roomId AND " +
-                  "((b.checkInDateTime < :checkOut AND b.checkOutDateTime > :checkIn))")
-      List<Booking> findByRoom_IdAndDateRangeOverlap(
-                  @Param("roomId") Long roomId,
+      @Query(value = "SELECT DISTINCT b.room_id FROM booking b WHERE b.room_id IS NOT NULL AND " +
+                  "b.stay_range && tsrange(CAST(:checkIn AS timestamp), CAST(:checkOut AS timestamp), '[)')",
+                  nativeQuery = true)
+      List<Long> findRoomIdsWithDateRangeOverlap(
                   @Param("checkIn") LocalDateTime checkIn,
                   @Param("checkOut") LocalDateTime checkOut);
 
+      /**
+       * Load the stay intervals of every booking that ends after the given instant
+       * Used to warm the in-memory availability index
+       */
+      @Query("SELECT new com.backend.hotel_management.repository.projection.BookingInterval(" +
+                  "b.id, b.room.id, b.checkInDateTime, b.checkOutDateTime) " +
+                  "FROM Booking b WHERE b.checkOutDateTime > :from")
+      List<BookingInterval> findIntervalsEndingAfter(@Param("from") LocalDateTime from);
+
+      /**
+       * Load the stay intervals of every booking with a room
+       * Used by the bulk import to check overlaps in memory
+       */
+      @Query("SELECT new com.backend.hotel_management.repository.projection.BookingInterval(" +
+                  "b.id, b.room.id, b.checkInDateTime, b.checkOutDateTime) FROM Booking b WHERE b.room IS NOT NULL")
+      List<BookingInterval> findAllIntervals();
+
+      /**
+       * Load the stay intervals of every booking overlapping [from, to)
+       * Used to fill the room status transition queue
+       */
+      @Query("SELECT new com.backend.hotel_management.repository.projection.BookingInterval(" +
+                  "b.id, b.room.id, b.checkInDateTime, b.checkOutDateTime) " +
+                  "FROM Booking b WHERE b.checkOutDateTime > :from AND b.checkInDateTime < :to")
+      List<BookingInterval> findIntervalsOverlapping(@Param("from") LocalDateTime from,
+                  @Param("to") LocalDateTime to);
+
       // For checking active bookings in a specific room
       @Query("SELECT b FROM Booking b WHERE b.room.id = :roomId " +
                   "AND b.checkInDateTime <= :currentTime AND b.checkOutDateTime > :currentTime")
@@ -44,10 +90,21 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
                   @Param("roomId") Long roomId,
                   @Param("currentTime") LocalDateTime currentTime);
 
+      // Read paths fetch guest and room in the same query; the collections follow by subselect (see Booking)
+      @Override
+      @EntityGraph(attributePaths = { "guest", "room" })
+      List<Booking> findAll();
+
+      @Override
+      @EntityGraph(attributePaths = { "guest", "room" })
+      Optional<Booking> findById(Long id);
+
       // Find booking by email (for multiple bookings)
+      @EntityGraph(attributePaths = { "guest", "room" })
       List<Booking> findByGuestEmail(String email);
 
       // Find single booking by booking reference - this is what we'll use now
+      @EntityGraph(attributePaths = { "guest", "room" })
       Optional<Booking> findByBookingReference(String bookingReference);
 
       // Find booking by reference and guest email (double verification for security)
@@ -56,10 +113,68 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
       // Check if booking reference already exists
       boolean existsByBookingReference(String bookingReference);
 
-      @Query("SELECT b FROM Booking b WHERE b.checkInDateTime <= :endDate AND b.checkOutDateTime >= :startDate")
+      // Inclusive range; uses the stay_range GiST index
+      @Query(value = "SELECT b.* FROM booking b WHERE " +
+                  "b.stay_range && tsrange(CAST(:startDate AS timestamp), CAST(:endDate AS timestamp), '[]')",
+                  nativeQuery = true)
       List<Booking> findBookingsInDateRange(@Param("startDate") LocalDateTime startDate,
                   @Param("endDate") LocalDateTime endDate);
 
+      /**
+       * Count the bookings overlapping the open range (start, end)
+       */
+      @Query(value = "SELECT COUNT(*) FROM booking b WHERE " +
+                  "b.stay_range && tsrange(CAST(:start AS timestamp), CAST(:end AS timestamp), '()')",
+                  nativeQuery = true)
+      long countBookingsWithStayOverlapping(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+      /**
+       * One row per booking of a guest, without loading the booking entities
+       */
+      @Query("SELECT new com.backend.hotel_management.repository.projection.GuestBookingRow(" +
+                  "b.bookingReference, b.checkInDateTime, b.checkOutDateTime, r.roomNumber, b.totalPrice) " +
+                  "FROM Booking b LEFT JOIN b.room r WHERE b.guest.id = :guestId ORDER BY b.checkInDateTime")
+      List<GuestBookingRow> findGuestBookingRows(@Param("guestId") Long guestId);
+
+      // List reads select projections: no entities, so no dirty checking, proxies or collection wrappers
+      String BOOKING_ROW_QUERY = "SELECT new com.backend.hotel_management.repository.projection.BookingRow(" +
+                  "b.id, b.bookingReference, b.checkInDateTime, b.checkOutDateTime, b.totalPrice, " +
+                  "g.id, g.fullName, g.email, g.phoneNumber, g.country, g.address, g.city, " +
+                  "r.id, r.roomNumber, r.roomType, r.roomStatus, r.pricePerNight, r.maxOccupancy) " +
+                  "FROM Booking b LEFT JOIN b.guest g LEFT JOIN b.room r ";
+
+      @Query(BOOKING_ROW_QUERY + "ORDER BY b.id")
+      List<BookingRow> findAllRows(Limit limit);
+
+      @Query(BOOKING_ROW_QUERY + "WHERE b.id IN :ids")
+      List<BookingRow> findRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+      @Query(BOOKING_ROW_QUERY + "WHERE g.email = :email ORDER BY b.id")
+      List<BookingRow> findRowsByGuestEmail(@Param("email") String email);
+
+      // The collections of several bookings, one query each
+      @Query("SELECT new com.backend.hotel_management.repository.projection.BookingGuestNameRow(b.id, n) " +
+                  "FROM Booking b JOIN b.additionalGuests n WHERE b.id IN :bookingIds")
+      List<BookingGuestNameRow> findAdditionalGuestNames(@Param("bookingIds") Collection<Long> bookingIds);
+
+      @Query("SELECT new com.backend.hotel_management.repository.projection.BookingServiceRow(" +
+                  "b.id, s.id, s.name, s.pricingType, s.price, s.duration) " +
+                  "FROM Booking b JOIN b.selectedServices s WHERE b.id IN :bookingIds")
+      List<BookingServiceRow> findSelectedServices(@Param("bookingIds") Collection<Long> bookingIds);
+
+      @Query("SELECT new com.backend.hotel_management.repository.projection.BookingServiceQuantityRow(" +
+                  "b.id, KEY(q), VALUE(q)) FROM Booking b JOIN b.serviceQuantities q WHERE b.id IN :bookingIds")
+      List<BookingServiceQuantityRow> findServiceQuantities(@Param("bookingIds") Collection<Long> bookingIds);
+
+      /**
+       * Booking count and booking ids of each of the given guests, grouped in the database
+       * Guests without bookings have no row
+       */
+      @Query("SELECT new com.backend.hotel_management.repository.projection.GuestBookingIds(" +
+                  "b.guest.id, COUNT(b), LISTAGG(CAST(b.id AS String), ',') WITHIN GROUP (ORDER BY b.id)) " +
+                  "FROM Booking b WHERE b.guest.id IN :guestIds GROUP BY b.guest.id")
+      List<GuestBookingIds> findBookingIdsOfGuests(@Param("guestIds") Collection<Long> guestIds);
+
       // Delete booking by booking reference
       void deleteByBookingReference(String bookingReference);
 }
\ No newline at end of file
@@ -1,11 +1,17 @@
 package com.backend.hotel_management.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.backend.hotel_management.model.Guest;
+import com.backend.hotel_management.repository.projection.GuestRow;
 
 @Repository
 public interface GuestRepository extends JpaRepository<Guest, Long> {
@@ -16,6 +22,23 @@ public interface GuestRepository extends JpaRepository<Guest, Long> {
       // Find guest by email
       Optional<Guest> findByEmail(String email);
 
+      // Guest list rows, read as projections rather than entities
+      String GUEST_ROW_QUERY = "SELECT new com.backend.hotel_management.repository.projection.GuestRow(" +
+                  "g.id, g.fullName, g.email, g.phoneNumber, g.country, g.address, g.city) FROM Guest g ";
+
+      @Query(GUEST_ROW_QUERY + "ORDER BY g.id")
+      List<GuestRow> findAllRows();
+
+      @Query(GUEST_ROW_QUERY + "ORDER BY g.id")
+      List<GuestRow> findAllRows(Limit limit);
+
+      @Query(GUEST_ROW_QUERY + "WHERE g.id IN :ids")
+      List<GuestRow> findRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+      // Just the password hash, to check a password without loading the guest
+      @Query("SELECT g.password FROM Guest g WHERE g.email = :email")
+      Optional<String> findPasswordByEmail(@Param("email") String email);
+
       //    // Find guest by phone number
       //    Optional<Guest> findByPhoneNumber(String phoneNumber);
 
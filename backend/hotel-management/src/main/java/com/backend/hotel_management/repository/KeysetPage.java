@@ -0,0 +1,24 @@
+package com.backend.hotel_management.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// One page of a keyset-paginated list; nextCursor is null on the last page
+public record KeysetPage<T>(List<T> items, String nextCursor) {
+
+   public <R> KeysetPage<R> map(Function<? super T, ? extends R> mapper) {
+      return new KeysetPage<>(items.stream().<R>map(mapper).toList(), nextCursor);
+   }
+
+   // A page of ids filled in with the rows loadRows reads for them, in page order
+   public <R> KeysetPage<R> load(Function<List<T>, List<R>> loadRows, Function<R, T> idOf) {
+      if (items.isEmpty()) {
+         return new KeysetPage<>(List.of(), nextCursor);
+      }
+      Map<T, R> rows = loadRows.apply(items).stream().collect(Collectors.toMap(idOf, Function.identity()));
+      return new KeysetPage<>(items.stream().map(rows::get).filter(Objects::nonNull).toList(), nextCursor);
+   }
+}
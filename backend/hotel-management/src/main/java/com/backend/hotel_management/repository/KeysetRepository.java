@@ -0,0 +1,214 @@
+package com.backend.hotel_management.repository;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.stereotype.Repository;
+
+import com.backend.hotel_management.exception.InvalidPageRequestException;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Keyset pagination for the list endpoints.
+ *
+ * A page is read as "the next limit rows after the last row of the previous
+ * page" in (sort key, id) order, so every page is one index range scan, and
+ * page 1000 costs the same as page 1. The id tiebreak keeps the order total
+ * when sort keys repeat. The cursor carries the sort and the last row's key
+ * and id; it is opaque to clients and only valid with the sort it was issued
+ * for. Sort keys must be non-null columns with an index on (key, id).
+ */
+@Repository
+public class KeysetRepository {
+
+   public static final int DEFAULT_LIMIT = 50;
+   public static final int MAX_LIMIT = 200;
+
+   // Rows a list request without paging parameters may return; longer lists must be read in pages
+   public static final int UNPAGED_LIMIT = 1000;
+
+   private static final String ID = "id";
+
+   @PersistenceContext
+   private EntityManager entityManager;
+
+   /**
+    * One page of entityType. sort is a key from sortKeys, "-" prefixed for
+    * descending, and defaults to id; limit is capped at MAX_LIMIT; cursor is the
+    * nextCursor of the previous page, or null for the first. fetches are
+    * associations to join-fetch with each row.
+    */
+   @SuppressWarnings("unchecked")
+   public <T> KeysetPage<T> findPage(Class<T> entityType, Set<String> sortKeys, String sort, Integer limit,
+         String cursor, String... fetches) {
+      return (KeysetPage<T>) page(entityType, sortKeys, sort, limit, cursor, MAX_LIMIT, true, fetches);
+   }
+
+   // Every row of entityType in id order, for list requests without paging parameters
+   @SuppressWarnings("unchecked")
+   public <T> List<T> findUnpaged(Class<T> entityType, String... fetches) {
+      KeysetPage<T> page = (KeysetPage<T>) page(entityType, Set.of(), null, UNPAGED_LIMIT, null, UNPAGED_LIMIT,
+            true, fetches);
+      if (page.nextCursor() != null) {
+         throw tooManyRows();
+      }
+      return page.items();
+   }
+
+   /**
+    * Rows a caller read with its own query and a limit of UNPAGED_LIMIT + 1.
+    * Reaching that limit means the list is longer than an unpaged request may
+    * return; it is refused rather than silently cut short.
+    */
+   public static <T> List<T> unpaged(List<T> rows) {
+      if (rows.size() > UNPAGED_LIMIT) {
+         throw tooManyRows();
+      }
+      return rows;
+   }
+
+   private static InvalidPageRequestException tooManyRows() {
+      return new InvalidPageRequestException(
+            "More than " + UNPAGED_LIMIT + " rows, request them in pages with limit and cursor");
+   }
+
+   // Like findPage, but only the ids of the page, for callers that read the rows as projections
+   @SuppressWarnings("unchecked")
+   public KeysetPage<Long> findPageIds(Class<?> entityType, Set<String> sortKeys, String sort, Integer limit,
+         String cursor) {
+      return (KeysetPage<Long>) page(entityType, sortKeys, sort, limit, cursor, MAX_LIMIT, false);
+   }
+
+   @SuppressWarnings({ "unchecked", "rawtypes" })
+   private KeysetPage<?> page(Class<?> entityType, Set<String> sortKeys, String sort, Integer limit, String cursor,
+         int maxLimit, boolean entities, String... fetches) {
+      String sortSpec = sort == null || sort.isBlank() ? ID : sort.trim();
+      boolean descending = sortSpec.startsWith("-");
+      String sortKey = descending ? sortSpec.substring(1) : sortSpec;
+      if (!sortKey.equals(ID) && !sortKeys.contains(sortKey)) {
+         throw new InvalidPageRequestException("Cannot sort by " + sortKey + ", use one of " + sortKeys);
+      }
+      if (limit != null && limit < 1) {
+         throw new InvalidPageRequestException("limit must be at least 1");
+      }
+      int pageSize = limit == null ? DEFAULT_LIMIT : Math.min(limit, maxLimit);
+
+      CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+      CriteriaQuery<Tuple> query = cb.createTupleQuery();
+      Root<?> root = query.from(entityType);
+      for (String fetch : fetches) {
+         root.fetch(fetch, JoinType.LEFT);
+      }
+      Path<Comparable> key = root.get(sortKey);
+      Path<Long> id = root.get(ID);
+
+      if (cursor != null && !cursor.isBlank()) {
+         String[] position = decode(cursor, sortSpec);
+         Long afterId = parseId(position[0]);
+         Predicate afterIdOnly = descending ? cb.lessThan(id, afterId) : cb.greaterThan(id, afterId);
+         if (sortKey.equals(ID)) {
+            query.where(afterIdOnly);
+         } else {
+            Comparable afterKey = parseKey(position[1], key.getJavaType());
+            Predicate afterKeyOnly = descending ? cb.lessThan(key, afterKey) : cb.greaterThan(key, afterKey);
+            query.where(cb.or(afterKeyOnly, cb.and(cb.equal(key, afterKey), afterIdOnly)));
+         }
+      }
+      // The ids alone can come straight from the (key, id) index
+      query.select(entities ? cb.tuple(key, id, root) : cb.tuple(key, id));
+      query.orderBy(descending ? List.of(cb.desc(key), cb.desc(id)) : List.of(cb.asc(key), cb.asc(id)));
+
+      // One extra row tells whether there is a next page
+      List<Tuple> rows = entityManager.createQuery(query).setMaxResults(pageSize + 1).getResultList();
+      boolean more = rows.size() > pageSize;
+      List<Object> items = new ArrayList<>(Math.min(rows.size(), pageSize));
+      for (int i = 0; i < rows.size() && i < pageSize; i++) {
+         items.add(rows.get(i).get(entities ? 2 : 1));
+      }
+      String nextCursor = null;
+      if (more) {
+         Tuple last = rows.get(pageSize - 1);
+         nextCursor = encode(sortSpec, last.get(1, Long.class), last.get(0));
+      }
+      return new KeysetPage<>(items, nextCursor);
+   }
+
+   // sort, id and key joined by newlines (the key last, as it may contain anything) in URL-safe Base64
+   private static String encode(String sortSpec, Long id, Object key) {
+      String keyText = key instanceof BigDecimal decimal ? decimal.toPlainString()
+            : key instanceof Enum<?> constant ? constant.name() : key.toString();
+      String position = sortSpec + "\n" + id + "\n" + keyText;
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+   }
+
+   // [id, key] of a cursor issued for sortSpec
+   private static String[] decode(String cursor, String sortSpec) {
+      String position;
+      try {
+         position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      } catch (IllegalArgumentException e) {
+         throw new InvalidPageRequestException("Invalid cursor");
+      }
+      String[] parts = position.split("\n", 3);
+      if (parts.length != 3) {
+         throw new InvalidPageRequestException("Invalid cursor");
+      }
+      if (!parts[0].equals(sortSpec)) {
+         throw new InvalidPageRequestException("Cursor was issued for sort " + parts[0] + ", not " + sortSpec);
+      }
+      return new String[] { parts[1], parts[2] };
+   }
+
+   private static Long parseId(String text) {
+      try {
+         return Long.valueOf(text);
+      } catch (NumberFormatException e) {
+         throw new InvalidPageRequestException("Invalid cursor");
+      }
+   }
+
+   @SuppressWarnings({ "unchecked", "rawtypes" })
+   private static Comparable parseKey(String text, Class<?> type) {
+      try {
+         if (type == String.class) {
+            return text;
+         }
+         if (type == Long.class || type == long.class) {
+            return Long.valueOf(text);
+         }
+         if (type == Integer.class || type == int.class) {
+            return Integer.valueOf(text);
+         }
+         if (type == BigDecimal.class) {
+            return new BigDecimal(text);
+         }
+         if (type == LocalDateTime.class) {
+            return LocalDateTime.parse(text);
+         }
+         if (type == LocalDate.class) {
+            return LocalDate.parse(text);
+         }
+         if (type.isEnum()) {
+            return Enum.valueOf((Class<Enum>) type, text);
+         }
+      } catch (RuntimeException e) {
+         throw new InvalidPageRequestException("Invalid cursor");
+      }
+      throw new IllegalStateException("Unsupported sort key type " + type.getName());
+   }
+}
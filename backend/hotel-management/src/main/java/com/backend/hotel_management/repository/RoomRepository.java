@@ -1,10 +1,20 @@
 package com.backend.hotel_management.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.backend.hotel_management.enums.RoomStatus;
 import com.backend.hotel_management.model.Room;
+import com.backend.hotel_management.repository.projection.RoomRow;
+import com.backend.hotel_management.repository.projection.RoomTypeRow;
 
 public interface RoomRepository extends JpaRepository<Room, Long> {
    // Find room by room number
@@ -13,6 +23,36 @@ public interface RoomRepository extends JpaRepository<Room, Long> {
    // Check if room number exists
    boolean existsByRoomNumber(String roomNumber);
 
+   // Id and type of every room, for the pricing engine's room type cache
+   @Query("SELECT new com.backend.hotel_management.repository.projection.RoomTypeRow(r.id, r.roomType) FROM Room r")
+   List<RoomTypeRow> findAllRoomTypes();
+
+   // Room list rows, read as projections rather than entities
+   String ROOM_ROW_QUERY = "SELECT new com.backend.hotel_management.repository.projection.RoomRow(" +
+         "r.id, r.roomNumber, r.roomType, r.roomStatus, r.pricePerNight, r.maxOccupancy) FROM Room r ";
+
+   @Query(ROOM_ROW_QUERY + "ORDER BY r.id")
+   List<RoomRow> findAllRows();
+
+   @Query(ROOM_ROW_QUERY + "ORDER BY r.id")
+   List<RoomRow> findAllRows(Limit limit);
+
+   @Query(ROOM_ROW_QUERY + "WHERE r.id IN :ids")
+   List<RoomRow> findRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+   // Set the status of several rooms in one statement, skipping rooms already in it
+   @Modifying
+   @Query("UPDATE Room r SET r.roomStatus = :status WHERE r.id IN :roomIds AND r.roomStatus <> :status")
+   int updateRoomStatus(@Param("roomIds") Collection<Long> roomIds, @Param("status") RoomStatus status);
+
+   // Recompute the status of every room that has ever been checked into from its bookings at :now
+   @Modifying
+   @Query(value = "UPDATE room r SET room_status = CASE WHEN EXISTS (SELECT 1 FROM booking b " +
+         "WHERE b.room_id = r.id AND b.stay_range @> CAST(:now AS timestamp)) THEN 'OCCUPIED' ELSE 'AVAILABLE' END " +
+         "WHERE EXISTS (SELECT 1 FROM booking b WHERE b.room_id = r.id AND b.check_in_date_time <= :now)",
+         nativeQuery = true)
+   int reconcileRoomStatuses(@Param("now") LocalDateTime now);
+
    // // Find rooms by room type
    // List<Room> findByRoomType(RoomType roomType);
 
@@ -0,0 +1,5 @@
+package com.backend.hotel_management.repository.projection;
+
+// One additional guest name of a booking
+public record BookingGuestNameRow(Long bookingId, String name) {
+}
@@ -0,0 +1,7 @@
+package com.backend.hotel_management.repository.projection;
+
+import java.time.LocalDateTime;
+
+// Just the columns needed to know when a room is taken
+public record BookingInterval(Long bookingId, Long roomId, LocalDateTime checkIn, LocalDateTime checkOut) {
+}
@@ -0,0 +1,16 @@
+package com.backend.hotel_management.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.backend.hotel_management.enums.RoomStatus;
+import com.backend.hotel_management.enums.RoomType;
+
+// A booking with its guest and room columns, read without loading any entity
+public record BookingRow(Long id, String bookingReference, LocalDateTime checkInDateTime,
+      LocalDateTime checkOutDateTime, BigDecimal totalPrice,
+      Long guestId, String guestFullName, String guestEmail, String guestPhoneNumber, String guestCountry,
+      String guestAddress, String guestCity,
+      Long roomId, String roomNumber, RoomType roomType, RoomStatus roomStatus, BigDecimal roomPricePerNight,
+      Integer roomMaxOccupancy) {
+}
@@ -0,0 +1,5 @@
+package com.backend.hotel_management.repository.projection;
+
+// The quantity booked of one service
+public record BookingServiceQuantityRow(Long bookingId, Long serviceId, Integer quantity) {
+}
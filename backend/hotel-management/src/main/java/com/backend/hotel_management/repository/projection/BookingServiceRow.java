@@ -0,0 +1,10 @@
+package com.backend.hotel_management.repository.projection;
+
+import java.math.BigDecimal;
+
+import com.backend.hotel_management.enums.ServicePricingType;
+
+// One selected service of a booking
+public record BookingServiceRow(Long bookingId, Long serviceId, String name, ServicePricingType pricingType,
+      BigDecimal price, String duration) {
+}
@@ -0,0 +1,16 @@
+package com.backend.hotel_management.repository.projection;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// How many bookings a guest has and their ids, aggregated in the database; bookingIds is comma separated
+public record GuestBookingIds(Long guestId, Long bookingCount, String bookingIds) {
+
+   public List<Long> ids() {
+      List<Long> ids = new ArrayList<>(bookingCount.intValue());
+      for (String id : bookingIds.split(",")) {
+         ids.add(Long.valueOf(id));
+      }
+      return ids;
+   }
+}
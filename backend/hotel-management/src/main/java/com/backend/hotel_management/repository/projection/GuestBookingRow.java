@@ -0,0 +1,9 @@
+package com.backend.hotel_management.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// The booking columns shown in a guest activity report
+public record GuestBookingRow(String bookingReference, LocalDateTime checkIn, LocalDateTime checkOut,
+      String roomNumber, BigDecimal totalPrice) {
+}
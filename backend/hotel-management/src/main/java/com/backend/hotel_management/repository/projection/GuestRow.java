@@ -0,0 +1,6 @@
+package com.backend.hotel_management.repository.projection;
+
+// The columns of a guest shown in lists, without the password or the bookings
+public record GuestRow(Long id, String fullName, String email, String phoneNumber, String country, String address,
+      String city) {
+}
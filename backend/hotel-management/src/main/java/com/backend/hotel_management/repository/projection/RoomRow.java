@@ -0,0 +1,11 @@
+package com.backend.hotel_management.repository.projection;
+
+import java.math.BigDecimal;
+
+import com.backend.hotel_management.enums.RoomStatus;
+import com.backend.hotel_management.enums.RoomType;
+
+// The columns of a room shown in lists, without the bookings
+public record RoomRow(Long id, String roomNumber, RoomType roomType, RoomStatus roomStatus, BigDecimal pricePerNight,
+      Integer maxOccupancy) {
+}
@@ -0,0 +1,7 @@
+package com.backend.hotel_management.repository.projection;
+
+import com.backend.hotel_management.enums.RoomType;
+
+// A room's id and type, all that pricing needs from it
+public record RoomTypeRow(Long roomId, RoomType roomType) {
+}
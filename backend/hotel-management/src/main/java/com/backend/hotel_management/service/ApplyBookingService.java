@@ -1,26 +1,29 @@
 package com.backend.hotel_management.service;
 
 import java.math.BigDecimal;
-import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.backend.hotel_management.dto.request.ApplyBookingRequestDto;
 import com.backend.hotel_management.dto.response.ApplyBookingResponseDto;
 import com.backend.hotel_management.dto.response.HotelServingResponseDto;
-import com.backend.hotel_management.enums.RoomStatus;
-import com.backend.hotel_management.enums.ServicePricingType;
+import com.backend.hotel_management.event.BookingChangedEvent;
+import com.backend.hotel_management.exception.GuestPasswordMismatchException;
+import com.backend.hotel_management.exception.RoomNotAvailableException;
 import com.backend.hotel_management.model.Booking;
 import com.backend.hotel_management.model.Guest;
 import com.backend.hotel_management.model.HotelServing;
@@ -47,16 +50,33 @@ public class ApplyBookingService {
    private HotelServingRepository hotelServingRepository;
 
    @Autowired
-   private BCryptPasswordEncoder passwordEncoder;
+   private PasswordHashingService passwordHashingService;
+
+   @Autowired
+   private VerifiedCredentialCache verifiedCredentials;
+
+   @Autowired
+   private ApplicationEventPublisher eventPublisher;
+
+   @Autowired
+   private PricingEngine pricingEngine;
 
    private static final Logger log = LoggerFactory.getLogger(ApplyBookingService.class);
 
+   /**
+    * The request's password checked ahead of the booking write. checkedHash is
+    * the stored hash it matched (null for a new guest); newHash is the hash to
+    * store, null when checkedHash can stay.
+    */
+   public record GuestCredential(String checkedHash, String newHash) {
+   }
+
    // Convert Request DTO to Guest Entity
-   private Guest convertToGuestEntity(ApplyBookingRequestDto requestDto) {
+   private Guest convertToGuestEntity(ApplyBookingRequestDto requestDto, String passwordHash) {
       Guest guest = new Guest();
       guest.setFullName(requestDto.getFullName());
       guest.setEmail(requestDto.getEmail());
-      guest.setPassword(passwordEncoder.encode(requestDto.getPassword()));
+      guest.setPassword(passwordHash);
       guest.setPhoneNumber(requestDto.getPhoneNumber());
       guest.setCountry(requestDto.getCountry());
       guest.setAddress(requestDto.getAddress());
@@ -124,43 +144,6 @@ public class ApplyBookingService {
       return response;
    }
 
-   private BigDecimal calculateTotalPrice(Room room, List<HotelServing> services, ApplyBookingRequestDto request) {
-      long nights = Duration.between(request.getCheckInDateTime(), request.getCheckOutDateTime()).toDays();
-      BigDecimal roomPricePerNight = room.getPricePerNight();
-      BigDecimal roomTotal = roomPricePerNight.multiply(BigDecimal.valueOf(nights));
-
-      System.out.println("Room price: " + roomPricePerNight + " x " + nights + " nights = " + roomTotal);
-
-      BigDecimal servicesTotal = services.stream()
-            .map(service -> {
-               Integer quantity = request.getServiceQuantities() != null
-                     ? request.getServiceQuantities().getOrDefault(service.getId(), 1)
-                     : 1;
-
-               BigDecimal serviceCost;
-               if (service.getPricingType() == ServicePricingType.PER_NIGHT) {
-                  serviceCost = service.getPrice().multiply(BigDecimal.valueOf(quantity));
-                  System.out.println("PER_NIGHT service: " + service.getName() + " - " + service.getPrice() + " x "
-                        + quantity + " x " + nights + " = " + serviceCost);
-               } else if (service.getPricingType() == ServicePricingType.PER_HOUR) {
-                  serviceCost = service.getPrice().multiply(BigDecimal.valueOf(quantity));
-                  System.out.println("PER_HOUR service: " + service.getName() + " - " + service.getPrice() + " x "
-                        + quantity + " = " + serviceCost);
-               } else {
-                  serviceCost = service.getPrice().multiply(BigDecimal.valueOf(quantity));
-                  System.out.println("PER_ORDER service: " + service.getName() + " - " + service.getPrice() + " x "
-                        + quantity + " = " + serviceCost);
-               }
-               return serviceCost;
-            })
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-      System.out.println("Services total: " + servicesTotal);
-      System.out.println("Grand total: " + roomTotal.add(servicesTotal));
-
-      return roomTotal.add(servicesTotal);
-   }
-
    // Check if room has booking conflicts
    private boolean hasBookingConflict(Long roomId, LocalDateTime checkIn, LocalDateTime checkOut) {
       List<Booking> existingBookings = bookingRepository.findByRoom_IdAndDateRangeOverlap(roomId, checkIn, checkOut);
@@ -168,6 +151,29 @@ public class ApplyBookingService {
    }
 
    public ApplyBookingResponseDto createApplyBooking(ApplyBookingRequestDto request) {
+      return createApplyBooking(request, false, null);
+   }
+
+   /**
+    * Check the request's password against the guest's stored hash, or hash it
+    * for a new guest, on the password hashing threads. A password already found
+    * to match the stored hash costs no hashing at all; one that does not match
+    * fails with GuestPasswordMismatchException.
+    */
+   @Transactional(readOnly = true)
+   public CompletableFuture<GuestCredential> prepareCredential(ApplyBookingRequestDto request) {
+      String password = request.getPassword();
+      Optional<String> storedHash = guestRepository.findPasswordByEmail(request.getEmail());
+      if (storedHash.isEmpty()) {
+         return hashCredential(null, password);
+      }
+      return checkCredential(storedHash.get(), password);
+   }
+
+   // availabilityChecked: the caller already ruled out conflicts against the availability index
+   // credential: the password checked by prepareCredential, or null to check it here
+   public ApplyBookingResponseDto createApplyBooking(ApplyBookingRequestDto request, boolean availabilityChecked,
+         GuestCredential credential) {
       // Basic validation
       if (request.getCheckInDateTime().isAfter(request.getCheckOutDateTime())) {
          throw new RuntimeException("Check-in date cannot be after check-out date");
@@ -185,85 +191,118 @@ public class ApplyBookingService {
       }
 
       // Check if room has any booking conflicts
-      if (hasBookingConflict(request.getRoomId(), request.getCheckInDateTime(), request.getCheckOutDateTime())) {
-         throw new RuntimeException("Room is not available for the selected dates");
+      if (!availabilityChecked
+            && hasBookingConflict(request.getRoomId(), request.getCheckInDateTime(), request.getCheckOutDateTime())) {
+         throw new RoomNotAvailableException();
       }
 
       // Find or create primary guest
-      Guest primaryGuest = findOrCreateGuest(request);
+      Guest primaryGuest = findOrCreateGuest(request, credential);
 
       // Get selected services (if any)
       List<HotelServing> selectedServices = getSelectedServices(request.getHotelServiceIds());
 
       // Calculate total price
-      BigDecimal totalPrice = calculateTotalPrice(room, selectedServices, request);
+      BigDecimal totalPrice = PricingEngine.toMoney(pricingEngine.totalCents(room.getRoomType(),
+            request.getCheckInDateTime(), request.getCheckOutDateTime(), request.getHotelServiceIds(),
+            request.getServiceQuantities()));
 
       // Create and save booking WITH selected services
       Booking booking = convertToBookingEntity(request, primaryGuest, room, totalPrice, selectedServices,
             request.getServiceQuantities());
-      Booking savedBooking = bookingRepository.save(booking);
-
-      // Update room status
-      LocalDateTime now = LocalDateTime.now();
-      if (request.getCheckInDateTime().isBefore(now) || request.getCheckInDateTime().isEqual(now)) {
-         room.setRoomStatus(RoomStatus.OCCUPIED);
-         log.info("Room {} marked as OCCUPIED immediately (check-in time has passed)", room.getId());
-      } else {
-         room.setRoomStatus(RoomStatus.AVAILABLE);
-         log.info("Room {} kept as AVAILABLE (future booking)", room.getId());
+      // Flush now so a concurrent booking caught by the exclusion constraint surfaces here
+      Booking savedBooking;
+      try {
+         savedBooking = bookingRepository.saveAndFlush(booking);
+      } catch (DataIntegrityViolationException e) {
+         if (RoomNotAvailableException.isCausedByOverlap(e)) {
+            throw new RoomNotAvailableException();
+         }
+         throw e;
       }
-
-      roomRepository.save(room);
+      eventPublisher.publishEvent(BookingChangedEvent.created(savedBooking));
 
       return convertToResponseDto(savedBooking, selectedServices);
    }
 
-   private Guest findOrCreateGuest(ApplyBookingRequestDto request) {
+   // A returning guest whose details and password are unchanged is not written at all
+   private Guest findOrCreateGuest(ApplyBookingRequestDto request, GuestCredential credential) {
       Optional<Guest> existingGuestOpt = guestRepository.findByEmail(request.getEmail());
 
       if (existingGuestOpt.isPresent()) {
          Guest existingGuest = existingGuestOpt.get();
+         String newHash = newPasswordHash(existingGuest.getPassword(), request.getPassword(), credential);
+         boolean profileChanged = !Objects.equals(existingGuest.getFullName(), request.getFullName())
+               || !Objects.equals(existingGuest.getPhoneNumber(), request.getPhoneNumber())
+               || !Objects.equals(existingGuest.getCountry(), request.getCountry())
+               || !Objects.equals(existingGuest.getAddress(), request.getAddress())
+               || !Objects.equals(existingGuest.getCity(), request.getCity());
+         if (!profileChanged && newHash == null) {
+            return existingGuest;
+         }
          existingGuest.setFullName(request.getFullName());
          existingGuest.setPhoneNumber(request.getPhoneNumber());
-         existingGuest.setPassword(passwordEncoder.encode(request.getPassword()));
+         if (newHash != null) {
+            existingGuest.setPassword(newHash);
+         }
          existingGuest.setCountry(request.getCountry());
          existingGuest.setAddress(request.getAddress());
          existingGuest.setCity(request.getCity());
          return guestRepository.save(existingGuest);
       } else {
-         Guest newGuest = convertToGuestEntity(request);
+         String passwordHash = credential != null && credential.newHash() != null ? credential.newHash()
+               : passwordHashingService.encode(request.getPassword());
+         Guest newGuest = convertToGuestEntity(request, passwordHash);
          return guestRepository.save(newGuest);
       }
    }
 
-   private List<HotelServing> getSelectedServices(List<Long> serviceIds) {
-      if (serviceIds == null || serviceIds.isEmpty()) {
-         return List.of();
+   // The hash to store for password, null when storedHash already matches it
+   private String newPasswordHash(String storedHash, String password, GuestCredential credential) {
+      if (credential != null && Objects.equals(credential.checkedHash(), storedHash)) {
+         return credential.newHash();
+      }
+      // Not checked ahead, or the stored hash changed since: check it now
+      try {
+         return checkCredential(storedHash, password).join().newHash();
+      } catch (CompletionException e) {
+         throw e.getCause() instanceof RuntimeException cause ? cause : e;
       }
-      return hotelServingRepository.findAllById(serviceIds);
    }
 
-   @Scheduled(fixedRate = 60000 * 60)
-   public void updateRoomStatuses() {
-      LocalDateTime now = LocalDateTime.now();
-      log.debug("Running room status update at: {}", now);
-
-      List<Booking> activeBookings = bookingRepository.findByCheckInDateTimeBeforeAndCheckOutDateTimeAfter(now);
-      for (Booking booking : activeBookings) {
-         Room room = booking.getRoom();
-         if (room != null && room.getRoomStatus() != RoomStatus.OCCUPIED) {
-            room.setRoomStatus(RoomStatus.OCCUPIED);
-            roomRepository.save(room);
+   // One BCrypt check at most; a wrong password is refused, never hashed and stored over the guest's own
+   private CompletableFuture<GuestCredential> checkCredential(String storedHash, String password) {
+      if (verifiedCredentials.contains(storedHash, password)) {
+         return matchedCredential(storedHash, password);
+      }
+      return passwordHashingService.matchesAsync(password, storedHash).thenCompose(matches -> {
+         if (!matches) {
+            return CompletableFuture.failedFuture(new GuestPasswordMismatchException());
          }
+         verifiedCredentials.add(storedHash, password);
+         return matchedCredential(storedHash, password);
+      });
+   }
+
+   // password matches storedHash; a hash of another cost is replaced, see PasswordHashingService.upgradeEncoding
+   private CompletableFuture<GuestCredential> matchedCredential(String storedHash, String password) {
+      if (passwordHashingService.upgradeEncoding(storedHash)) {
+         return hashCredential(storedHash, password);
       }
+      return CompletableFuture.completedFuture(new GuestCredential(storedHash, null));
+   }
 
-      List<Booking> completedBookings = bookingRepository.findByCheckOutDateTimeBefore(now);
-      for (Booking booking : completedBookings) {
-         Room room = booking.getRoom();
-         if (room != null && room.getRoomStatus() != RoomStatus.AVAILABLE) {
-            room.setRoomStatus(RoomStatus.AVAILABLE);
-            roomRepository.save(room);
-         }
+   private CompletableFuture<GuestCredential> hashCredential(String storedHash, String password) {
+      return passwordHashingService.encodeAsync(password).thenApply(newHash -> {
+         verifiedCredentials.add(newHash, password); // the next booking with this password skips hashing
+         return new GuestCredential(storedHash, newHash);
+      });
+   }
+
+   private List<HotelServing> getSelectedServices(List<Long> serviceIds) {
+      if (serviceIds == null || serviceIds.isEmpty()) {
+         return List.of();
       }
+      return hotelServingRepository.findAllById(serviceIds);
    }
-}
\ No newline at end of file
+}
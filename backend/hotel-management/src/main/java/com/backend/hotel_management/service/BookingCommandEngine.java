@@ -0,0 +1,265 @@
+package com.backend.hotel_management.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.backend.hotel_management.dto.request.ApplyBookingRequestDto;
+import com.backend.hotel_management.dto.response.ApplyBookingResponseDto;
+import com.backend.hotel_management.dto.response.BookingCommandStatusResponseDto;
+import com.backend.hotel_management.enums.BookingCommandStatus;
+import com.backend.hotel_management.exception.RoomNotAvailableException;
+import com.backend.hotel_management.service.ApplyBookingService.GuestCredential;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pipeline for public apply-booking requests.
+ *
+ * Rooms are hashed to partitions and every partition is served by a single
+ * writer thread reading from a bounded queue. Because only that thread books
+ * the partition's rooms, it can validate against the availability index and
+ * the bookings it has accepted in the current batch without taking locks, and
+ * then persist the whole batch in one transaction. The booking_no_overlapping_stays
+ * constraint stays the last line of defence for writes made through other paths.
+ */
+@Component
+public class BookingCommandEngine {
+
+   private static final Logger log = LoggerFactory.getLogger(BookingCommandEngine.class);
+
+   private static final int QUEUE_CAPACITY = 1024;
+   private static final int MAX_BATCH = 64;
+   private static final Duration STATUS_RETENTION = Duration.ofMinutes(15);
+
+   @Autowired
+   private ApplyBookingService applyBookingService;
+
+   @Autowired
+   private RoomAvailabilityIndex availabilityIndex;
+
+   @Autowired
+   private TransactionTemplate transactionTemplate;
+
+   // 0 = one partition per available core
+   @Value("${hotel.booking.engine.partitions:0}")
+   private int configuredPartitions;
+
+   private final Map<UUID, BookingCommand> commands = new ConcurrentHashMap<>();
+   private Partition[] partitions;
+
+   @PostConstruct
+   public void start() {
+      int count = configuredPartitions > 0 ? configuredPartitions : Runtime.getRuntime().availableProcessors();
+      partitions = new Partition[count];
+      for (int i = 0; i < count; i++) {
+         partitions[i] = new Partition(i);
+         partitions[i].thread.start();
+      }
+      log.info("Booking engine started with {} partitions", count);
+   }
+
+   @PreDestroy
+   public void stop() {
+      for (Partition partition : partitions) {
+         partition.thread.interrupt();
+      }
+   }
+
+   // Queue a booking request; the returned command completes once it is persisted or rejected
+   public BookingCommand submit(ApplyBookingRequestDto request) {
+      BookingCommand command = new BookingCommand(UUID.randomUUID(), request);
+      commands.put(command.getId(), command);
+
+      // The guest's password is checked (or hashed) on the password hashing threads before the command
+      // reaches its partition, so a writer never spends its time on BCrypt
+      applyBookingService.prepareCredential(request).whenComplete((credential, error) -> {
+         if (error != null) {
+            command.fail(error instanceof CompletionException ? error.getCause() : error);
+            return;
+         }
+         command.credential = credential;
+         Partition partition = partitions[Math.floorMod(request.getRoomId().hashCode(), partitions.length)];
+         if (!partition.queue.offer(command)) {
+            command.fail(new RuntimeException("Too many booking requests, please try again shortly"));
+         }
+      });
+      return command;
+   }
+
+   public Optional<BookingCommand> findCommand(UUID id) {
+      return Optional.ofNullable(commands.get(id));
+   }
+
+   // Forget finished commands once callers have had time to poll them
+   @Scheduled(fixedDelay = 60000)
+   public void evictFinishedCommands() {
+      Instant cutoff = Instant.now().minus(STATUS_RETENTION);
+      commands.values().removeIf(command -> command.finishedAt != null && command.finishedAt.isBefore(cutoff));
+   }
+
+   private final class Partition implements Runnable {
+
+      private final BlockingQueue<BookingCommand> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+      private final Thread thread;
+
+      Partition(int index) {
+         thread = new Thread(this, "booking-writer-" + index);
+         thread.setDaemon(true);
+      }
+
+      @Override
+      public void run() {
+         List<BookingCommand> batch = new ArrayList<>(MAX_BATCH);
+         while (!Thread.currentThread().isInterrupted()) {
+            try {
+               batch.add(queue.take());
+               queue.drainTo(batch, MAX_BATCH - 1);
+               process(batch);
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+               log.error("Booking writer failed on a batch of {} commands", batch.size(), e);
+               batch.forEach(command -> command.fail(e));
+            } finally {
+               batch.clear();
+            }
+         }
+      }
+
+      private void process(List<BookingCommand> batch) {
+         List<BookingCommand> accepted = new ArrayList<>(batch.size());
+         for (BookingCommand command : batch) {
+            ApplyBookingRequestDto request = command.getRequest();
+            command.checkedInMemory = availabilityIndex.canAnswer(request.getCheckInDateTime());
+            boolean conflict = overlapsAccepted(accepted, request)
+                  || (command.checkedInMemory && availabilityIndex.hasConflict(request.getRoomId(),
+                        request.getCheckInDateTime(), request.getCheckOutDateTime()));
+            if (conflict) {
+               command.fail(new RoomNotAvailableException());
+            } else {
+               accepted.add(command);
+            }
+         }
+         if (accepted.isEmpty()) {
+            return;
+         }
+
+         try {
+            List<ApplyBookingResponseDto> responses = transactionTemplate.execute(status -> accepted.stream()
+                  .map(command -> applyBookingService.createApplyBooking(command.getRequest(), command.checkedInMemory,
+                        command.credential))
+                  .toList());
+            for (int i = 0; i < accepted.size(); i++) {
+               accepted.get(i).complete(responses.get(i));
+            }
+         } catch (RuntimeException e) {
+            if (accepted.size() == 1) {
+               accepted.get(0).fail(e);
+               return;
+            }
+            // One bad command rolled the batch back; persist the rest on their own
+            for (BookingCommand command : accepted) {
+               try {
+                  command.complete(transactionTemplate.execute(
+                        status -> applyBookingService.createApplyBooking(command.getRequest(),
+                              command.checkedInMemory, command.credential)));
+               } catch (RuntimeException single) {
+                  command.fail(single);
+               }
+            }
+         }
+      }
+
+      private boolean overlapsAccepted(List<BookingCommand> accepted, ApplyBookingRequestDto request) {
+         for (BookingCommand other : accepted) {
+            ApplyBookingRequestDto booked = other.getRequest();
+            if (booked.getRoomId().equals(request.getRoomId())
+                  && booked.getCheckInDateTime().isBefore(request.getCheckOutDateTime())
+                  && booked.getCheckOutDateTime().isAfter(request.getCheckInDateTime())) {
+               return true;
+            }
+         }
+         return false;
+      }
+   }
+
+   /**
+    * One queued booking request and its outcome. The request, which carries the
+    * guest's password, is dropped as soon as the command is persisted or
+    * rejected; a finished command keeps only what its status needs.
+    */
+   public static final class BookingCommand {
+
+      private final UUID id;
+      private volatile ApplyBookingRequestDto request; // null once finished
+      private final CompletableFuture<ApplyBookingResponseDto> future = new CompletableFuture<>();
+      private volatile Instant finishedAt;
+      private boolean checkedInMemory; // only touched by the partition's writer thread
+      private volatile GuestCredential credential; // set before the command is queued, null once finished
+
+      BookingCommand(UUID id, ApplyBookingRequestDto request) {
+         this.id = id;
+         this.request = request;
+      }
+
+      public UUID getId() {
+         return id;
+      }
+
+      // Null once the command is finished
+      ApplyBookingRequestDto getRequest() {
+         return request;
+      }
+
+      public CompletableFuture<ApplyBookingResponseDto> getFuture() {
+         return future;
+      }
+
+      public BookingCommandStatusResponseDto toStatus() {
+         if (!future.isDone()) {
+            return new BookingCommandStatusResponseDto(id, BookingCommandStatus.QUEUED, null, null);
+         }
+         if (future.isCompletedExceptionally()) {
+            String error = future.exceptionNow().getMessage();
+            return new BookingCommandStatusResponseDto(id, BookingCommandStatus.FAILED, null, error);
+         }
+         return new BookingCommandStatusResponseDto(id, BookingCommandStatus.COMPLETED, future.resultNow(), null);
+      }
+
+      void complete(ApplyBookingResponseDto response) {
+         release();
+         future.complete(response);
+      }
+
+      void fail(Throwable error) {
+         release();
+         future.completeExceptionally(error);
+      }
+
+      // Drop the request and credential, so no password stays on the heap for the status retention
+      private void release() {
+         request = null;
+         credential = null;
+         finishedAt = Instant.now();
+      }
+   }
+}
@@ -0,0 +1,222 @@
+package com.backend.hotel_management.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.backend.hotel_management.enums.ExportFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes bookings straight from a database cursor to an output stream.
+ *
+ * The query returns one flat row per booking, with its services folded into a
+ * single column, and is read FETCH_SIZE rows at a time from a forward-only
+ * cursor. Each row is written as soon as it is read, so memory use does not
+ * depend on how many bookings there are. PostgreSQL only honours the fetch
+ * size inside a transaction, hence @Transactional.
+ */
+@Service
+public class BookingExportService {
+
+   private static final Logger log = LoggerFactory.getLogger(BookingExportService.class);
+
+   private static final int FETCH_SIZE = 1000;
+
+   private static final String[] COLUMNS = { "id", "bookingReference", "checkInDateTime", "checkOutDateTime",
+         "totalPrice", "guestId", "guestName", "guestEmail", "roomId", "roomNumber", "roomType", "totalGuests",
+         "services" };
+
+   private static final String SELECT = "SELECT b.id, b.booking_reference, b.check_in_date_time, " +
+         "b.check_out_date_time, b.total_price, g.id, g.full_name, g.email, r.id, r.room_number, r.room_type, " +
+         "1 + (SELECT COUNT(*) FROM booking_additional_guests a WHERE a.booking_id = b.id), " +
+         "(SELECT string_agg(bs.hotel_serving_id || ':' || COALESCE(q.quantity, 1), ';' " +
+         "ORDER BY bs.hotel_serving_id) FROM booking_services bs LEFT JOIN booking_serving_quantities q " +
+         "ON q.booking_id = bs.booking_id AND q.service_id = bs.hotel_serving_id WHERE bs.booking_id = b.id) " +
+         "FROM booking b LEFT JOIN guest g ON g.id = b.guest_id LEFT JOIN room r ON r.id = b.room_id ";
+
+   @Autowired
+   private JdbcTemplate jdbcTemplate;
+
+   @Autowired
+   private ObjectMapper objectMapper;
+
+   // Bookings whose stay overlaps [fromDate, toDate] (all bookings when both are null), ordered by id
+   @Transactional(readOnly = true)
+   public long exportBookings(ExportFormat format, LocalDate fromDate, LocalDate toDate, OutputStream out)
+         throws IOException {
+      boolean filtered = fromDate != null || toDate != null;
+      String sql = SELECT + (filtered
+            ? "WHERE b.stay_range && tsrange(CAST(? AS timestamp), CAST(? AS timestamp), '[)') "
+            : "") + "ORDER BY b.id";
+      LocalDateTime start = fromDate != null ? fromDate.atStartOfDay() : null;
+      LocalDateTime end = toDate != null ? toDate.plusDays(1).atStartOfDay() : null;
+
+      RowWriter writer = format == ExportFormat.CSV ? new CsvWriter(out) : new NdjsonWriter(out);
+      long[] rows = { 0 };
+      try {
+         writer.begin();
+         jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                  ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(FETCH_SIZE);
+            if (filtered) {
+               // A null bound leaves that side of the range open
+               statement.setObject(1, start, Types.TIMESTAMP);
+               statement.setObject(2, end, Types.TIMESTAMP);
+            }
+            return statement;
+         }, (RowCallbackHandler) rs -> {
+            try {
+               writer.row(rs);
+               rows[0]++;
+            } catch (IOException e) {
+               throw new UncheckedIOException(e);
+            }
+         });
+         writer.end();
+      } catch (UncheckedIOException e) {
+         throw e.getCause(); // client went away
+      }
+      log.debug("Exported {} bookings as {}", rows[0], format);
+      return rows[0];
+   }
+
+   private interface RowWriter {
+      void begin() throws IOException;
+
+      void row(ResultSet rs) throws SQLException, IOException;
+
+      void end() throws IOException;
+   }
+
+   // RFC 4180: comma separated, CRLF line ends, fields quoted when needed
+   private static final class CsvWriter implements RowWriter {
+
+      private final Writer writer;
+
+      CsvWriter(OutputStream out) {
+         this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+      }
+
+      @Override
+      public void begin() throws IOException {
+         for (int i = 0; i < COLUMNS.length; i++) {
+            if (i > 0) {
+               writer.write(',');
+            }
+            writer.write(COLUMNS[i]);
+         }
+         writer.write("\r\n");
+      }
+
+      @Override
+      public void row(ResultSet rs) throws SQLException, IOException {
+         for (int i = 1; i <= COLUMNS.length; i++) {
+            if (i > 1) {
+               writer.write(',');
+            }
+            Object value = rs.getObject(i);
+            if (value instanceof Timestamp) {
+               writeField(rs.getObject(i, LocalDateTime.class).toString());
+            } else if (value instanceof BigDecimal decimal) {
+               writeField(decimal.toPlainString());
+            } else if (value != null) {
+               writeField(value.toString());
+            }
+         }
+         writer.write("\r\n");
+      }
+
+      private void writeField(String field) throws IOException {
+         boolean quote = false;
+         for (int i = 0; i < field.length() && !quote; i++) {
+            char c = field.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+         }
+         if (!quote) {
+            writer.write(field);
+            return;
+         }
+         writer.write('"');
+         writer.write(field.replace("\"", "\"\""));
+         writer.write('"');
+      }
+
+      @Override
+      public void end() throws IOException {
+         writer.flush();
+      }
+   }
+
+   // One JSON object per line, written field by field without building objects
+   private final class NdjsonWriter implements RowWriter {
+
+      private final JsonGenerator generator;
+
+      NdjsonWriter(OutputStream out) throws IOException {
+         this.generator = objectMapper.getFactory().createGenerator(out)
+               .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+         this.generator.setRootValueSeparator(null);
+      }
+
+      @Override
+      public void begin() {
+      }
+
+      @Override
+      public void row(ResultSet rs) throws SQLException, IOException {
+         generator.writeStartObject();
+         generator.writeNumberField(COLUMNS[0], rs.getLong(1));
+         generator.writeStringField(COLUMNS[1], rs.getString(2));
+         generator.writeStringField(COLUMNS[2], rs.getObject(3, LocalDateTime.class).toString());
+         generator.writeStringField(COLUMNS[3], rs.getObject(4, LocalDateTime.class).toString());
+         generator.writeNumberField(COLUMNS[4], rs.getBigDecimal(5));
+         writeLong(COLUMNS[5], rs, 6);
+         generator.writeStringField(COLUMNS[6], rs.getString(7));
+         generator.writeStringField(COLUMNS[7], rs.getString(8));
+         writeLong(COLUMNS[8], rs, 9);
+         generator.writeStringField(COLUMNS[9], rs.getString(10));
+         generator.writeStringField(COLUMNS[10], rs.getString(11));
+         generator.writeNumberField(COLUMNS[11], rs.getInt(12));
+         generator.writeStringField(COLUMNS[12], rs.getString(13));
+         generator.writeEndObject();
+         generator.writeRaw('\n');
+      }
+
+      private void writeLong(String field, ResultSet rs, int column) throws SQLException, IOException {
+         long value = rs.getLong(column);
+         if (rs.wasNull()) {
+            generator.writeNullField(field);
+         } else {
+            generator.writeNumberField(field, value);
+         }
+      }
+
+      @Override
+      public void end() throws IOException {
+         generator.flush();
+      }
+   }
+}
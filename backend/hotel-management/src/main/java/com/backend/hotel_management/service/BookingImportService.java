@@ -0,0 +1,776 @@
+package com.backend.hotel_management.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.backend.hotel_management.dto.response.BookingImportErrorDto;
+import com.backend.hotel_management.dto.response.BookingImportStatusResponseDto;
+import com.backend.hotel_management.enums.BookingImportStatus;
+import com.backend.hotel_management.enums.ExportFormat;
+import com.backend.hotel_management.exception.RoomNotAvailableException;
+import com.backend.hotel_management.model.Booking;
+import com.backend.hotel_management.model.Guest;
+import com.backend.hotel_management.model.HotelServing;
+import com.backend.hotel_management.model.Room;
+import com.backend.hotel_management.report.service.RevenueRollupService;
+import com.backend.hotel_management.repository.BookingRepository;
+import com.backend.hotel_management.repository.GuestRepository;
+import com.backend.hotel_management.repository.HotelServingRepository;
+import com.backend.hotel_management.repository.RoomRepository;
+import com.backend.hotel_management.repository.projection.BookingInterval;
+import com.backend.hotel_management.repository.projection.GuestRow;
+import com.backend.hotel_management.repository.projection.RoomRow;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Loads bookings in bulk, e.g. the history and future stays of a property
+ * moving over from another system.
+ *
+ * An upload is spooled to a temporary file and imported in the background, one
+ * import at a time. Rows are read one by one and checked against in-memory
+ * lookups of the rooms, guests, services and the stays of every room, so a bad
+ * row costs no query; good rows are written CHUNK_SIZE per transaction in JDBC
+ * batches. A row that cannot be imported is skipped and reported with its line,
+ * and the rest of the file still loads.
+ *
+ * Imported bookings publish no BookingChangedEvent, which would recompute the
+ * revenue rollup once per booking. Instead, once the file is done, the rollup
+ * is recomputed for the imported dates and the in-memory availability
+ * structures are rebuilt. Until then they do not know the imported stays; the
+ * database still refuses overlapping bookings.
+ */
+@Service
+public class BookingImportService {
+
+   private static final Logger log = LoggerFactory.getLogger(BookingImportService.class);
+
+   private static final int CHUNK_SIZE = 500;
+
+   // Skipped rows listed in the status; the rest are only counted
+   public static final int MAX_REPORTED_ERRORS = 1000;
+
+   // Imports accepted but not finished; beyond that uploads are refused
+   private static final int MAX_PENDING = 5;
+
+   private static final Duration IMPORT_RETENTION = Duration.ofHours(1);
+
+   @Autowired
+   private RoomRepository roomRepository;
+
+   @Autowired
+   private GuestRepository guestRepository;
+
+   @Autowired
+   private HotelServingRepository hotelServingRepository;
+
+   @Autowired
+   private BookingRepository bookingRepository;
+
+   @Autowired
+   private PricingEngine pricingEngine;
+
+   @Autowired
+   private TransactionTemplate transactionTemplate;
+
+   @Autowired
+   private ObjectMapper objectMapper;
+
+   @Autowired
+   private RevenueRollupService revenueRollupService;
+
+   @Autowired
+   private RoomAvailabilityIndex availabilityIndex;
+
+   @Autowired
+   private RoomNightCalendar roomNightCalendar;
+
+   @Autowired
+   private RoomStatusScheduler roomStatusScheduler;
+
+   @PersistenceContext
+   private EntityManager entityManager;
+
+   private final Map<UUID, BookingImport> imports = new ConcurrentHashMap<>();
+   private final AtomicInteger pending = new AtomicInteger();
+   private ExecutorService executor;
+
+   @PostConstruct
+   public void start() {
+      executor = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("booking-import").daemon().factory());
+   }
+
+   @PreDestroy
+   public void stop() {
+      executor.shutdownNow();
+   }
+
+   // Spool an upload and queue its import; throws IllegalStateException when too many imports are waiting
+   public BookingImport submit(ExportFormat format, boolean gzip, InputStream body) throws IOException {
+      if (pending.incrementAndGet() > MAX_PENDING) {
+         pending.decrementAndGet();
+         throw new IllegalStateException("Too many booking imports waiting, please try again later");
+      }
+      Path file = null;
+      try {
+         file = Files.createTempFile("booking-import-", "." + format.name().toLowerCase());
+         try (InputStream in = gzip ? new GZIPInputStream(body, 64 * 1024) : body) {
+            Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+         }
+      } catch (IOException | RuntimeException e) {
+         pending.decrementAndGet();
+         deleteQuietly(file);
+         throw e;
+      }
+      BookingImport bookingImport = new BookingImport(UUID.randomUUID(), format, file);
+      imports.put(bookingImport.getId(), bookingImport);
+      executor.execute(() -> run(bookingImport));
+      return bookingImport;
+   }
+
+   public Optional<BookingImport> findImport(UUID id) {
+      return Optional.ofNullable(imports.get(id));
+   }
+
+   // Forget finished imports once callers have had time to fetch their outcome
+   @Scheduled(fixedDelay = 60000)
+   public void evictFinishedImports() {
+      Instant cutoff = Instant.now().minus(IMPORT_RETENTION);
+      imports.values().removeIf(bookingImport -> bookingImport.finishedAt != null
+            && bookingImport.finishedAt.isBefore(cutoff));
+   }
+
+   private void run(BookingImport bookingImport) {
+      bookingImport.start();
+      Lookups lookups = null;
+      try (BufferedReader reader = Files.newBufferedReader(bookingImport.file, StandardCharsets.UTF_8)) {
+         RecordReader records = bookingImport.format == ExportFormat.CSV ? new CsvRecordReader(reader)
+               : new NdjsonRecordReader(reader);
+         lookups = loadLookups();
+         List<PendingBooking> chunk = new ArrayList<>(CHUNK_SIZE);
+         while (true) {
+            Map<String, String> record;
+            try {
+               record = records.next();
+               if (record == null) {
+                  break;
+               }
+               bookingImport.rowRead();
+               chunk.add(resolve(lookups, records.line(), record));
+            } catch (ImportRowException e) {
+               if (!e.counted) {
+                  bookingImport.rowRead();
+               }
+               bookingImport.skip(records.line(), e.getMessage());
+            }
+            if (chunk.size() == CHUNK_SIZE) {
+               write(bookingImport, lookups, chunk);
+               chunk.clear();
+            }
+         }
+         write(bookingImport, lookups, chunk);
+
+         bookingImport.refreshing();
+         refresh(lookups);
+         bookingImport.complete();
+         log.info("Booking import {} finished: {} imported, {} skipped", bookingImport.getId(),
+               bookingImport.imported, bookingImport.skipped);
+      } catch (IOException | RuntimeException e) {
+         log.error("Booking import {} failed", bookingImport.getId(), e);
+         if (lookups != null) {
+            refreshQuietly(lookups); // the chunks written so far stay
+         }
+         bookingImport.fail(e.getMessage());
+      } finally {
+         deleteQuietly(bookingImport.file);
+         pending.decrementAndGet();
+      }
+   }
+
+   private Lookups loadLookups() {
+      Lookups lookups = new Lookups();
+      for (RoomRow room : roomRepository.findAllRows()) {
+         lookups.roomsById.put(room.id(), room);
+         lookups.roomsByNumber.put(room.roomNumber(), room);
+      }
+      for (GuestRow guest : guestRepository.findAllRows()) {
+         lookups.guestIds.add(guest.id());
+         lookups.guestIdsByEmail.put(guest.email(), guest.id());
+      }
+      for (HotelServing service : hotelServingRepository.findAll()) {
+         lookups.serviceIds.add(service.getId());
+         lookups.serviceIdsByName.put(service.getName(), service.getId());
+      }
+      for (BookingInterval stay : bookingRepository.findAllIntervals()) {
+         lookups.staysOf(stay.roomId()).put(stay.checkIn(), stay.checkOut());
+      }
+      return lookups;
+   }
+
+   // Check a row against the lookups and reserve its stay; throws ImportRowException to skip it
+   private PendingBooking resolve(Lookups lookups, long line, Map<String, String> record) {
+      LocalDateTime checkIn = dateTime(record, "checkInDateTime");
+      LocalDateTime checkOut = dateTime(record, "checkOutDateTime");
+      if (!checkOut.isAfter(checkIn)) {
+         throw new ImportRowException("checkOutDateTime must be after checkInDateTime");
+      }
+
+      RoomRow room;
+      String roomId = value(record, "roomId");
+      if (roomId != null) {
+         room = lookups.roomsById.get(number(roomId, "roomId"));
+      } else {
+         String roomNumber = value(record, "roomNumber");
+         if (roomNumber == null) {
+            throw new ImportRowException("roomNumber or roomId is required");
+         }
+         room = lookups.roomsByNumber.get(roomNumber);
+      }
+      if (room == null) {
+         throw new ImportRowException("Unknown room " + (roomId != null ? roomId : value(record, "roomNumber")));
+      }
+
+      Long guestId;
+      String guestIdValue = value(record, "guestId");
+      if (guestIdValue != null) {
+         guestId = number(guestIdValue, "guestId");
+         if (!lookups.guestIds.contains(guestId)) {
+            throw new ImportRowException("Unknown guest " + guestId);
+         }
+      } else {
+         String email = value(record, "guestEmail");
+         if (email == null) {
+            throw new ImportRowException("guestEmail or guestId is required");
+         }
+         guestId = lookups.guestIdsByEmail.get(email);
+         if (guestId == null) {
+            throw new ImportRowException("Unknown guest " + email);
+         }
+      }
+
+      List<String> additionalGuests = new ArrayList<>();
+      String names = value(record, "additionalGuests");
+      if (names != null) {
+         for (String name : names.split(";")) {
+            if (!name.isBlank()) {
+               additionalGuests.add(name.trim());
+            }
+         }
+      }
+      if (room.maxOccupancy() != null && 1 + additionalGuests.size() > room.maxOccupancy()) {
+         throw new ImportRowException("Room " + room.roomNumber() + " can only accommodate "
+               + room.maxOccupancy() + " guests");
+      }
+
+      // id:quantity or name:quantity pairs separated by ';', as the export writes them; quantity defaults to 1
+      List<Long> serviceIds = new ArrayList<>();
+      Map<Long, Integer> quantities = new HashMap<>();
+      String services = value(record, "services");
+      if (services != null) {
+         for (String item : services.split(";")) {
+            if (item.isBlank()) {
+               continue;
+            }
+            int colon = item.lastIndexOf(':');
+            String key = (colon < 0 ? item : item.substring(0, colon)).trim();
+            int quantity = colon < 0 ? 1 : (int) number(item.substring(colon + 1).trim(), "service quantity");
+            Long serviceId = lookups.serviceIdsByName.get(key);
+            if (serviceId == null && key.chars().allMatch(Character::isDigit) && !key.isEmpty()) {
+               serviceId = lookups.serviceIds.contains(Long.valueOf(key)) ? Long.valueOf(key) : null;
+            }
+            if (serviceId == null) {
+               throw new ImportRowException("Unknown service " + key);
+            }
+            if (quantity < 1) {
+               throw new ImportRowException("Service quantity must be at least 1");
+            }
+            if (quantities.put(serviceId, quantity) == null) {
+               serviceIds.add(serviceId);
+            }
+         }
+      }
+
+      BigDecimal totalPrice;
+      String price = value(record, "totalPrice");
+      if (price != null) {
+         try {
+            totalPrice = new BigDecimal(price);
+         } catch (NumberFormatException e) {
+            throw new ImportRowException("Invalid totalPrice " + price);
+         }
+      } else {
+         totalPrice = PricingEngine.toMoney(
+               pricingEngine.totalCents(room.roomType(), checkIn, checkOut, serviceIds, quantities));
+      }
+
+      String reference = value(record, "bookingReference");
+      if (reference != null && lookups.references.contains(reference)) {
+         throw new ImportRowException("Booking reference " + reference + " appears twice in the file");
+      }
+      if (!lookups.reserve(room.id(), checkIn, checkOut)) {
+         throw new ImportRowException("Room " + room.roomNumber() + " is already booked between " + checkIn
+               + " and " + checkOut);
+      }
+      if (reference != null) {
+         lookups.references.add(reference);
+      }
+      return new PendingBooking(line, reference, checkIn, checkOut, totalPrice, guestId, room.id(),
+            additionalGuests, serviceIds, quantities);
+   }
+
+   // Write one chunk in a single transaction; if the database refuses it, find the bad rows one by one
+   private void write(BookingImport bookingImport, Lookups lookups, List<PendingBooking> chunk) {
+      if (chunk.isEmpty()) {
+         return;
+      }
+      try {
+         transactionTemplate.executeWithoutResult(status -> persist(chunk));
+         chunk.forEach(booking -> imported(bookingImport, lookups, booking));
+      } catch (RuntimeException e) {
+         // e.g. a booking reference already in the database, which the lookups do not hold
+         log.debug("Booking import {}: chunk refused ({}), retrying row by row", bookingImport.getId(),
+               describe(e));
+         for (PendingBooking booking : chunk) {
+            try {
+               transactionTemplate.executeWithoutResult(status -> persist(List.of(booking)));
+               imported(bookingImport, lookups, booking);
+            } catch (RuntimeException rowFailure) {
+               lookups.release(booking);
+               bookingImport.skip(booking.line(), describe(rowFailure));
+            }
+         }
+      }
+      log.debug("Booking import {}: {} rows read, {} imported, {} skipped", bookingImport.getId(),
+            bookingImport.rowsRead, bookingImport.imported, bookingImport.skipped);
+   }
+
+   private void persist(List<PendingBooking> bookings) {
+      for (PendingBooking pending : bookings) {
+         Booking booking = new Booking();
+         booking.setBookingReference(pending.reference());
+         booking.setCheckInDateTime(pending.checkIn());
+         booking.setCheckOutDateTime(pending.checkOut());
+         booking.setTotalPrice(pending.totalPrice());
+         // References, so resolving a guest, room or service costs no query
+         booking.setGuest(entityManager.getReference(Guest.class, pending.guestId()));
+         booking.setRoom(entityManager.getReference(Room.class, pending.roomId()));
+         booking.setAdditionalGuests(new ArrayList<>(pending.additionalGuests()));
+         List<HotelServing> services = new ArrayList<>(pending.serviceIds().size());
+         for (Long serviceId : pending.serviceIds()) {
+            services.add(entityManager.getReference(HotelServing.class, serviceId));
+         }
+         booking.setSelectedServices(services);
+         booking.setServiceQuantities(new HashMap<>(pending.quantities()));
+         entityManager.persist(booking);
+      }
+      entityManager.flush();
+   }
+
+   private static void imported(BookingImport bookingImport, Lookups lookups, PendingBooking booking) {
+      bookingImport.rowImported();
+      LocalDate from = booking.checkIn().toLocalDate();
+      LocalDate to = booking.checkOut().toLocalDate();
+      if (lookups.importedFrom == null || from.isBefore(lookups.importedFrom)) {
+         lookups.importedFrom = from;
+      }
+      if (lookups.importedTo == null || to.isAfter(lookups.importedTo)) {
+         lookups.importedTo = to;
+      }
+   }
+
+   // Bring up to date what booking events would have kept current
+   private void refresh(Lookups lookups) {
+      if (lookups.importedFrom == null) {
+         return;
+      }
+      revenueRollupService.rebuild(lookups.importedFrom, lookups.importedTo);
+      availabilityIndex.rebuild();
+      roomNightCalendar.rebuild();
+      roomStatusScheduler.reconcile();
+      roomStatusScheduler.refill();
+   }
+
+   private void refreshQuietly(Lookups lookups) {
+      try {
+         refresh(lookups);
+      } catch (RuntimeException e) {
+         log.error("Could not refresh after a failed booking import", e);
+      }
+   }
+
+   // Why the database refused a row
+   private static String describe(RuntimeException e) {
+      if (e instanceof DataIntegrityViolationException violation
+            && RoomNotAvailableException.isCausedByOverlap(violation)) {
+         return new RoomNotAvailableException().getMessage();
+      }
+      for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+         if (cause instanceof SQLException) {
+            return cause.getMessage();
+         }
+      }
+      return e.getMessage();
+   }
+
+   private static String value(Map<String, String> record, String column) {
+      String value = record.get(column);
+      return value == null || value.isBlank() ? null : value.trim();
+   }
+
+   private static LocalDateTime dateTime(Map<String, String> record, String column) {
+      String value = value(record, column);
+      if (value == null) {
+         throw new ImportRowException(column + " is required");
+      }
+      try {
+         return LocalDateTime.parse(value);
+      } catch (DateTimeParseException e) {
+         throw new ImportRowException("Invalid " + column + " " + value + ", expected e.g. 2024-05-01T14:00");
+      }
+   }
+
+   private static long number(String value, String column) {
+      try {
+         return Long.parseLong(value);
+      } catch (NumberFormatException e) {
+         throw new ImportRowException("Invalid " + column + " " + value);
+      }
+   }
+
+   private static void deleteQuietly(Path file) {
+      if (file == null) {
+         return;
+      }
+      try {
+         Files.deleteIfExists(file);
+      } catch (IOException e) {
+         log.warn("Could not delete {}", file, e);
+      }
+   }
+
+   // A row that passed the checks, waiting for its chunk to be written
+   private record PendingBooking(long line, String reference, LocalDateTime checkIn, LocalDateTime checkOut,
+         BigDecimal totalPrice, Long guestId, Long roomId, List<String> additionalGuests, List<Long> serviceIds,
+         Map<Long, Integer> quantities) {
+   }
+
+   // What rows are checked against; only touched by the import thread
+   private static final class Lookups {
+
+      private final Map<Long, RoomRow> roomsById = new HashMap<>();
+      private final Map<String, RoomRow> roomsByNumber = new HashMap<>();
+      private final Set<Long> guestIds = new HashSet<>();
+      private final Map<String, Long> guestIdsByEmail = new HashMap<>();
+      private final Set<Long> serviceIds = new HashSet<>();
+      private final Map<String, Long> serviceIdsByName = new HashMap<>();
+      // Per room, the stays as check-in -> check-out; they never overlap
+      private final Map<Long, TreeMap<LocalDateTime, LocalDateTime>> stays = new HashMap<>();
+      // References used earlier in the file
+      private final Set<String> references = new HashSet<>();
+      private LocalDate importedFrom;
+      private LocalDate importedTo;
+
+      private TreeMap<LocalDateTime, LocalDateTime> staysOf(Long roomId) {
+         return stays.computeIfAbsent(roomId, id -> new TreeMap<>());
+      }
+
+      // Claim [checkIn, checkOut) in the room; false if it overlaps a stay
+      private boolean reserve(Long roomId, LocalDateTime checkIn, LocalDateTime checkOut) {
+         TreeMap<LocalDateTime, LocalDateTime> roomStays = staysOf(roomId);
+         // Only the last stay starting before checkOut can reach past checkIn, as stays do not overlap
+         Map.Entry<LocalDateTime, LocalDateTime> before = roomStays.lowerEntry(checkOut);
+         if (before != null && before.getValue().isAfter(checkIn)) {
+            return false;
+         }
+         roomStays.put(checkIn, checkOut);
+         return true;
+      }
+
+      private void release(PendingBooking booking) {
+         staysOf(booking.roomId()).remove(booking.checkIn());
+         if (booking.reference() != null) {
+            references.remove(booking.reference());
+         }
+      }
+   }
+
+   // A row to skip; counted means the row was already counted as read
+   private static final class ImportRowException extends RuntimeException {
+
+      private final boolean counted;
+
+      ImportRowException(String message) {
+         this(message, true);
+      }
+
+      ImportRowException(String message, boolean counted) {
+         super(message);
+         this.counted = counted;
+      }
+   }
+
+   private interface RecordReader {
+      // The next row by column name, null at the end of the file
+      Map<String, String> next() throws IOException;
+
+      // Line the row last returned (or refused) by next() starts on
+      long line();
+   }
+
+   // RFC 4180 with a header row naming the columns, as the export writes it
+   private static final class CsvRecordReader implements RecordReader {
+
+      private final Reader reader;
+      private List<String> header;
+      private long line;
+      private long nextLine = 1;
+
+      CsvRecordReader(Reader reader) {
+         this.reader = reader;
+      }
+
+      @Override
+      public Map<String, String> next() throws IOException {
+         if (header == null) {
+            header = readRecord();
+            if (header == null) {
+               return null;
+            }
+            if (!header.isEmpty() && header.get(0).startsWith("\uFEFF")) {
+               header.set(0, header.get(0).substring(1));
+            }
+            header.replaceAll(String::trim);
+         }
+         List<String> fields;
+         do {
+            fields = readRecord();
+            if (fields == null) {
+               return null;
+            }
+         } while (fields.size() == 1 && fields.get(0).isEmpty());
+         if (fields.size() != header.size()) {
+            throw new ImportRowException("Expected " + header.size() + " fields, found " + fields.size(), false);
+         }
+         Map<String, String> record = new HashMap<>();
+         for (int i = 0; i < fields.size(); i++) {
+            record.put(header.get(i), fields.get(i));
+         }
+         return record;
+      }
+
+      @Override
+      public long line() {
+         return line;
+      }
+
+      // The fields of the next record, null at the end of the file
+      private List<String> readRecord() throws IOException {
+         int c = reader.read();
+         if (c == -1) {
+            return null;
+         }
+         line = nextLine;
+         List<String> fields = new ArrayList<>();
+         StringBuilder field = new StringBuilder();
+         boolean quoted = false;
+         while (true) {
+            if (quoted) {
+               if (c == -1) {
+                  throw new ImportRowException("Quoted field is not closed", false);
+               }
+               if (c == '"') {
+                  c = reader.read();
+                  if (c != '"') {
+                     quoted = false; // closing quote; look at c again unquoted
+                     continue;
+                  }
+               } else if (c == '\n') {
+                  nextLine++;
+               }
+               field.append((char) c);
+            } else if (c == '"' && field.isEmpty()) {
+               quoted = true;
+            } else if (c == ',') {
+               fields.add(field.toString());
+               field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+               if (c == '\n') {
+                  nextLine++;
+               }
+               fields.add(field.toString());
+               return fields;
+            } else if (c != '\r') {
+               field.append((char) c);
+            }
+            c = reader.read();
+         }
+      }
+   }
+
+   // One JSON object per line; arrays become ';' separated values and objects key:value pairs
+   private final class NdjsonRecordReader implements RecordReader {
+
+      private final BufferedReader reader;
+      private long line;
+
+      NdjsonRecordReader(BufferedReader reader) {
+         this.reader = reader;
+      }
+
+      @Override
+      public Map<String, String> next() throws IOException {
+         String text;
+         do {
+            text = reader.readLine();
+            if (text == null) {
+               return null;
+            }
+            line++;
+         } while (text.isBlank());
+         JsonNode node;
+         try {
+            node = objectMapper.readTree(text);
+         } catch (JsonProcessingException e) {
+            throw new ImportRowException("Invalid JSON: " + e.getOriginalMessage(), false);
+         }
+         if (!node.isObject()) {
+            throw new ImportRowException("Expected a JSON object", false);
+         }
+         Map<String, String> record = new HashMap<>();
+         for (Map.Entry<String, JsonNode> field : node.properties()) {
+            record.put(field.getKey(), flatten(field.getValue()));
+         }
+         return record;
+      }
+
+      @Override
+      public long line() {
+         return line;
+      }
+
+      private static String flatten(JsonNode value) {
+         if (value.isNull()) {
+            return "";
+         }
+         if (value.isValueNode()) {
+            return value.asText();
+         }
+         List<String> items = new ArrayList<>();
+         if (value.isArray()) {
+            value.forEach(item -> items.add(flatten(item)));
+         } else {
+            value.properties().forEach(item -> items.add(item.getKey() + ":" + flatten(item.getValue())));
+         }
+         return String.join(";", items);
+      }
+   }
+
+   /**
+    * One upload and its progress. Written by the import thread only; the
+    * status snapshot is taken under the same lock as the writes.
+    */
+   public static final class BookingImport {
+
+      private final UUID id;
+      private final ExportFormat format;
+      private final Path file;
+      private final Instant submittedAt = Instant.now();
+      private final List<BookingImportErrorDto> errors = new ArrayList<>();
+      private BookingImportStatus status = BookingImportStatus.QUEUED;
+      private long rowsRead;
+      private long imported;
+      private long skipped;
+      private String error;
+      private volatile Instant finishedAt;
+
+      BookingImport(UUID id, ExportFormat format, Path file) {
+         this.id = id;
+         this.format = format;
+         this.file = file;
+      }
+
+      public UUID getId() {
+         return id;
+      }
+
+      public synchronized BookingImportStatusResponseDto toStatus() {
+         return new BookingImportStatusResponseDto(id, format, status, rowsRead, imported, skipped,
+               List.copyOf(errors), error, submittedAt, finishedAt);
+      }
+
+      synchronized void start() {
+         status = BookingImportStatus.RUNNING;
+      }
+
+      synchronized void rowRead() {
+         rowsRead++;
+      }
+
+      synchronized void rowImported() {
+         imported++;
+      }
+
+      synchronized void skip(long line, String message) {
+         skipped++;
+         if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new BookingImportErrorDto(line, message));
+         }
+      }
+
+      synchronized void refreshing() {
+         status = BookingImportStatus.REFRESHING;
+      }
+
+      synchronized void complete() {
+         status = BookingImportStatus.COMPLETED;
+         finishedAt = Instant.now();
+      }
+
+      synchronized void fail(String message) {
+         error = message;
+         status = BookingImportStatus.FAILED;
+         finishedAt = Instant.now();
+      }
+   }
+}
@@ -0,0 +1,205 @@
+package com.backend.hotel_management.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.backend.hotel_management.model.Booking;
+import com.backend.hotel_management.repository.BookingRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Hands out booking ids and the public booking references derived from them.
+ *
+ * Ids come from blocks of BLOCK_SIZE reserved with one nextval() on
+ * booking_id_seq, so creating a booking costs no extra round trip. A reference
+ * is "BK", eight Crockford base32 characters and a check character. The eight
+ * characters are the id run through a keyed 40-bit Feistel permutation: every
+ * id gets a distinct reference, neighbouring ids get unrelated ones, and
+ * decoding a reference gives the id back without touching the database.
+ */
+@Service
+public class BookingReferenceService {
+
+   private static final String PREFIX = "BK";
+   private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+   private static final int BODY_LENGTH = 8;
+   private static final int REFERENCE_LENGTH = PREFIX.length() + BODY_LENGTH + 1;
+
+   private static final int HALF_BITS = 20;
+   private static final long HALF_MASK = (1L << HALF_BITS) - 1;
+   private static final long MAX_ID = (1L << (2 * HALF_BITS)) - 1;
+   private static final int ROUNDS = 4;
+
+   // Must match INCREMENT BY of booking_id_seq (V3__booking_id_blocks.sql)
+   private static final int BLOCK_SIZE = 100;
+
+   @Autowired
+   private JdbcTemplate jdbcTemplate;
+
+   @Autowired
+   private BookingRepository bookingRepository;
+
+   @Value("${hotel.booking.reference-secret}")
+   private String referenceSecret;
+
+   private final long[] roundKeys = new long[ROUNDS];
+
+   // Current block [nextId, blockEnd); guarded by this
+   private long nextId;
+   private long blockEnd;
+
+   @PostConstruct
+   public void deriveRoundKeys() {
+      try {
+         byte[] digest = MessageDigest.getInstance("SHA-256")
+               .digest(referenceSecret.getBytes(StandardCharsets.UTF_8));
+         for (int round = 0; round < ROUNDS; round++) {
+            long key = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+               key = (key << 8) | (digest[round * Long.BYTES + i] & 0xFF);
+            }
+            roundKeys[round] = key;
+         }
+      } catch (NoSuchAlgorithmException e) {
+         throw new IllegalStateException("SHA-256 not available", e);
+      }
+   }
+
+   public synchronized long nextBookingId() {
+      if (nextId == blockEnd) {
+         long blockStart = jdbcTemplate.queryForObject("SELECT nextval('booking_id_seq')", Long.class);
+         nextId = blockStart;
+         blockEnd = blockStart + BLOCK_SIZE;
+      }
+      return nextId++;
+   }
+
+   public String referenceFor(long bookingId) {
+      if (bookingId < 0 || bookingId > MAX_ID) {
+         throw new IllegalArgumentException("Booking id out of reference range: " + bookingId);
+      }
+      long value = permute(bookingId);
+      char[] reference = new char[REFERENCE_LENGTH];
+      reference[0] = 'B';
+      reference[1] = 'K';
+      for (int i = REFERENCE_LENGTH - 2; i >= PREFIX.length(); i--) {
+         reference[i] = ALPHABET[(int) (value & 31)];
+         value >>>= 5;
+      }
+      reference[REFERENCE_LENGTH - 1] = ALPHABET[checkDigit(reference)];
+      return new String(reference);
+   }
+
+   // Booking id encoded in a reference, empty for legacy or mistyped references
+   public OptionalLong decode(String reference) {
+      if (reference == null || reference.length() != REFERENCE_LENGTH
+            || !reference.regionMatches(true, 0, PREFIX, 0, PREFIX.length())) {
+         return OptionalLong.empty();
+      }
+      long value = 0;
+      int factor = 1;
+      int sum = 0;
+      for (int i = REFERENCE_LENGTH - 1; i >= PREFIX.length(); i--) {
+         int digit = digitOf(reference.charAt(i));
+         if (digit < 0) {
+            return OptionalLong.empty();
+         }
+         if (i < REFERENCE_LENGTH - 1) {
+            value |= (long) digit << (5 * (REFERENCE_LENGTH - 2 - i));
+         }
+         sum += luhnAddend(digit, factor);
+         factor = 3 - factor;
+      }
+      if (sum % ALPHABET.length != 0) {
+         return OptionalLong.empty();
+      }
+      return OptionalLong.of(unpermute(value));
+   }
+
+   // Resolve a reference by primary key, falling back to the reference column for legacy references
+   public Optional<Booking> findBooking(String reference) {
+      OptionalLong bookingId = decode(reference);
+      if (bookingId.isPresent()) {
+         // A legacy booking can hold the decoded id under a different reference
+         String canonical = referenceFor(bookingId.getAsLong());
+         Optional<Booking> booking = bookingRepository.findById(bookingId.getAsLong())
+               .filter(found -> canonical.equals(found.getBookingReference()));
+         if (booking.isPresent()) {
+            return booking;
+         }
+      }
+      return bookingRepository.findByBookingReference(reference);
+   }
+
+   private long permute(long value) {
+      long left = value >>> HALF_BITS;
+      long right = value & HALF_MASK;
+      for (int round = 0; round < ROUNDS; round++) {
+         long next = left ^ roundFunction(right, round);
+         left = right;
+         right = next;
+      }
+      return (left << HALF_BITS) | right;
+   }
+
+   private long unpermute(long value) {
+      long left = value >>> HALF_BITS;
+      long right = value & HALF_MASK;
+      for (int round = ROUNDS - 1; round >= 0; round--) {
+         long previous = right ^ roundFunction(left, round);
+         right = left;
+         left = previous;
+      }
+      return (left << HALF_BITS) | right;
+   }
+
+   // SplitMix64 finaliser over the half block and the round key
+   private long roundFunction(long half, int round) {
+      long z = half * 0x9E3779B97F4A7C15L + roundKeys[round];
+      z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+      z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+      return (z ^ (z >>> 31)) & HALF_MASK;
+   }
+
+   // Luhn mod 32 over the body, catches any single wrong character and most swaps
+   private static int checkDigit(char[] reference) {
+      int factor = 2;
+      int sum = 0;
+      for (int i = REFERENCE_LENGTH - 2; i >= PREFIX.length(); i--) {
+         sum += luhnAddend(digitOf(reference[i]), factor);
+         factor = 3 - factor;
+      }
+      return (ALPHABET.length - sum % ALPHABET.length) % ALPHABET.length;
+   }
+
+   private static int luhnAddend(int digit, int factor) {
+      int addend = digit * factor;
+      return addend / ALPHABET.length + addend % ALPHABET.length;
+   }
+
+   // Crockford decoding: case-insensitive, O reads as 0 and I/L as 1
+   private static int digitOf(char c) {
+      char upper = Character.toUpperCase(c);
+      if (upper == 'O') {
+         return 0;
+      }
+      if (upper == 'I' || upper == 'L') {
+         return 1;
+      }
+      for (int digit = 0; digit < ALPHABET.length; digit++) {
+         if (ALPHABET[digit] == upper) {
+            return digit;
+         }
+      }
+      return -1;
+   }
+}
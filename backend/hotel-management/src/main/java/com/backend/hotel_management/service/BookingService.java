@@ -1,11 +1,19 @@
 package com.backend.hotel_management.service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import com.backend.hotel_management.dto.request.BookingRequestDto;
@@ -13,6 +21,9 @@ import com.backend.hotel_management.dto.response.BookingResponseDto;
 import com.backend.hotel_management.dto.response.GuestResponseDto;
 import com.backend.hotel_management.dto.response.HotelServingResponseDto;
 import com.backend.hotel_management.dto.response.RoomResponseDto;
+import com.backend.hotel_management.event.BookingChangedEvent;
+import com.backend.hotel_management.event.BookingChangedEvent.BookingSlot;
+import com.backend.hotel_management.exception.RoomNotAvailableException;
 import com.backend.hotel_management.model.Booking;
 import com.backend.hotel_management.model.Guest;
 import com.backend.hotel_management.model.HotelServing;
@@ -20,7 +31,13 @@ import com.backend.hotel_management.model.Room;
 import com.backend.hotel_management.repository.BookingRepository;
 import com.backend.hotel_management.repository.GuestRepository;
 import com.backend.hotel_management.repository.HotelServingRepository;
+import com.backend.hotel_management.repository.KeysetPage;
+import com.backend.hotel_management.repository.KeysetRepository;
 import com.backend.hotel_management.repository.RoomRepository;
+import com.backend.hotel_management.repository.projection.BookingGuestNameRow;
+import com.backend.hotel_management.repository.projection.BookingRow;
+import com.backend.hotel_management.repository.projection.BookingServiceQuantityRow;
+import com.backend.hotel_management.repository.projection.BookingServiceRow;
 
 import jakarta.transaction.Transactional;
 
@@ -30,6 +47,9 @@ public class BookingService {
    @Autowired
    private BookingRepository bookingRepository;
 
+   @Autowired
+   private BookingReferenceService bookingReferenceService;
+
    @Autowired
    private GuestRepository guestRepository;
 
@@ -39,6 +59,18 @@ public class BookingService {
    @Autowired
    private HotelServingRepository hotelServingRepository;
 
+   @Autowired
+   private ApplicationEventPublisher eventPublisher;
+
+   @Autowired
+   private KeysetRepository keysetRepository;
+
+   // Sort keys of the paged bookings list besides id; each is indexed for (key, id) order
+   private static final Set<String> PAGE_SORT_KEYS = Set.of("checkInDateTime");
+
+   // Bookings whose collections are read with one query each
+   private static final int ROW_CHUNK = 1000;
+
    private static final Logger log = LoggerFactory.getLogger(BookingService.class);
 
    // Convert Entity to Response DTO
@@ -138,36 +170,105 @@ public class BookingService {
       return booking;
    }
 
-   // Convert List of Entities to List of Response DTOs
-   private List<BookingResponseDto> convertToResponseDtoList(List<Booking> bookings) {
-      return bookings.stream()
-            .map(this::convertToResponseDto)
-            .collect(Collectors.toList());
+   // Save and flush, reporting an overlap rejected by the database as RoomNotAvailableException
+   private Booking saveChecked(Booking booking) {
+      try {
+         return bookingRepository.saveAndFlush(booking);
+      } catch (DataIntegrityViolationException e) {
+         if (RoomNotAvailableException.isCausedByOverlap(e)) {
+            throw new RoomNotAvailableException();
+         }
+         throw e;
+      }
+   }
+
+   // Convert list rows to Response DTOs; the collections of ROW_CHUNK bookings are read with one query each
+   private List<BookingResponseDto> convertRowsToResponseDtos(List<BookingRow> rows) {
+      List<BookingResponseDto> bookingDtos = new ArrayList<>(rows.size());
+      for (int from = 0; from < rows.size(); from += ROW_CHUNK) {
+         Map<Long, BookingResponseDto> chunk = new LinkedHashMap<>();
+         for (BookingRow row : rows.subList(from, Math.min(from + ROW_CHUNK, rows.size()))) {
+            chunk.put(row.id(), convertRowToResponseDto(row));
+         }
+         List<Long> bookingIds = new ArrayList<>(chunk.keySet());
+         for (BookingGuestNameRow name : bookingRepository.findAdditionalGuestNames(bookingIds)) {
+            chunk.get(name.bookingId()).getAdditionalGuestNames().add(name.name());
+         }
+         for (BookingServiceRow service : bookingRepository.findSelectedServices(bookingIds)) {
+            chunk.get(service.bookingId()).getSelectedServices().add(new HotelServingResponseDto(
+                  service.serviceId(), service.name(), service.pricingType(), service.price(), service.duration()));
+         }
+         for (BookingServiceQuantityRow quantity : bookingRepository.findServiceQuantities(bookingIds)) {
+            chunk.get(quantity.bookingId()).getServiceQuantities().put(quantity.serviceId(), quantity.quantity());
+         }
+         for (BookingResponseDto bookingDto : chunk.values()) {
+            bookingDto.setTotalGuests(1 + bookingDto.getAdditionalGuestNames().size());
+            bookingDtos.add(bookingDto);
+         }
+      }
+      return bookingDtos;
+   }
+
+   // Convert a list row to Response DTO, with empty collections for convertRowsToResponseDtos to fill
+   private BookingResponseDto convertRowToResponseDto(BookingRow row) {
+      GuestResponseDto guestDto = new GuestResponseDto();
+      if (row.guestId() != null) {
+         guestDto.setId(row.guestId());
+         guestDto.setFullName(row.guestFullName());
+         guestDto.setEmail(row.guestEmail());
+         guestDto.setPhoneNumber(row.guestPhoneNumber());
+         guestDto.setCountry(row.guestCountry());
+         guestDto.setAddress(row.guestAddress());
+         guestDto.setCity(row.guestCity());
+      }
+
+      RoomResponseDto roomDto = new RoomResponseDto();
+      if (row.roomId() != null) {
+         roomDto.setId(row.roomId());
+         roomDto.setRoomNumber(row.roomNumber());
+         roomDto.setRoomType(row.roomType());
+         roomDto.setRoomStatus(row.roomStatus());
+         roomDto.setPricePerNight(row.roomPricePerNight());
+         roomDto.setMaxOccupancy(row.roomMaxOccupancy());
+      }
+
+      return new BookingResponseDto(row.id(), row.bookingReference(), row.checkInDateTime(),
+            row.checkOutDateTime(), row.totalPrice(), guestDto, roomDto, new ArrayList<>(), new ArrayList<>(), 1,
+            new HashMap<>());
    }
 
    // Create new booking
    public BookingResponseDto createBooking(BookingRequestDto requestDto) {
       Booking booking = convertToEntity(requestDto);
       // Calculate total price here if needed
-      Booking savedBooking = bookingRepository.save(booking);
+      Booking savedBooking = saveChecked(booking);
+      eventPublisher.publishEvent(BookingChangedEvent.created(savedBooking));
       return convertToResponseDto(savedBooking);
    }
 
    // Get all bookings
+   // Every booking in id order; more than KeysetRepository.UNPAGED_LIMIT must be read in pages
    public List<BookingResponseDto> getAllBookings() {
-      List<Booking> bookings = bookingRepository.findAll();
-      return convertToResponseDtoList(bookings);
+      return convertRowsToResponseDtos(KeysetRepository.unpaged(
+            bookingRepository.findAllRows(Limit.of(KeysetRepository.UNPAGED_LIMIT + 1))));
+   }
+
+   // One page of bookings in sort order, continuing after cursor (null for the first page)
+   public KeysetPage<BookingResponseDto> getBookingPage(String sort, Integer limit, String cursor) {
+      KeysetPage<Long> ids = keysetRepository.findPageIds(Booking.class, PAGE_SORT_KEYS, sort, limit, cursor);
+      return ids.load(pageIds -> convertRowsToResponseDtos(bookingRepository.findRowsByIdIn(pageIds)),
+            BookingResponseDto::getId);
    }
 
    // Get booking by ID
    public BookingResponseDto getBookingByReference(String reference) {
-      Booking booking = bookingRepository.findByBookingReference(reference)
+      Booking booking = bookingReferenceService.findBooking(reference)
             .orElseThrow(() -> new RuntimeException("Booking not found with reference: " + reference));
       return convertToResponseDto(booking);
    }
 
    public Booking getBookingEntityByReference(String reference) {
-      return bookingRepository.findByBookingReference(reference)
+      return bookingReferenceService.findBooking(reference)
             .orElseThrow(() -> new RuntimeException("Booking not found with reference: " + reference));
    }
 
@@ -175,6 +276,7 @@ public class BookingService {
    public BookingResponseDto updateBooking(Long id, BookingRequestDto requestDto) {
       Booking existingBooking = bookingRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Booking not found with id: " + id));
+      BookingSlot previousSlot = BookingSlot.of(existingBooking);
 
       // Update fields
       existingBooking.setCheckInDateTime(requestDto.getCheckInDateTime());
@@ -200,29 +302,29 @@ public class BookingService {
          throw new RuntimeException("Check-in date is after check-out date");
       }
 
-      Booking updatedBooking = bookingRepository.save(existingBooking);
+      Booking updatedBooking = saveChecked(existingBooking);
+      eventPublisher.publishEvent(BookingChangedEvent.updated(previousSlot, updatedBooking));
       return convertToResponseDto(updatedBooking);
    }
 
    // Delete booking by ID
    public void deleteBooking(Long id) {
-      if (!bookingRepository.existsById(id)) {
-         throw new RuntimeException("Booking not found with id: " + id);
-      }
-      bookingRepository.deleteById(id);
+      Booking booking = bookingRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("Booking not found with id: " + id));
+      bookingRepository.delete(booking);
+      eventPublisher.publishEvent(BookingChangedEvent.deleted(booking));
    }
 
    public List<BookingResponseDto> getBookingsByGuestEmail(String email) {
-      List<Booking> bookings = bookingRepository.findByGuestEmail(email);
-      return convertToResponseDtoList(bookings);
+      return convertRowsToResponseDtos(bookingRepository.findRowsByGuestEmail(email));
    }
 
    @Transactional
    public void deleteBookingByReference(String bookingReference) {
-      if (!bookingRepository.existsByBookingReference(bookingReference)) {
-         throw new RuntimeException("Booking not found with reference: " + bookingReference);
-      }
-      bookingRepository.deleteByBookingReference(bookingReference);
+      Booking booking = bookingReferenceService.findBooking(bookingReference)
+            .orElseThrow(() -> new RuntimeException("Booking not found with reference: " + bookingReference));
+      bookingRepository.delete(booking);
+      eventPublisher.publishEvent(BookingChangedEvent.deleted(booking));
    }
 
 }
@@ -2,6 +2,7 @@ package com.backend.hotel_management.service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,6 +14,8 @@ import com.backend.hotel_management.model.Complaint;
 import com.backend.hotel_management.model.Guest;
 import com.backend.hotel_management.repository.ComplaintRepository;
 import com.backend.hotel_management.repository.GuestRepository;
+import com.backend.hotel_management.repository.KeysetPage;
+import com.backend.hotel_management.repository.KeysetRepository;
 
 @Service
 public class ComplaintService {
@@ -23,6 +26,9 @@ public class ComplaintService {
    @Autowired
    private GuestRepository guestRepository;
 
+   @Autowired
+   private KeysetRepository keysetRepository;
+
    public Complaint convertRequestDtoToEntity(ComplaintRequestDto request) {
       Complaint entity = new Complaint();
       entity.setTitle(request.getTitle());
@@ -71,9 +77,15 @@ public class ComplaintService {
       return convertEntityListToResponseDtos(complaints);
    }
 
+   // Every complaint in id order; more than KeysetRepository.UNPAGED_LIMIT must be read in pages
    public List<ComplaintResponseDto> getAllComplaints() {
-      List<Complaint> complaints = complaintRepository.findAll();
-      return convertEntityListToResponseDtos(complaints);
+      return convertEntityListToResponseDtos(keysetRepository.findUnpaged(Complaint.class, "guest"));
+   }
+
+   // One page of complaints in sort order, continuing after cursor (null for the first page)
+   public KeysetPage<ComplaintResponseDto> getComplaintPage(String sort, Integer limit, String cursor) {
+      return keysetRepository.findPage(Complaint.class, Set.of(), sort, limit, cursor, "guest")
+            .map(this::convertEntityToResponseDto);
    }
 
    // public ComplaintResponseDto updateComplaint(Long id, ComplaintRequestDto request) {
@@ -2,6 +2,7 @@ package com.backend.hotel_management.service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +12,8 @@ import com.backend.hotel_management.dto.request.ContactUsRequestDto;
 import com.backend.hotel_management.dto.response.ContactUsResponseDto;
 import com.backend.hotel_management.model.ContactUs;
 import com.backend.hotel_management.repository.ContactUsRepository;
+import com.backend.hotel_management.repository.KeysetPage;
+import com.backend.hotel_management.repository.KeysetRepository;
 
 @Service
 public class ContactUsService {
@@ -18,6 +21,9 @@ public class ContactUsService {
    @Autowired
    private ContactUsRepository contactUsRepository;
 
+   @Autowired
+   private KeysetRepository keysetRepository;
+
    public ContactUs convertRequestDtoToEntity(ContactUsRequestDto requestDto) {
 
       ContactUs entity = new ContactUs();
@@ -64,9 +70,15 @@ public class ContactUsService {
       return convertEntityToResponseDto(entity);
    }
 
+   // Every contact message in id order; more than KeysetRepository.UNPAGED_LIMIT must be read in pages
    public List<ContactUsResponseDto> getAllContactUs() {
-      List<ContactUs> entities = contactUsRepository.findAll();
-      return convertEntityListToResponseDtoList(entities);
+      return convertEntityListToResponseDtoList(keysetRepository.findUnpaged(ContactUs.class));
+   }
+
+   // One page of contact messages in sort order, continuing after cursor (null for the first page)
+   public KeysetPage<ContactUsResponseDto> getContactUsPage(String sort, Integer limit, String cursor) {
+      return keysetRepository.findPage(ContactUs.class, Set.of(), sort, limit, cursor)
+            .map(this::convertEntityToResponseDto);
    }
 
    public ContactUsResponseDto getContactUsByEmail(String email) {
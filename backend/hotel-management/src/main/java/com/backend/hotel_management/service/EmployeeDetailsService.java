@@ -2,6 +2,7 @@ package com.backend.hotel_management.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -11,7 +12,7 @@ import com.backend.hotel_management.model.EmployeePrincipal;
 import com.backend.hotel_management.repository.EmployeeRepository;
 
 @Service
-public class EmployeeDetailsService implements UserDetailsService {
+public class EmployeeDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
    @Autowired
    private EmployeeRepository employeeRepository;
@@ -24,4 +25,15 @@ public class EmployeeDetailsService implements UserDetailsService {
       }
       return new EmployeePrincipal(employee);
    }
+
+   // Store a password hashed again after a successful sign-in, see PasswordHashingService.upgradeEncoding
+   @Override
+   public UserDetails updatePassword(UserDetails user, String newPassword) {
+      Employee employee = employeeRepository.findByEmail(user.getUsername());
+      if (employee == null) {
+         return user;
+      }
+      employee.setPassword(newPassword);
+      return new EmployeePrincipal(employeeRepository.save(employee));
+   }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.backend.hotel_management.service;
 
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,7 +9,7 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import com.backend.hotel_management.dto.request.EmployeeRequestDto;
@@ -17,7 +18,10 @@ import com.backend.hotel_management.dto.response.EmployeeResponseDto;
 import com.backend.hotel_management.dto.response.JwtResponseDto;
 import com.backend.hotel_management.model.Employee;
 import com.backend.hotel_management.model.EmployeePrincipal;
+import com.backend.hotel_management.model.TokenPrincipal;
 import com.backend.hotel_management.repository.EmployeeRepository;
+import com.backend.hotel_management.repository.KeysetPage;
+import com.backend.hotel_management.repository.KeysetRepository;
 
 @Service
 public class EmployeeService {
@@ -28,9 +32,20 @@ public class EmployeeService {
    @Autowired
    private JwtService jwtService;
 
+   @Autowired
+   private PrincipalCache principalCache;
+
+   @Autowired
+   private PasswordEncoder encoder;
+
    @Autowired
    private AuthenticationManager authManager;
-   private BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(12);
+
+   @Autowired
+   private KeysetRepository keysetRepository;
+
+   // Sort keys of the paged employees list besides id; each is indexed for (key, id) order
+   private static final Set<String> PAGE_SORT_KEYS = Set.of("fullName", "email");
 
    // Convert RequestDto to Entity
    public Employee convertRequestDtoToEntity(EmployeeRequestDto request) {
@@ -70,9 +85,15 @@ public class EmployeeService {
    }
 
    // Get All Employees
+   // Every employee in id order; more than KeysetRepository.UNPAGED_LIMIT must be read in pages
    public List<EmployeeResponseDto> getAllEmployees() {
-      List<Employee> employees = employeeRepository.findAll();
-      return convertEntityListToResponseDtos(employees);
+      return convertEntityListToResponseDtos(keysetRepository.findUnpaged(Employee.class));
+   }
+
+   // One page of employees in sort order, continuing after cursor (null for the first page)
+   public KeysetPage<EmployeeResponseDto> getEmployeePage(String sort, Integer limit, String cursor) {
+      return keysetRepository.findPage(Employee.class, PAGE_SORT_KEYS, sort, limit, cursor)
+            .map(this::convertEntityToResponseDto);
    }
 
    // Get Employee By Id
@@ -96,6 +117,7 @@ public class EmployeeService {
       }
 
       Employee updatedEmployee = employeeRepository.save(employee);
+      principalCache.invalidateEmployee(id);
       return convertEntityToResponseDto(updatedEmployee);
    }
 
@@ -106,6 +128,7 @@ public class EmployeeService {
       }
 
       employeeRepository.deleteById(id);
+      principalCache.invalidateEmployee(id);
    }
 
    public EmployeeResponseDto register(EmployeeRequestDto employeeRequest) {
@@ -130,7 +153,7 @@ public class EmployeeService {
       if (authentication.isAuthenticated()) {
          EmployeePrincipal employeePrincipal = (EmployeePrincipal) authentication.getPrincipal();
          Employee employee = employeePrincipal.getEmployee();
-         String token = jwtService.generateToken(employee.getEmail(), employee.getRole());
+         String token = jwtService.generateToken(employee.getId(), employee.getEmail(), employee.getRole());
          return new JwtResponseDto(token, employee.getEmail(), employee.getRole());
       } else {
          throw new RuntimeException("Invalid credentials");
@@ -139,9 +162,9 @@ public class EmployeeService {
 
    public boolean isCurrentEmployee(Long employeeId) {
       Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-      if (authentication != null && authentication.getPrincipal() instanceof EmployeePrincipal) {
-         EmployeePrincipal principal = (EmployeePrincipal) authentication.getPrincipal();
-         return principal.getEmployee().getId().equals(employeeId);
+      if (authentication != null && authentication.getPrincipal() instanceof TokenPrincipal principal
+            && !principal.isGuest()) {
+         return principal.getId().equals(employeeId);
       }
       return false;
    }
@@ -2,6 +2,7 @@ package com.backend.hotel_management.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -11,7 +12,7 @@ import com.backend.hotel_management.model.GuestPrincipal;
 import com.backend.hotel_management.repository.GuestRepository;
 
 @Service
-public class GuestDetailsService implements UserDetailsService {
+public class GuestDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
    @Autowired
    private GuestRepository guestRepository;
@@ -23,4 +24,15 @@ public class GuestDetailsService implements UserDetailsService {
       return new GuestPrincipal(guest);
    }
 
+   // Store a password hashed again after a successful sign-in, see PasswordHashingService.upgradeEncoding
+   @Override
+   public UserDetails updatePassword(UserDetails user, String newPassword) {
+      return guestRepository.findByEmail(user.getUsername())
+            .map(guest -> {
+               guest.setPassword(newPassword);
+               return (UserDetails) new GuestPrincipal(guestRepository.save(guest));
+            })
+            .orElse(user);
+   }
+
 }
@@ -1,21 +1,33 @@
 package com.backend.hotel_management.service;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import com.backend.hotel_management.dto.request.GuestLoginRequestDto;
 import com.backend.hotel_management.dto.request.GuestRequestDto;
 import com.backend.hotel_management.dto.response.GuestJwtResponseDto;
 import com.backend.hotel_management.dto.response.GuestResponseDto;
+import com.backend.hotel_management.event.BookingChangedEvent;
+import com.backend.hotel_management.exception.PasswordHashingBusyException;
 import com.backend.hotel_management.model.Booking;
 import com.backend.hotel_management.model.Guest;
+import com.backend.hotel_management.repository.BookingRepository;
 import com.backend.hotel_management.repository.GuestRepository;
+import com.backend.hotel_management.repository.KeysetPage;
+import com.backend.hotel_management.repository.KeysetRepository;
+import com.backend.hotel_management.repository.projection.GuestBookingIds;
+import com.backend.hotel_management.repository.projection.GuestRow;
 
 @Service
 public class GuestService {
@@ -27,11 +39,29 @@ public class GuestService {
    private AuthenticationManager authManager;
 
    @Autowired
-   private BCryptPasswordEncoder passwordEncoder;
+   private PasswordEncoder passwordEncoder;
 
    @Autowired
    private JwtService jwtService;
 
+   @Autowired
+   private PrincipalCache principalCache;
+
+   @Autowired
+   private ApplicationEventPublisher eventPublisher;
+
+   @Autowired
+   private KeysetRepository keysetRepository;
+
+   @Autowired
+   private BookingRepository bookingRepository;
+
+   // Guests whose booking ids are read with one query
+   private static final int ROW_CHUNK = 1000;
+
+   // Sort keys of the paged guests list besides id; each is indexed for (key, id) order
+   private static final Set<String> PAGE_SORT_KEYS = Set.of("fullName", "email");
+
    // Convert Request DTO to Entity
    public Guest convertRequestDtoToEntity(GuestRequestDto request) {
       Guest entity = new Guest();
@@ -61,18 +91,33 @@ public class GuestService {
       responseDto.setAddress(guest.getAddress());
       responseDto.setCity(guest.getCity());
 
-      // Extract booking IDs from the guest's bookings
-      List<Long> bookingIds = new ArrayList<>();
-      if (guest.getBookings() != null && !guest.getBookings().isEmpty()) {
-         bookingIds = guest.getBookings().stream()
-               .map(Booking::getId)
-               .collect(Collectors.toList());
-      }
+      // Booking ids come from a grouped query; loading the bookings collection would hydrate every booking
+      List<Long> bookingIds = guest.getId() == null ? new ArrayList<>()
+            : bookingRepository.findBookingIdsOfGuests(List.of(guest.getId())).stream()
+                  .findFirst().map(GuestBookingIds::ids).orElseGet(ArrayList::new);
       responseDto.setBookingIds(bookingIds);
 
       return responseDto;
    }
 
+   // Convert list rows to Response Dtos, reading the booking ids of ROW_CHUNK guests per query
+   private List<GuestResponseDto> convertRowsToResponseDtos(List<GuestRow> rows) {
+      List<GuestResponseDto> responseDtos = new ArrayList<>(rows.size());
+      for (int from = 0; from < rows.size(); from += ROW_CHUNK) {
+         List<GuestRow> chunk = rows.subList(from, Math.min(from + ROW_CHUNK, rows.size()));
+         Map<Long, List<Long>> bookingIds = new HashMap<>();
+         List<Long> guestIds = chunk.stream().map(GuestRow::id).toList();
+         for (GuestBookingIds row : bookingRepository.findBookingIdsOfGuests(guestIds)) {
+            bookingIds.put(row.guestId(), row.ids());
+         }
+         for (GuestRow row : chunk) {
+            responseDtos.add(new GuestResponseDto(row.id(), row.fullName(), row.email(), row.phoneNumber(),
+                  row.country(), row.address(), row.city(), bookingIds.getOrDefault(row.id(), new ArrayList<>())));
+         }
+      }
+      return responseDtos;
+   }
+
    // Convert List of Entities into List of Response Dtos
    public List<GuestResponseDto> convertEntityToResponseDto(List<Guest> guests) {
       return guests.stream()
@@ -88,9 +133,17 @@ public class GuestService {
    }
 
    // Get all Guests
+   // Every guest in id order; more than KeysetRepository.UNPAGED_LIMIT must be read in pages
    public List<GuestResponseDto> getAllGuests() {
-      List<Guest> guests = guestRepository.findAll();
-      return convertEntityToResponseDto(guests);
+      return convertRowsToResponseDtos(KeysetRepository.unpaged(
+            guestRepository.findAllRows(Limit.of(KeysetRepository.UNPAGED_LIMIT + 1))));
+   }
+
+   // One page of guests in sort order, continuing after cursor (null for the first page)
+   public KeysetPage<GuestResponseDto> getGuestPage(String sort, Integer limit, String cursor) {
+      KeysetPage<Long> ids = keysetRepository.findPageIds(Guest.class, PAGE_SORT_KEYS, sort, limit, cursor);
+      return ids.load(pageIds -> convertRowsToResponseDtos(guestRepository.findRowsByIdIn(pageIds)),
+            GuestResponseDto::getId);
    }
 
    // Get Guest by ID
@@ -118,6 +171,7 @@ public class GuestService {
       existingGuest.setCity(requestDto.getCity());
 
       Guest updatedGuest = guestRepository.save(existingGuest);
+      principalCache.invalidateGuest(id);
       return convertEntityToResponseDto(updatedGuest);
    }
 
@@ -134,13 +188,20 @@ public class GuestService {
          if (!passwordEncoder.matches(guestLoginRequest.getPassword(), guest.getPassword())) {
             throw new RuntimeException("Invalid password");
          }
+         // Rehash at the configured cost while the password is at hand
+         if (passwordEncoder.upgradeEncoding(guest.getPassword())) {
+            guest.setPassword(passwordEncoder.encode(guestLoginRequest.getPassword()));
+            guestRepository.save(guest);
+         }
 
          // Generate token
-         String token = jwtService.generateTokenForGuest(guestLoginRequest.getEmail());
+         String token = jwtService.generateTokenForGuest(guest.getId(), guest.getEmail());
 
          System.out.println("Guest login successful for: " + guest.getEmail());
          return new GuestJwtResponseDto(token, guest.getEmail());
 
+      } catch (PasswordHashingBusyException e) {
+         throw e; // answered with 503 by ApiExceptionHandler
       } catch (Exception e) {
          System.err.println("Guest login failed: " + e.getMessage());
          e.printStackTrace();
@@ -150,10 +211,12 @@ public class GuestService {
 
    // Delete Guest by ID
    public void deleteGuest(Long id) {
-      if (!guestRepository.existsById(id)) {
-         throw new RuntimeException("Guest not found with id: " + id);
-
-      }
-      guestRepository.deleteById(id);
+      Guest guest = guestRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("Guest not found with id: " + id));
+      // Bookings are removed with the guest (cascade), remember them for the availability index
+      List<Booking> bookings = guest.getBookings() != null ? new ArrayList<>(guest.getBookings()) : List.of();
+      guestRepository.delete(guest);
+      principalCache.invalidateGuest(id);
+      bookings.forEach(booking -> eventPublisher.publishEvent(BookingChangedEvent.deleted(booking)));
    }
 }
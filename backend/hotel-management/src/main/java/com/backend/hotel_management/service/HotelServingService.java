@@ -17,6 +17,9 @@ public class HotelServingService {
    @Autowired
    private HotelServingRepository hotelServingRepository;
 
+   @Autowired
+   private PricingEngine pricingEngine;
+
    // Convert Request DTO to Entity
    private HotelServing convertToEntity(HotelServingRequestDto requestDto) {
       HotelServing hotelServing = new HotelServing();
@@ -51,6 +54,7 @@ public class HotelServingService {
       }
       HotelServing hotelServing = convertToEntity(requestDto);
       HotelServing savedHotelServing = hotelServingRepository.save(hotelServing);
+      pricingEngine.reloadServiceRates();
       return convertToResponseDto(savedHotelServing);
    }
 
@@ -79,6 +83,7 @@ public class HotelServingService {
       existingHotelServing.setPricingType(requestDto.getPricingType());
 
       HotelServing updatedHotelServing = hotelServingRepository.save(existingHotelServing);
+      pricingEngine.reloadServiceRates();
       return convertToResponseDto(updatedHotelServing);
    }
 
@@ -88,6 +93,7 @@ public class HotelServingService {
          throw new RuntimeException("Hotel service not found with id: " + id);
       }
       hotelServingRepository.deleteById(id);
+      pricingEngine.reloadServiceRates();
    }
 
 }
\ No newline at end of file
@@ -0,0 +1,290 @@
+package com.backend.hotel_management.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyStore;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.crypto.SecretKey;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * The keys login tokens are signed and verified with.
+ *
+ * Keys come from the jwt_signing_key table (V8__jwt_signing_keys.sql), shared
+ * by every node, or from a local keystore of secret keys, one per alias. Each
+ * key has a kid that tokens carry in their header, so several keys verify at
+ * once and the signing key can be replaced without logging anyone out. Keys
+ * are decoded when they are loaded; signing and verifying only read the
+ * current snapshot.
+ *
+ * With the database, the first node to start creates a key and the keys are
+ * rotated every rotate-after: the new key signs from two refreshes later, when
+ * every node has loaded it, and the old ones verify until the tokens they
+ * signed have expired. With a keystore, rotation is adding an entry to the
+ * file on every node (it signs two refreshes after its creation date) and
+ * removing the old entry once its tokens have expired.
+ */
+@Service
+public class JwtKeyRing {
+
+   private static final Logger log = LoggerFactory.getLogger(JwtKeyRing.class);
+
+   // Least time between reloads for tokens naming a key this node does not know yet
+   private static final Duration UNKNOWN_KID_RELOAD_INTERVAL = Duration.ofSeconds(10);
+
+   private static final int SECRET_BYTES = 32;
+   private static final SecureRandom RANDOM = new SecureRandom();
+
+   // A decoded key; retiredAt is null while the key has no end
+   public record RingKey(String kid, SecretKey key, Instant activeFrom, Instant retiredAt) {
+
+      boolean canVerify(Instant now) {
+         return retiredAt == null || retiredAt.isAfter(now);
+      }
+
+      boolean canSign(Instant now) {
+         return !activeFrom.isAfter(now) && canVerify(now);
+      }
+   }
+
+   // Keys newest activeFrom first, and by kid
+   private record Ring(List<RingKey> keys, Map<String, RingKey> keysById) {
+   }
+
+   @Autowired
+   private JdbcTemplate jdbcTemplate;
+
+   @Autowired
+   private TransactionTemplate transactionTemplate;
+
+   // database or keystore
+   @Value("${hotel.security.jwt.keys.source:database}")
+   private String source;
+
+   @Value("${hotel.security.jwt.keys.refresh:PT1M}")
+   private Duration refresh;
+
+   // Zero turns automatic rotation off
+   @Value("${hotel.security.jwt.keys.rotate-after:P30D}")
+   private Duration rotateAfter;
+
+   @Value("${hotel.security.jwt.keys.keystore.path:}")
+   private String keystorePath;
+
+   @Value("${hotel.security.jwt.keys.keystore.password:}")
+   private String keystorePassword;
+
+   @Value("${hotel.security.jwt.keys.keystore.type:PKCS12}")
+   private String keystoreType;
+
+   private volatile Ring ring;
+   private final AtomicLong lastUnknownKidReload = new AtomicLong(
+         System.nanoTime() - UNKNOWN_KID_RELOAD_INTERVAL.toNanos());
+
+   @EventListener(ApplicationReadyEvent.class)
+   public void warmUp() {
+      ring();
+   }
+
+   @Scheduled(fixedDelayString = "${hotel.security.jwt.keys.refresh:PT1M}",
+         initialDelayString = "${hotel.security.jwt.keys.refresh:PT1M}")
+   public void refresh() {
+      try {
+         if (isDatabase() && !rotateAfter.isZero()) {
+            rotateIfDue();
+         }
+         reload();
+      } catch (RuntimeException e) {
+         log.error("Could not reload the JWT signing keys, keeping the current ones", e);
+      }
+   }
+
+   // The key new tokens are signed with
+   public RingKey signingKey() {
+      Instant now = Instant.now();
+      for (RingKey key : ring().keys()) {
+         if (key.canSign(now)) {
+            return key;
+         }
+      }
+      throw new IllegalStateException("No JWT signing key is active");
+   }
+
+   // The key a token naming kid is verified with, null if it is unknown or retired
+   public SecretKey verificationKey(String kid) {
+      RingKey key = kid == null ? null : ring().keysById().get(kid);
+      return key != null && key.canVerify(Instant.now()) ? key.key() : null;
+   }
+
+   /**
+    * Like verificationKey, but an unknown kid reloads the keys first, as
+    * another node may have started signing with a key this one has not loaded
+    * yet. Such reloads happen at most every UNKNOWN_KID_RELOAD_INTERVAL.
+    */
+   public SecretKey locate(String kid) {
+      SecretKey key = verificationKey(kid);
+      if (key == null && kid != null && !ring().keysById().containsKey(kid)) {
+         long now = System.nanoTime();
+         long last = lastUnknownKidReload.get();
+         if (now - last >= UNKNOWN_KID_RELOAD_INTERVAL.toNanos() && lastUnknownKidReload.compareAndSet(last, now)) {
+            try {
+               reload();
+            } catch (RuntimeException e) {
+               log.warn("Could not reload the JWT signing keys", e);
+            }
+            key = verificationKey(kid);
+         }
+      }
+      return key;
+   }
+
+   // Replace the keys; used by the loaders below, and directly for a fixed set of keys
+   void install(List<RingKey> keys) {
+      List<RingKey> sorted = new ArrayList<>(keys);
+      sorted.sort(Comparator.comparing(RingKey::activeFrom).reversed());
+      Map<String, RingKey> keysById = new HashMap<>();
+      sorted.forEach(key -> keysById.put(key.kid(), key));
+      ring = new Ring(List.copyOf(sorted), Map.copyOf(keysById));
+   }
+
+   // A key from its Base64 secret, which must be at least 256 bits
+   static RingKey decode(String kid, String secret, Instant activeFrom, Instant retiredAt) {
+      return new RingKey(kid, Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)), activeFrom, retiredAt);
+   }
+
+   private Ring ring() {
+      Ring current = ring;
+      if (current == null) {
+         synchronized (this) {
+            if (ring == null) {
+               if (isDatabase()) {
+                  createFirstKeyIfMissing();
+               }
+               reload();
+            }
+            current = ring;
+         }
+      }
+      return current;
+   }
+
+   private synchronized void reload() {
+      install(isDatabase() ? readDatabase() : readKeystore());
+   }
+
+   private boolean isDatabase() {
+      return !"keystore".equalsIgnoreCase(source);
+   }
+
+   // Two refreshes: by then every node has loaded a new key
+   private Duration activationDelay() {
+      return refresh.multipliedBy(2);
+   }
+
+   private List<RingKey> readDatabase() {
+      return jdbcTemplate.query("SELECT kid, secret, active_from, retired_at FROM jwt_signing_key "
+            + "WHERE retired_at IS NULL OR retired_at > now()",
+            (rs, rowNum) -> {
+               Timestamp retiredAt = rs.getTimestamp("retired_at");
+               return decode(rs.getString("kid"), rs.getString("secret"), rs.getTimestamp("active_from").toInstant(),
+                     retiredAt == null ? null : retiredAt.toInstant());
+            });
+   }
+
+   private List<RingKey> readKeystore() {
+      if (keystorePath.isBlank()) {
+         throw new IllegalStateException("hotel.security.jwt.keys.keystore.path is not set");
+      }
+      char[] password = keystorePassword.toCharArray();
+      try (InputStream in = Files.newInputStream(Path.of(keystorePath))) {
+         KeyStore keyStore = KeyStore.getInstance(keystoreType);
+         keyStore.load(in, password);
+         Map<String, SecretKey> secrets = new HashMap<>();
+         Map<String, Instant> created = new HashMap<>();
+         for (String alias : Collections.list(keyStore.aliases())) {
+            if (keyStore.entryInstanceOf(alias, KeyStore.SecretKeyEntry.class)) {
+               Key key = keyStore.getKey(alias, password);
+               secrets.put(alias, Keys.hmacShaKeyFor(key.getEncoded()));
+               created.put(alias, keyStore.getCreationDate(alias).toInstant());
+            }
+         }
+         // The oldest entry signs at once, so a new keystore works without waiting
+         Instant oldest = created.values().stream().min(Comparator.naturalOrder()).orElse(null);
+         List<RingKey> keys = new ArrayList<>();
+         created.forEach((alias, at) -> keys.add(new RingKey(alias, secrets.get(alias),
+               at.equals(oldest) ? at : at.plus(activationDelay()), null)));
+         return keys;
+      } catch (IOException | GeneralSecurityException e) {
+         throw new IllegalStateException("Could not read the JWT signing keys from " + keystorePath, e);
+      }
+   }
+
+   // The table lock keeps nodes starting together from each creating a key
+   private void createFirstKeyIfMissing() {
+      transactionTemplate.executeWithoutResult(status -> {
+         jdbcTemplate.execute("LOCK TABLE jwt_signing_key IN EXCLUSIVE MODE");
+         Integer signing = jdbcTemplate.queryForObject("SELECT count(*) FROM jwt_signing_key "
+               + "WHERE active_from <= now() AND (retired_at IS NULL OR retired_at > now())", Integer.class);
+         if (signing == 0) {
+            String kid = insertKey(Instant.now());
+            log.info("Created JWT signing key {}", kid);
+         }
+      });
+   }
+
+   private void rotateIfDue() {
+      transactionTemplate.executeWithoutResult(status -> {
+         jdbcTemplate.execute("LOCK TABLE jwt_signing_key IN EXCLUSIVE MODE");
+         Timestamp newest = jdbcTemplate.queryForObject(
+               "SELECT max(created_at) FROM jwt_signing_key WHERE retired_at IS NULL", Timestamp.class);
+         if (newest != null && newest.toInstant().plus(rotateAfter).isAfter(Instant.now())) {
+            return;
+         }
+         Instant activeFrom = Instant.now().plus(activationDelay());
+         // The current keys sign until activeFrom; their tokens stay valid for their whole lifetime
+         jdbcTemplate.update("UPDATE jwt_signing_key SET retired_at = ? WHERE retired_at IS NULL",
+               Timestamp.from(activeFrom.plus(JwtService.TOKEN_LIFETIME)));
+         String kid = insertKey(activeFrom);
+         log.info("Rotated JWT signing keys: {} signs from {}", kid, activeFrom);
+      });
+   }
+
+   private String insertKey(Instant activeFrom) {
+      byte[] secret = new byte[SECRET_BYTES];
+      RANDOM.nextBytes(secret);
+      String kid = UUID.randomUUID().toString();
+      jdbcTemplate.update("INSERT INTO jwt_signing_key (kid, secret, active_from) VALUES (?, ?, ?)", kid,
+            Base64.getEncoder().encodeToString(secret), Timestamp.from(activeFrom));
+      return kid;
+   }
+}
@@ -1,106 +1,179 @@
 package com.backend.hotel_management.service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
-
-import javax.crypto.KeyGenerator;
-import javax.crypto.SecretKey;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import com.backend.hotel_management.enums.EmployeeRole;
+import com.backend.hotel_management.service.JwtKeyRing.RingKey;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
-
+import io.jsonwebtoken.LocatorAdapter;
+
+/**
+ * Issues and verifies the login tokens, with the keys of JwtKeyRing; a token
+ * names its key in the kid header.
+ *
+ * A token is verified (signature, expiry) and its claims read in a single
+ * parse. Verified tokens are remembered by the SHA-256 of the token until
+ * their own expiry, so the requests that follow a login cost a hash and a map
+ * lookup instead of an HMAC check and a JSON parse. The cache holds at most
+ * max-entries tokens; beyond that new tokens are verified but not remembered
+ * until expired ones are purged.
+ */
 @Service
 public class JwtService {
 
-   private String secretkey = "";
+   public static final Duration TOKEN_LIFETIME = Duration.ofHours(8);
 
-   public JwtService() {
-      try {
-         KeyGenerator keyGen = KeyGenerator.getInstance("HmacSHA256");
-         SecretKey sk = keyGen.generateKey();
-         secretkey = Base64.getEncoder().encodeToString(sk.getEncoded());
-      } catch (NoSuchAlgorithmException e) {
-         throw new RuntimeException(e);
+   // The claims the application reads from a verified token; userId is the employee or guest id
+   public record VerifiedToken(String subject, String role, Long userId, String keyId, Instant expiresAt) {
+
+      public boolean isExpired(Instant now) {
+         return !expiresAt.isAfter(now);
       }
    }
 
-   public String generateToken(String email, EmployeeRole role) {
+   private final JwtKeyRing keyRing;
+   // Thread-safe and immutable, so built once; finds the key by the token's kid
+   private final JwtParser parser;
+
+   private final int maxCachedTokens;
+   // SHA-256 of the token (Base64) -> its verified claims
+   private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+
+   public JwtService(JwtKeyRing keyRing,
+         @Value("${hotel.security.jwt.cache.max-entries:10000}") int maxCachedTokens) {
+      this.keyRing = keyRing;
+      parser = Jwts.parser()
+            .keyLocator(new LocatorAdapter<Key>() {
+               @Override
+               protected Key locate(JwsHeader header) {
+                  return keyRing.locate(header.getKeyId());
+               }
+            })
+            .build();
+      this.maxCachedTokens = maxCachedTokens;
+   }
+
+   public String generateToken(Long employeeId, String email, EmployeeRole role) {
       Map<String, Object> claims = new HashMap<>();
       claims.put("role", role.name());
+      claims.put("uid", employeeId);
 
+      RingKey signingKey = keyRing.signingKey();
       return Jwts.builder()
+            .header()
+            .keyId(signingKey.kid())
+            .and()
             .claims()
             .add(claims)
             .subject(email)
             .issuedAt(new Date(System.currentTimeMillis()))
-            .expiration(new Date(System.currentTimeMillis() + 60 * 60 * 1000 * 8)) // 8 hours
+            .expiration(new Date(System.currentTimeMillis() + TOKEN_LIFETIME.toMillis()))
             .and()
-            .signWith(getKey())
+            .signWith(signingKey.key())
             .compact();
    }
 
-   public String generateTokenForGuest(String email) {
+   public String generateTokenForGuest(Long guestId, String email) {
       Map<String, Object> claims = new HashMap<>();
       claims.put("role", "ROLE_GUEST");
+      claims.put("uid", guestId);
 
+      RingKey signingKey = keyRing.signingKey();
       return Jwts.builder()
+            .header()
+            .keyId(signingKey.kid())
+            .and()
             .claims()
             .add(claims)
             .subject(email)
             .issuedAt(new Date(System.currentTimeMillis()))
-            .expiration(new Date(System.currentTimeMillis() + 60 * 60 * 1000 * 8)) // 8 hours
+            .expiration(new Date(System.currentTimeMillis() + TOKEN_LIFETIME.toMillis()))
             .and()
-            .signWith(getKey())
+            .signWith(signingKey.key())
             .compact();
    }
 
-   private SecretKey getKey() {
-      byte[] keyBytes = Decoders.BASE64.decode(secretkey);
-      return Keys.hmacShaKeyFor(keyBytes);
+   /**
+    * The claims of a valid token, from the cache when it was verified before.
+    * Throws the JwtException of the parser (ExpiredJwtException,
+    * SignatureException, ...) when the token is not valid.
+    */
+   public VerifiedToken verify(String token) {
+      String hash = hash(token);
+      VerifiedToken verified = verifiedTokens.get(hash);
+      if (verified != null) {
+         if (!verified.isExpired(Instant.now()) && keyRing.verificationKey(verified.keyId()) != null) {
+            return verified;
+         }
+         verifiedTokens.remove(hash); // parse again below for the parser's exception
+      }
+      verified = parse(token);
+      if (verifiedTokens.size() >= maxCachedTokens) {
+         purgeExpired();
+      }
+      if (verifiedTokens.size() < maxCachedTokens) {
+         verifiedTokens.put(hash, verified);
+      }
+      return verified;
    }
 
-   public String extractUserName(String token) {
-      return extractClaim(token, Claims::getSubject);
+   // Full verification, bypassing the cache
+   VerifiedToken parse(String token) {
+      Jws<Claims> jws = parser.parseSignedClaims(token);
+      Claims claims = jws.getPayload();
+      return new VerifiedToken(claims.getSubject(), claims.get("role", String.class),
+            claims.get("uid", Long.class), jws.getHeader().getKeyId(), claims.getExpiration().toInstant());
    }
 
-   public String extractRole(String token) {
-      return extractClaim(token, claims -> claims.get("role", String.class));
+   public String extractUserName(String token) {
+      return verify(token).subject();
    }
 
-   private <T> T extractClaim(String token, Function<Claims, T> claimResolver) {
-      final Claims claims = extractAllClaims(token);
-      return claimResolver.apply(claims);
+   public String extractRole(String token) {
+      return verify(token).role();
    }
 
-   private Claims extractAllClaims(String token) {
-      return Jwts.parser()
-            .verifyWith(getKey())
-            .build()
-            .parseSignedClaims(token)
-            .getPayload();
+   public boolean validateToken(String token, UserDetails userDetails) {
+      return isValidFor(verify(token), userDetails);
    }
 
-   public boolean validateToken(String token, UserDetails userDetails) {
-      final String userName = extractUserName(token);
-      return (userName.equals(userDetails.getUsername()) && !isTokenExpired(token));
+   public boolean isValidFor(VerifiedToken verified, UserDetails userDetails) {
+      return verified.subject().equals(userDetails.getUsername()) && !verified.isExpired(Instant.now());
    }
 
-   private boolean isTokenExpired(String token) {
-      return extractExpiration(token).before(new Date());
+   // Drop cached tokens past their expiry
+   @Scheduled(fixedDelay = 300000)
+   public void purgeExpired() {
+      Instant now = Instant.now();
+      verifiedTokens.values().removeIf(verified -> verified.isExpired(now));
    }
 
-   private Date extractExpiration(String token) {
-      return extractClaim(token, Claims::getExpiration);
+   private static String hash(String token) {
+      try {
+         byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+         return Base64.getEncoder().encodeToString(digest);
+      } catch (NoSuchAlgorithmException e) {
+         throw new IllegalStateException(e);
+      }
    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,146 @@
+package com.backend.hotel_management.service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.backend.hotel_management.exception.LoginThrottledException;
+import com.backend.hotel_management.exception.PasswordHashingBusyException;
+
+/**
+ * Limits failed sign-ins per account and per client address.
+ *
+ * Each key keeps the times of its recent failures in a sliding window; once it
+ * has max failures within the window, sign-ins for it are refused with
+ * LoginThrottledException (429) before any password is hashed, until the
+ * oldest failure leaves the window. A successful sign-in clears the account's
+ * failures. Sign-ins refused for load (PasswordHashingBusyException) do not
+ * count as failures. Booking applications naming an existing guest with the
+ * wrong password count as failed sign-ins too.
+ *
+ * The client address is the request's remote address, which Tomcat takes from
+ * X-Forwarded-For when the request comes through a trusted proxy
+ * (server.tomcat.remoteip.internal-proxies); otherwise every client behind the
+ * load balancer would share one address window.
+ */
+@Service
+public class LoginThrottle {
+
+   @Value("${hotel.security.login.window:PT15M}")
+   private Duration window;
+
+   @Value("${hotel.security.login.max-failures-per-account:10}")
+   private int maxFailuresPerAccount;
+
+   @Value("${hotel.security.login.max-failures-per-address:50}")
+   private int maxFailuresPerAddress;
+
+   // Keys tracked at most; beyond that new keys are not tracked until idle ones are purged
+   @Value("${hotel.security.login.max-tracked:100000}")
+   private int maxTracked;
+
+   // Failure times (nanoTime), oldest first, at most max of them; each guarded by itself
+   private final Map<String, ArrayDeque<Long>> accountFailures = new ConcurrentHashMap<>();
+   private final Map<String, ArrayDeque<Long>> addressFailures = new ConcurrentHashMap<>();
+
+   // Run a sign-in for account from address, unless either is throttled
+   public <T> T attempt(String account, String address, Supplier<T> login) {
+      checkAllowed(account, address);
+      T result;
+      try {
+         result = login.get();
+      } catch (PasswordHashingBusyException e) {
+         throw e;
+      } catch (RuntimeException e) {
+         recordFailure(account, address);
+         throw e;
+      }
+      accountFailures.remove(accountKey(account));
+      return result;
+   }
+
+   // Refuse a password check for account from address while either is throttled
+   public void checkAllowed(String account, String address) {
+      long now = System.nanoTime();
+      long waitNanos = Math.max(waitNanos(accountFailures.get(accountKey(account)), maxFailuresPerAccount, now),
+            address == null ? 0 : waitNanos(addressFailures.get(address), maxFailuresPerAddress, now));
+      if (waitNanos > 0) {
+         throw new LoginThrottledException(Duration.ofNanos(waitNanos));
+      }
+   }
+
+   // Count a wrong password for account from address, for checks made outside attempt
+   public void recordFailure(String account, String address) {
+      long failedAt = System.nanoTime();
+      record(accountFailures, accountKey(account), maxFailuresPerAccount, failedAt);
+      if (address != null) {
+         record(addressFailures, address, maxFailuresPerAddress, failedAt);
+      }
+   }
+
+   // Forget keys whose failures have all left the window
+   @Scheduled(fixedDelay = 60000)
+   public void purgeIdle() {
+      long now = System.nanoTime();
+      purge(accountFailures, now);
+      purge(addressFailures, now);
+   }
+
+   private static String accountKey(String account) {
+      return account == null ? "" : account.trim().toLowerCase(Locale.ROOT);
+   }
+
+   // How long until failures drops below max in the window, 0 if it already is
+   private long waitNanos(ArrayDeque<Long> failures, int max, long now) {
+      if (failures == null) {
+         return 0;
+      }
+      synchronized (failures) {
+         expire(failures, now);
+         return failures.size() < max ? 0 : failures.peekFirst() + window.toNanos() - now;
+      }
+   }
+
+   private void record(Map<String, ArrayDeque<Long>> failuresByKey, String key, int max, long now) {
+      ArrayDeque<Long> failures = failuresByKey.get(key);
+      if (failures == null) {
+         if (failuresByKey.size() >= maxTracked) {
+            purge(failuresByKey, now);
+            if (failuresByKey.size() >= maxTracked) {
+               return;
+            }
+         }
+         failures = failuresByKey.computeIfAbsent(key, k -> new ArrayDeque<>());
+      }
+      synchronized (failures) {
+         expire(failures, now);
+         failures.addLast(now);
+         // Only the last max failures can decide a wait
+         while (failures.size() > max) {
+            failures.removeFirst();
+         }
+      }
+   }
+
+   private void expire(ArrayDeque<Long> failures, long now) {
+      while (!failures.isEmpty() && now - failures.peekFirst() >= window.toNanos()) {
+         failures.removeFirst();
+      }
+   }
+
+   private void purge(Map<String, ArrayDeque<Long>> failuresByKey, long now) {
+      failuresByKey.values().removeIf(failures -> {
+         synchronized (failures) {
+            expire(failures, now);
+            return failures.isEmpty();
+         }
+      });
+   }
+}
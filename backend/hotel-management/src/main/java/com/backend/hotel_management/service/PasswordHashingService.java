@@ -0,0 +1,138 @@
+package com.backend.hotel_management.service;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import com.backend.hotel_management.exception.PasswordHashingBusyException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * The application's PasswordEncoder: BCrypt, run on a few dedicated threads.
+ *
+ * A BCrypt hash is deliberately CPU-heavy, so hashing on request threads lets
+ * a burst of sign-ins take every Tomcat worker. Here at most one hash per
+ * thread runs at once and at most queue-capacity wait; any more are refused at
+ * once with PasswordHashingBusyException (503), as are hashes that waited
+ * longer than max-wait, and the rest of the API keeps its threads.
+ *
+ * Hashes made with another cost than the configured one report
+ * upgradeEncoding, so they are replaced at the next successful sign-in.
+ */
+@Service
+public class PasswordHashingService implements PasswordEncoder {
+
+   // $2a$, $2b$ or $2y$, then the two-digit cost
+   private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d\\d)\\$");
+
+   @Value("${hotel.security.bcrypt.cost:12}")
+   private int cost;
+
+   // 0: one per core
+   @Value("${hotel.security.hashing.threads:0}")
+   private int threads;
+
+   // 0: four per thread
+   @Value("${hotel.security.hashing.queue-capacity:0}")
+   private int queueCapacity;
+
+   @Value("${hotel.security.hashing.max-wait:PT3S}")
+   private Duration maxWait;
+
+   private BCryptPasswordEncoder bcrypt;
+   private ThreadPoolExecutor executor;
+
+   @PostConstruct
+   public void start() {
+      bcrypt = new BCryptPasswordEncoder(cost);
+      int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+      executor = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity > 0 ? queueCapacity : 4 * size),
+            Thread.ofPlatform().name("password-hashing-", 0).daemon().factory(),
+            new ThreadPoolExecutor.AbortPolicy());
+   }
+
+   @PreDestroy
+   public void stop() {
+      executor.shutdownNow();
+   }
+
+   @Override
+   public String encode(CharSequence rawPassword) {
+      return run(() -> bcrypt.encode(rawPassword));
+   }
+
+   @Override
+   public boolean matches(CharSequence rawPassword, String encodedPassword) {
+      return run(() -> bcrypt.matches(rawPassword, encodedPassword));
+   }
+
+   // Like encode, without waiting; fails with PasswordHashingBusyException when the queue is full
+   public CompletableFuture<String> encodeAsync(CharSequence rawPassword) {
+      return submit(() -> bcrypt.encode(rawPassword));
+   }
+
+   // Like matches, without waiting; fails with PasswordHashingBusyException when the queue is full
+   public CompletableFuture<Boolean> matchesAsync(CharSequence rawPassword, String encodedPassword) {
+      return submit(() -> bcrypt.matches(rawPassword, encodedPassword));
+   }
+
+   // Whether the hash was made with another cost than the configured one
+   @Override
+   public boolean upgradeEncoding(String encodedPassword) {
+      if (encodedPassword == null) {
+         return false;
+      }
+      Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+      return matcher.find() && Integer.parseInt(matcher.group(1)) != cost;
+   }
+
+   private <T> CompletableFuture<T> submit(Supplier<T> hashing) {
+      try {
+         return CompletableFuture.supplyAsync(hashing, executor);
+      } catch (RejectedExecutionException e) {
+         return CompletableFuture.failedFuture(new PasswordHashingBusyException());
+      }
+   }
+
+   private <T> T run(Callable<T> hashing) {
+      Future<T> future;
+      try {
+         future = executor.submit(hashing);
+      } catch (RejectedExecutionException e) {
+         throw new PasswordHashingBusyException();
+      }
+      try {
+         return future.get(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+      } catch (TimeoutException e) {
+         future.cancel(true); // a hash still in the queue is dropped
+         throw new PasswordHashingBusyException();
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         future.cancel(true);
+         throw new PasswordHashingBusyException();
+      } catch (ExecutionException e) {
+         if (e.getCause() instanceof RuntimeException cause) {
+            throw cause;
+         }
+         throw new IllegalStateException(e.getCause());
+      }
+   }
+}
@@ -0,0 +1,280 @@
+package com.backend.hotel_management.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.backend.hotel_management.enums.RoomType;
+import com.backend.hotel_management.enums.ServicePricingType;
+import com.backend.hotel_management.model.Booking;
+import com.backend.hotel_management.model.HotelServing;
+import com.backend.hotel_management.model.Room;
+import com.backend.hotel_management.repository.HotelServingRepository;
+import com.backend.hotel_management.repository.RoomRepository;
+import com.backend.hotel_management.repository.projection.RoomTypeRow;
+
+/**
+ * The one place booking prices are calculated.
+ *
+ * Room-type rates and HotelServing rates are compiled into immutable tables of
+ * whole cents, so a quote is plain long arithmetic over arrays: no BigDecimal,
+ * no boxing beyond what the caller's collections already hold, no SQL. The
+ * type of every room is cached too, so quoting a specific room needs no query.
+ * Convert to money only at the edge with toMoney().
+ *
+ * Pricing rules: rooms are charged per night, PER_NIGHT services per night and
+ * unit, PER_HOUR and PER_ORDER services per unit. A service without a quantity
+ * counts once; unknown service ids are ignored, as findAllById would.
+ */
+@Component
+public class PricingEngine {
+
+   private static final Logger log = LoggerFactory.getLogger(PricingEngine.class);
+
+   // Minimum time between reloads triggered by an unknown service id
+   private static final long MISS_RELOAD_INTERVAL_NANOS = 60_000_000_000L;
+
+   private static final long[] ROOM_RATE_CENTS = compileRoomRates();
+
+   @Autowired
+   private HotelServingRepository hotelServingRepository;
+
+   @Autowired
+   private RoomRepository roomRepository;
+
+   private volatile ServiceRates serviceRates;
+   private volatile long lastMissReload = System.nanoTime() - MISS_RELOAD_INTERVAL_NANOS;
+
+   // Room id -> room type, so quotes for a specific room need no query
+   private volatile Map<Long, RoomType> roomTypes;
+   private volatile long lastRoomMissReload = System.nanoTime() - MISS_RELOAD_INTERVAL_NANOS;
+
+   @EventListener(ApplicationReadyEvent.class)
+   public void warmUp() {
+      reloadServiceRates();
+      reloadRoomTypes();
+   }
+
+   // Reload the room type cache; call after any Room change
+   public void reloadRoomTypes() {
+      Map<Long, RoomType> fresh = new HashMap<>();
+      for (RoomTypeRow row : roomRepository.findAllRoomTypes()) {
+         fresh.put(row.roomId(), row.roomType());
+      }
+      roomTypes = Map.copyOf(fresh);
+   }
+
+   // Type of a room, or null if there is no such room
+   public RoomType roomTypeOf(Long roomId) {
+      Map<Long, RoomType> types = roomTypes;
+      if (types == null) {
+         synchronized (this) {
+            if (roomTypes == null) {
+               reloadRoomTypes();
+            }
+            types = roomTypes;
+         }
+      }
+      RoomType roomType = types.get(roomId);
+      if (roomType == null) {
+         long now = System.nanoTime();
+         synchronized (this) {
+            if (now - lastRoomMissReload >= MISS_RELOAD_INTERVAL_NANOS) {
+               lastRoomMissReload = now;
+               reloadRoomTypes();
+            }
+            roomType = roomTypes.get(roomId);
+         }
+      }
+      return roomType;
+   }
+
+   // Recompile the service table; call after any HotelServing change
+   public void reloadServiceRates() {
+      List<HotelServing> services = new ArrayList<>(hotelServingRepository.findAll());
+      services.sort(Comparator.comparing(HotelServing::getId));
+      serviceRates = new ServiceRates(services);
+      log.debug("Pricing engine compiled {} service rates", services.size());
+   }
+
+   // Chargeable nights: whole 24-hour periods between check-in and check-out
+   public static long nights(LocalDateTime checkIn, LocalDateTime checkOut) {
+      return checkIn.until(checkOut, ChronoUnit.DAYS);
+   }
+
+   public long roomRateCents(RoomType roomType) {
+      return ROOM_RATE_CENTS[roomType == null ? 0 : roomType.ordinal()];
+   }
+
+   public long roomCents(RoomType roomType, long nights) {
+      return Math.multiplyExact(roomRateCents(roomType), nights);
+   }
+
+   // Services selected by id, with quantities keyed by service id
+   public long servicesCents(List<Long> serviceIds, Map<Long, Integer> quantities, long nights) {
+      return Math.addExact(sumServices(serviceIds, quantities, nights, true),
+            sumServices(serviceIds, quantities, 1, false));
+   }
+
+   // Charge of the selected PER_NIGHT services for a single night
+   public long nightlyServicesCents(List<Long> serviceIds, Map<Long, Integer> quantities) {
+      return sumServices(serviceIds, quantities, 1, true);
+   }
+
+   // Charge of the selected PER_ORDER and PER_HOUR services, once per stay
+   public long oneTimeServicesCents(List<Long> serviceIds, Map<Long, Integer> quantities) {
+      return sumServices(serviceIds, quantities, 1, false);
+   }
+
+   private long sumServices(List<Long> serviceIds, Map<Long, Integer> quantities, long nights, boolean perNight) {
+      if (serviceIds == null) {
+         return 0;
+      }
+      ServiceRates rates = rates();
+      long total = 0;
+      for (int i = 0; i < serviceIds.size(); i++) {
+         Long serviceId = serviceIds.get(i);
+         if (serviceId == null || serviceIds.indexOf(serviceId) < i) {
+            continue; // selected twice counts once
+         }
+         int slot = rates.slotOf(serviceId);
+         if (slot < 0) {
+            rates = reloadOnMiss(rates);
+            slot = rates.slotOf(serviceId);
+         }
+         if (slot >= 0 && rates.perNight[slot] == perNight) {
+            total = Math.addExact(total, rates.chargeCents(slot, quantityOf(quantities, serviceId), nights));
+         }
+      }
+      return total;
+   }
+
+   public long totalCents(RoomType roomType, LocalDateTime checkIn, LocalDateTime checkOut,
+         List<Long> serviceIds, Map<Long, Integer> quantities) {
+      long nights = nights(checkIn, checkOut);
+      return Math.addExact(roomCents(roomType, nights), servicesCents(serviceIds, quantities, nights));
+   }
+
+   // Room charge of a stored booking at current rates
+   public long roomCents(Booking booking) {
+      Room room = booking.getRoom();
+      return roomCents(room != null ? room.getRoomType() : null,
+            nights(booking.getCheckInDateTime(), booking.getCheckOutDateTime()));
+   }
+
+   // Services charge of a stored booking at current rates
+   public long servicesCents(Booking booking) {
+      List<HotelServing> services = booking.getSelectedServices();
+      if (services == null || services.isEmpty()) {
+         return 0;
+      }
+      ServiceRates rates = rates();
+      long nights = nights(booking.getCheckInDateTime(), booking.getCheckOutDateTime());
+      long total = 0;
+      for (int i = 0; i < services.size(); i++) {
+         int slot = rates.slotOf(services.get(i).getId());
+         if (slot >= 0) {
+            long quantity = quantityOf(booking.getServiceQuantities(), services.get(i).getId());
+            total = Math.addExact(total, rates.chargeCents(slot, quantity, nights));
+         }
+      }
+      return total;
+   }
+
+   public static BigDecimal toMoney(long cents) {
+      return BigDecimal.valueOf(cents, 2);
+   }
+
+   public static long toCents(BigDecimal amount) {
+      return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+   }
+
+   private static long quantityOf(Map<Long, Integer> quantities, Long serviceId) {
+      Integer quantity = quantities != null ? quantities.get(serviceId) : null;
+      return quantity != null ? quantity : 1;
+   }
+
+   private ServiceRates rates() {
+      ServiceRates rates = serviceRates;
+      if (rates == null) {
+         synchronized (this) {
+            if (serviceRates == null) {
+               reloadServiceRates();
+            }
+            rates = serviceRates;
+         }
+      }
+      return rates;
+   }
+
+   // A service created through another instance; pick it up, but don't let bad ids hammer the database
+   private ServiceRates reloadOnMiss(ServiceRates current) {
+      long now = System.nanoTime();
+      if (now - lastMissReload < MISS_RELOAD_INTERVAL_NANOS) {
+         return current;
+      }
+      synchronized (this) {
+         if (serviceRates == current && now - lastMissReload >= MISS_RELOAD_INTERVAL_NANOS) {
+            lastMissReload = now;
+            reloadServiceRates();
+         }
+         return serviceRates;
+      }
+   }
+
+   private static long[] compileRoomRates() {
+      RoomType[] types = RoomType.values();
+      long[] rates = new long[types.length];
+      for (RoomType type : types) {
+         rates[type.ordinal()] = toCents(Room.getPriceByRoomType(type));
+      }
+      return rates;
+   }
+
+   /**
+    * Service rates sorted by id, in parallel arrays.
+    */
+   private static final class ServiceRates {
+
+      private final long[] ids;
+      private final long[] cents;
+      private final boolean[] perNight;
+
+      ServiceRates(List<HotelServing> sortedServices) {
+         int size = sortedServices.size();
+         ids = new long[size];
+         cents = new long[size];
+         perNight = new boolean[size];
+         for (int i = 0; i < size; i++) {
+            HotelServing service = sortedServices.get(i);
+            ids[i] = service.getId();
+            cents[i] = toCents(service.getPrice());
+            perNight[i] = service.getPricingType() == ServicePricingType.PER_NIGHT;
+         }
+      }
+
+      int slotOf(long serviceId) {
+         int slot = Arrays.binarySearch(ids, serviceId);
+         return slot >= 0 ? slot : -1;
+      }
+
+      long chargeCents(int slot, long quantity, long nights) {
+         long units = perNight[slot] ? Math.multiplyExact(quantity, nights) : quantity;
+         return Math.multiplyExact(cents[slot], units);
+      }
+   }
+}
@@ -0,0 +1,96 @@
+package com.backend.hotel_management.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.backend.hotel_management.model.TokenPrincipal;
+import com.backend.hotel_management.repository.EmployeeRepository;
+import com.backend.hotel_management.repository.GuestRepository;
+import com.backend.hotel_management.repository.projection.GuestRow;
+
+/**
+ * The current account behind a token, remembered for a while.
+ *
+ * A request's principal comes from its token's claims; this only confirms the
+ * account still exists and picks up its current email and role, so a deleted
+ * or changed account stops working before its token expires. Each account is
+ * read from the database at most once per ttl, and updating or deleting it
+ * evicts it at once. Bounded like the verified-token cache in JwtService.
+ */
+@Service
+public class PrincipalCache {
+
+   private record Key(boolean guest, Long id) {
+   }
+
+   // account is null when there is no such account any more
+   private record Entry(TokenPrincipal account, long expiresAt) {
+   }
+
+   @Autowired
+   private EmployeeRepository employeeRepository;
+
+   @Autowired
+   private GuestRepository guestRepository;
+
+   @Value("${hotel.security.principals.cache.max-entries:10000}")
+   private int maxEntries;
+
+   @Value("${hotel.security.principals.cache.ttl:PT5M}")
+   private Duration ttl;
+
+   private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+   // The account as it is now, empty if it was deleted
+   public Optional<TokenPrincipal> find(boolean guest, Long id) {
+      Key key = new Key(guest, id);
+      long now = System.nanoTime();
+      Entry entry = entries.get(key);
+      if (entry == null || now - entry.expiresAt() >= 0) {
+         entry = new Entry(guest ? loadGuest(id) : loadEmployee(id), now + ttl.toNanos());
+         if (entries.size() >= maxEntries) {
+            purgeExpired();
+         }
+         if (entries.size() < maxEntries) {
+            entries.put(key, entry);
+         }
+      }
+      return Optional.ofNullable(entry.account());
+   }
+
+   public void invalidateEmployee(Long id) {
+      entries.remove(new Key(false, id));
+   }
+
+   public void invalidateGuest(Long id) {
+      entries.remove(new Key(true, id));
+   }
+
+   @Scheduled(fixedDelay = 300000)
+   public void purgeExpired() {
+      long now = System.nanoTime();
+      entries.values().removeIf(entry -> now - entry.expiresAt() >= 0);
+   }
+
+   private TokenPrincipal loadEmployee(Long id) {
+      return employeeRepository.findById(id)
+            .map(employee -> new TokenPrincipal(employee.getId(), employee.getEmail(),
+                  TokenPrincipal.authorityOf(employee.getRole().name())))
+            .orElse(null);
+   }
+
+   // The guest's row only, not the entity with its bookings and complaints
+   private TokenPrincipal loadGuest(Long id) {
+      List<GuestRow> rows = guestRepository.findRowsByIdIn(List.of(id));
+      return rows.isEmpty() ? null
+            : new TokenPrincipal(id, rows.get(0).email(), TokenPrincipal.GUEST_AUTHORITY);
+   }
+}
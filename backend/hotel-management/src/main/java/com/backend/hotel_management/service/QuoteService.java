@@ -0,0 +1,87 @@
+package com.backend.hotel_management.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.backend.hotel_management.dto.request.QuoteRequestDto;
+import com.backend.hotel_management.dto.response.QuoteNightDto;
+import com.backend.hotel_management.dto.response.QuoteResponseDto;
+import com.backend.hotel_management.enums.RoomType;
+
+@Service
+public class QuoteService {
+
+   // Smaller batches are priced on the request thread; splitting them costs more than it saves
+   private static final int PARALLEL_THRESHOLD = 32;
+
+   private static final long MAX_NIGHTS = 366;
+
+   @Autowired
+   private PricingEngine pricingEngine;
+
+   // Price a stay without booking it
+   public QuoteResponseDto quote(QuoteRequestDto request) {
+      return price(request, resolveRoomType(request));
+   }
+
+   // Price many stays at once; a stay that can't be priced gets an error instead of failing the batch
+   public List<QuoteResponseDto> quoteBatch(List<QuoteRequestDto> requests) {
+      var stream = requests.size() >= PARALLEL_THRESHOLD ? requests.parallelStream() : requests.stream();
+      return stream.map(this::quoteOrError).toList();
+   }
+
+   private QuoteResponseDto quoteOrError(QuoteRequestDto request) {
+      try {
+         return quote(request);
+      } catch (RuntimeException e) {
+         return QuoteResponseDto.failed(request.getRoomId(), request.getRoomType(), e.getMessage());
+      }
+   }
+
+   private RoomType resolveRoomType(QuoteRequestDto request) {
+      if (request.getCheckInDateTime().isAfter(request.getCheckOutDateTime())) {
+         throw new RuntimeException("Check-in date cannot be after check-out date");
+      }
+      if (PricingEngine.nights(request.getCheckInDateTime(), request.getCheckOutDateTime()) > MAX_NIGHTS) {
+         throw new RuntimeException("Stays longer than " + MAX_NIGHTS + " nights cannot be quoted");
+      }
+      if (request.getRoomId() != null) {
+         RoomType roomType = pricingEngine.roomTypeOf(request.getRoomId());
+         if (roomType == null) {
+            throw new RuntimeException("Room not found with id: " + request.getRoomId());
+         }
+         return roomType;
+      }
+      if (request.getRoomType() == null) {
+         throw new RuntimeException("Either roomId or roomType is required");
+      }
+      return request.getRoomType();
+   }
+
+   private QuoteResponseDto price(QuoteRequestDto request, RoomType roomType) {
+      long nights = PricingEngine.nights(request.getCheckInDateTime(), request.getCheckOutDateTime());
+      long roomRate = pricingEngine.roomRateCents(roomType);
+      long nightlyServices = pricingEngine.nightlyServicesCents(request.getHotelServiceIds(),
+            request.getServiceQuantities());
+      long oneTimeServices = pricingEngine.oneTimeServicesCents(request.getHotelServiceIds(),
+            request.getServiceQuantities());
+
+      // Rates are flat, so every night costs the same
+      List<QuoteNightDto> breakdown = new ArrayList<>((int) Math.max(nights, 0));
+      LocalDate firstNight = request.getCheckInDateTime().toLocalDate();
+      for (long night = 0; night < nights; night++) {
+         breakdown.add(new QuoteNightDto(firstNight.plusDays(night), PricingEngine.toMoney(roomRate),
+               PricingEngine.toMoney(nightlyServices), PricingEngine.toMoney(roomRate + nightlyServices)));
+      }
+
+      long roomTotal = Math.multiplyExact(roomRate, nights);
+      long servicesTotal = Math.addExact(Math.multiplyExact(nightlyServices, nights), oneTimeServices);
+      return new QuoteResponseDto(request.getRoomId(), roomType, nights, PricingEngine.toMoney(roomTotal),
+            PricingEngine.toMoney(servicesTotal), PricingEngine.toMoney(oneTimeServices),
+            PricingEngine.toMoney(roomTotal + servicesTotal), breakdown, null);
+   }
+}
@@ -0,0 +1,253 @@
+package com.backend.hotel_management.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.backend.hotel_management.event.BookingChangedEvent;
+import com.backend.hotel_management.event.BookingChangedEvent.BookingSlot;
+import com.backend.hotel_management.repository.BookingRepository;
+import com.backend.hotel_management.repository.projection.BookingInterval;
+
+/**
+ * In-memory copy of every room's booked intervals, so availability searches
+ * don't have to query the booking table room by room.
+ *
+ * The index is warmed from the database once the application is ready and is
+ * kept current from BookingChangedEvent after each booking write commits. It
+ * only holds bookings that end after its horizon; callers must check
+ * canAnswer() and fall back to the database when it returns false.
+ */
+@Component
+public class RoomAvailabilityIndex {
+
+   private static final Logger log = LoggerFactory.getLogger(RoomAvailabilityIndex.class);
+
+   // How far into the past the index keeps bookings when it is (re)built
+   private static final long HORIZON_DAYS = 1;
+
+   @Autowired
+   private BookingRepository bookingRepository;
+
+   private volatile Map<Long, RoomIntervals> rooms = new ConcurrentHashMap<>();
+   private volatile LocalDateTime horizon;
+   private volatile boolean stale = true;
+
+   // Events received while a rebuild is loading; replayed onto the new map. Guarded by this.
+   private List<BookingChangedEvent> replayLog;
+
+   @EventListener(ApplicationReadyEvent.class)
+   public void warmUp() {
+      rebuild();
+   }
+
+   // Retry a failed build or recover after an update could not be applied
+   @Scheduled(fixedDelay = 60000 * 5, initialDelay = 60000 * 5)
+   public void rebuildIfStale() {
+      if (stale) {
+         rebuild();
+      }
+   }
+
+   public void rebuild() {
+      synchronized (this) {
+         if (replayLog != null) {
+            return; // already rebuilding
+         }
+         replayLog = new ArrayList<>();
+      }
+
+      try {
+         LocalDateTime newHorizon = LocalDateTime.now().minusDays(HORIZON_DAYS);
+         Map<Long, RoomIntervals> fresh = new ConcurrentHashMap<>();
+         List<BookingInterval> intervals = bookingRepository.findIntervalsEndingAfter(newHorizon);
+         for (BookingInterval interval : intervals) {
+            add(fresh, interval.bookingId(), interval.roomId(), interval.checkIn(), interval.checkOut());
+         }
+
+         synchronized (this) {
+            for (BookingChangedEvent event : replayLog) {
+               apply(fresh, event);
+            }
+            rooms = fresh;
+            horizon = newHorizon;
+            stale = false;
+            replayLog = null;
+         }
+         log.info("Room availability index built with {} bookings across {} rooms", intervals.size(), fresh.size());
+      } catch (RuntimeException e) {
+         synchronized (this) {
+            replayLog = null;
+         }
+         stale = true;
+         log.error("Could not build room availability index, searches will use the database", e);
+      }
+   }
+
+   // Whether the index is complete for stays starting at checkIn
+   public boolean canAnswer(LocalDateTime checkIn) {
+      LocalDateTime currentHorizon = horizon;
+      return !stale && currentHorizon != null && !checkIn.isBefore(currentHorizon);
+   }
+
+   // Check if room has any booking overlapping [checkIn, checkOut)
+   public boolean hasConflict(Long roomId, LocalDateTime checkIn, LocalDateTime checkOut) {
+      RoomIntervals intervals = rooms.get(roomId);
+      return intervals != null && intervals.overlaps(toKey(checkIn), toKey(checkOut));
+   }
+
+   // Visit every indexed booking of a room
+   public void forEachInterval(Long roomId, IntervalVisitor visitor) {
+      RoomIntervals intervals = rooms.get(roomId);
+      if (intervals != null) {
+         intervals.forEach(visitor);
+      }
+   }
+
+   @FunctionalInterface
+   public interface IntervalVisitor {
+      void visit(LocalDateTime checkIn, LocalDateTime checkOut);
+   }
+
+   // Runs before the other booking listeners so they can read an up to date index
+   @Order(Ordered.HIGHEST_PRECEDENCE)
+   @TransactionalEventListener(fallbackExecution = true)
+   public void onBookingChanged(BookingChangedEvent event) {
+      synchronized (this) {
+         if (replayLog != null) {
+            replayLog.add(event);
+         }
+      }
+      try {
+         apply(rooms, event);
+      } catch (RuntimeException e) {
+         stale = true;
+         log.error("Could not apply booking {} to availability index, marking it stale", event.bookingId(), e);
+      }
+   }
+
+   private static void apply(Map<Long, RoomIntervals> target, BookingChangedEvent event) {
+      BookingSlot previous = event.previous();
+      if (previous != null && previous.roomId() != null) {
+         target.computeIfPresent(previous.roomId(), (roomId, intervals) -> intervals.without(event.bookingId()));
+      }
+      BookingSlot current = event.current();
+      if (current != null && current.roomId() != null) {
+         add(target, event.bookingId(), current.roomId(), current.checkIn(), current.checkOut());
+      }
+   }
+
+   private static void add(Map<Long, RoomIntervals> target, Long bookingId, Long roomId,
+         LocalDateTime checkIn, LocalDateTime checkOut) {
+      long start = toKey(checkIn);
+      long end = toKey(checkOut);
+      target.compute(roomId, (id, intervals) -> (intervals == null ? RoomIntervals.EMPTY : intervals)
+            .without(bookingId)
+            .with(bookingId, start, end));
+   }
+
+   private static long toKey(LocalDateTime dateTime) {
+      return dateTime.toEpochSecond(ZoneOffset.UTC);
+   }
+
+   private static LocalDateTime fromKey(long key) {
+      return LocalDateTime.ofEpochSecond(key, 0, ZoneOffset.UTC);
+   }
+
+   /**
+    * Immutable set of one room's intervals, sorted by start. maxEnd[i] is the
+    * latest end among the first i + 1 intervals, which lets an overlap check be
+    * answered with one binary search even if legacy bookings overlap each other.
+    */
+   static final class RoomIntervals {
+
+      static final RoomIntervals EMPTY = new RoomIntervals(new long[0], new long[0], new long[0]);
+
+      private final long[] bookingIds;
+      private final long[] starts;
+      private final long[] ends;
+      private final long[] maxEnd;
+
+      private RoomIntervals(long[] bookingIds, long[] starts, long[] ends) {
+         this.bookingIds = bookingIds;
+         this.starts = starts;
+         this.ends = ends;
+         this.maxEnd = new long[ends.length];
+         long max = Long.MIN_VALUE;
+         for (int i = 0; i < ends.length; i++) {
+            max = Math.max(max, ends[i]);
+            maxEnd[i] = max;
+         }
+      }
+
+      boolean overlaps(long start, long end) {
+         int candidates = countStartingBefore(end);
+         return candidates > 0 && maxEnd[candidates - 1] > start;
+      }
+
+      RoomIntervals with(long bookingId, long start, long end) {
+         int at = countStartingBefore(start);
+         return new RoomIntervals(insert(bookingIds, at, bookingId), insert(starts, at, start),
+               insert(ends, at, end));
+      }
+
+      void forEach(IntervalVisitor visitor) {
+         for (int i = 0; i < starts.length; i++) {
+            visitor.visit(fromKey(starts[i]), fromKey(ends[i]));
+         }
+      }
+
+      RoomIntervals without(long bookingId) {
+         for (int i = 0; i < bookingIds.length; i++) {
+            if (bookingIds[i] == bookingId) {
+               return new RoomIntervals(remove(bookingIds, i), remove(starts, i), remove(ends, i));
+            }
+         }
+         return this;
+      }
+
+      // Number of intervals whose start is strictly before the given key
+      private int countStartingBefore(long key) {
+         int low = 0;
+         int high = starts.length;
+         while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] < key) {
+               low = mid + 1;
+            } else {
+               high = mid;
+            }
+         }
+         return low;
+      }
+
+      private static long[] insert(long[] source, int at, long value) {
+         long[] result = Arrays.copyOf(source, source.length + 1);
+         System.arraycopy(source, at, result, at + 1, source.length - at);
+         result[at] = value;
+         return result;
+      }
+
+      private static long[] remove(long[] source, int at) {
+         long[] result = new long[source.length - 1];
+         System.arraycopy(source, 0, result, 0, at);
+         System.arraycopy(source, at + 1, result, at, source.length - at - 1);
+         return result;
+      }
+   }
+}
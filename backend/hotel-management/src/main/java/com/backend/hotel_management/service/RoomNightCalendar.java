@@ -0,0 +1,368 @@
+package com.backend.hotel_management.service;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.backend.hotel_management.event.BookingChangedEvent;
+import com.backend.hotel_management.event.BookingChangedEvent.BookingSlot;
+import com.backend.hotel_management.repository.BookingRepository;
+import com.backend.hotel_management.repository.projection.BookingInterval;
+
+/**
+ * One bit per room per night over a rolling window, kept off the GC heap in a
+ * MemorySegment. Each room owns a row of WORDS_PER_ROOM longs; bit n of the row
+ * is set when the room is booked for the night starting windowStart + n days.
+ *
+ * A booking occupies the nights from its check-in date up to, but excluding,
+ * its check-out date, so a set bit always means a real datetime overlap. The
+ * calendar is rebuilt from the database on startup and every night (to roll
+ * the window), and updated incrementally after each booking write commits.
+ */
+@Component
+public class RoomNightCalendar {
+
+   private static final Logger log = LoggerFactory.getLogger(RoomNightCalendar.class);
+
+   private static final int WORDS_PER_ROOM = 12;
+   private static final int WINDOW_NIGHTS = WORDS_PER_ROOM * Long.SIZE; // 768 nights, a bit over 2 years
+   private static final long PAST_NIGHTS = 183; // keep about half a year of history for occupancy reports
+   private static final long ROW_BYTES = WORDS_PER_ROOM * Long.BYTES;
+   private static final int INITIAL_ROOMS = 64;
+   // Below this many room-nights a count is not worth splitting
+   private static final long SEQUENTIAL_CELLS = 1L << 15;
+
+   @Autowired
+   private BookingRepository bookingRepository;
+
+   @Autowired
+   private RoomAvailabilityIndex availabilityIndex;
+
+   private volatile Grid grid;
+   private volatile boolean stale = true;
+
+   @EventListener(ApplicationReadyEvent.class)
+   public void warmUp() {
+      rebuild();
+   }
+
+   // Roll the window forward shortly after midnight
+   @Scheduled(cron = "0 5 0 * * *")
+   public void rollWindow() {
+      rebuild();
+   }
+
+   @Scheduled(fixedDelay = 60000 * 5, initialDelay = 60000 * 5)
+   public void rebuildIfStale() {
+      if (stale) {
+         rebuild();
+      }
+   }
+
+   public synchronized void rebuild() {
+      try {
+         LocalDate windowStart = LocalDate.now().minusDays(PAST_NIGHTS);
+         Grid fresh = new Grid(windowStart, INITIAL_ROOMS, new ConcurrentHashMap<>());
+         List<BookingInterval> intervals = bookingRepository.findIntervalsEndingAfter(windowStart.atStartOfDay());
+         for (BookingInterval interval : intervals) {
+            fresh = fresh.withRoom(interval.roomId());
+            fresh.mark(interval.roomId(), interval.checkIn(), interval.checkOut(), true);
+         }
+         grid = fresh;
+         stale = false;
+         log.info("Room night calendar built from {} bookings, window starts {}", intervals.size(), windowStart);
+      } catch (RuntimeException e) {
+         stale = true;
+         log.error("Could not build room night calendar, queries will use the database", e);
+      }
+   }
+
+   // Whether every night in [from, to) lies inside the window
+   public boolean canAnswer(LocalDate from, LocalDate to) {
+      Grid current = grid;
+      return !stale && current != null
+            && !from.isBefore(current.windowStart)
+            && !to.isAfter(current.windowStart.plusDays(WINDOW_NIGHTS));
+   }
+
+   // Whether the room is booked for any night in [from, to)
+   public boolean isBooked(Long roomId, LocalDate from, LocalDate to) {
+      Grid current = grid;
+      int row = current.rowOf(roomId);
+      if (row < 0) {
+         return false;
+      }
+      int first = current.nightOf(from);
+      int last = current.nightOf(to);
+      for (int word = first >>> 6; word <= (last - 1) >>> 6 && first < last; word++) {
+         if ((current.word(row, word) & mask(word, first, last)) != 0) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   // Number of rooms booked for at least one night in [from, to)
+   public int countBookedRooms(LocalDate from, LocalDate to) {
+      Grid current = grid;
+      int first = current.nightOf(from);
+      int last = current.nightOf(to);
+      int count = 0;
+      for (int row = 0; row < current.usedRows(); row++) {
+         long any = 0;
+         for (int word = first >>> 6; word <= (last - 1) >>> 6 && first < last; word++) {
+            any |= current.word(row, word) & mask(word, first, last);
+         }
+         if (any != 0) {
+            count++;
+         }
+      }
+      return count;
+   }
+
+   // Booked nights of one room in [from, to); bit i is the night from + i days
+   public BitSet bookedNights(Long roomId, LocalDate from, LocalDate to) {
+      Grid current = grid;
+      int first = current.nightOf(from);
+      int last = current.nightOf(to);
+      BitSet nights = new BitSet(Math.max(last - first, 0));
+      int row = current.rowOf(roomId);
+      if (row < 0) {
+         return nights;
+      }
+      for (int word = first >>> 6; word <= (last - 1) >>> 6 && first < last; word++) {
+         long bits = current.word(row, word) & mask(word, first, last);
+         while (bits != 0) {
+            int night = (word << 6) + Long.numberOfTrailingZeros(bits);
+            nights.set(night - first);
+            bits &= bits - 1;
+         }
+      }
+      return nights;
+   }
+
+   // First night of the window, or null while the calendar cannot answer
+   public LocalDate windowStart() {
+      Grid current = grid;
+      return stale || current == null ? null : current.windowStart;
+   }
+
+   // Night after the last one in the window, or null while the calendar cannot answer
+   public LocalDate windowEnd() {
+      LocalDate start = windowStart();
+      return start == null ? null : start.plusDays(WINDOW_NIGHTS);
+   }
+
+   /**
+    * Booked rooms per group for every night in [from, to): counts[group][n] is
+    * the number of rooms of that group booked for the night from + n days.
+    * Rooms missing from groupOfRoom are skipped. The nights are split into
+    * word-aligned chunks counted in parallel on the common fork-join pool.
+    * Returns null if the range is not inside the window.
+    */
+   public int[][] countBookedNights(LocalDate from, LocalDate to, Map<Long, Integer> groupOfRoom, int groups) {
+      Grid current = grid;
+      if (stale || current == null || from.isBefore(current.windowStart)
+            || to.isAfter(current.windowStart.plusDays(WINDOW_NIGHTS))) {
+         return null;
+      }
+      int first = current.nightOf(from);
+      int last = current.nightOf(to);
+      int[][] counts = new int[groups][Math.max(last - first, 0)];
+      if (first >= last) {
+         return counts;
+      }
+      int[] rowGroups = new int[current.usedRows()];
+      Arrays.fill(rowGroups, -1);
+      current.rows.forEach((roomId, row) -> {
+         Integer group = groupOfRoom.get(roomId);
+         if (group != null && row < rowGroups.length) {
+            rowGroups[row] = group;
+         }
+      });
+      ForkJoinPool.commonPool().invoke(new CountNights(current, rowGroups, counts, first, first, last));
+      return counts;
+   }
+
+   // Mask selecting the bits of one word that fall inside nights [first, last)
+   private static long mask(int word, int first, int last) {
+      int wordStart = word << 6;
+      int from = Math.max(first - wordStart, 0);
+      int to = Math.min(last - wordStart, Long.SIZE);
+      if (from >= to) {
+         return 0;
+      }
+      long upper = to == Long.SIZE ? -1L : (1L << to) - 1;
+      return upper & (-1L << from);
+   }
+
+   // Runs after the availability index has applied the same event, before report caches are invalidated
+   @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+   @TransactionalEventListener(fallbackExecution = true)
+   public synchronized void onBookingChanged(BookingChangedEvent event) {
+      if (stale || grid == null) {
+         return;
+      }
+      try {
+         BookingSlot previous = event.previous();
+         if (previous != null && previous.roomId() != null) {
+            grid.mark(previous.roomId(), previous.checkIn(), previous.checkOut(), false);
+            // Other bookings of the room may share those nights; put their bits back
+            availabilityIndex.forEachInterval(previous.roomId(),
+                  (checkIn, checkOut) -> grid.mark(previous.roomId(), checkIn, checkOut, true));
+         }
+         BookingSlot current = event.current();
+         if (current != null && current.roomId() != null) {
+            grid = grid.withRoom(current.roomId());
+            grid.mark(current.roomId(), current.checkIn(), current.checkOut(), true);
+         }
+      } catch (RuntimeException e) {
+         stale = true;
+         log.error("Could not apply booking {} to room night calendar, marking it stale", event.bookingId(), e);
+      }
+   }
+
+   /**
+    * Counts the booked rooms per group for nights [start, end). Every task
+    * writes its own slice of each counts row, so no merging is needed.
+    */
+   private static final class CountNights extends RecursiveAction {
+
+      private final Grid grid;
+      private final int[] rowGroups;
+      private final int[][] counts;
+      private final int origin;
+      private final int start;
+      private final int end;
+
+      CountNights(Grid grid, int[] rowGroups, int[][] counts, int origin, int start, int end) {
+         this.grid = grid;
+         this.rowGroups = rowGroups;
+         this.counts = counts;
+         this.origin = origin;
+         this.start = start;
+         this.end = end;
+      }
+
+      @Override
+      protected void compute() {
+         if (end - start <= Long.SIZE || (long) (end - start) * rowGroups.length <= SEQUENTIAL_CELLS) {
+            countDirectly();
+            return;
+         }
+         // Split on a word boundary so each task reads whole words
+         int mid = ((start + end) >>> 1) & ~(Long.SIZE - 1);
+         if (mid <= start) {
+            mid = (start | (Long.SIZE - 1)) + 1;
+         }
+         invokeAll(new CountNights(grid, rowGroups, counts, origin, start, mid),
+               new CountNights(grid, rowGroups, counts, origin, mid, end));
+      }
+
+      private void countDirectly() {
+         for (int row = 0; row < rowGroups.length; row++) {
+            if (rowGroups[row] < 0) {
+               continue;
+            }
+            int[] groupCounts = counts[rowGroups[row]];
+            for (int word = start >>> 6; word <= (end - 1) >>> 6; word++) {
+               long bits = grid.word(row, word) & mask(word, start, end);
+               while (bits != 0) {
+                  groupCounts[(word << 6) + Long.numberOfTrailingZeros(bits) - origin]++;
+                  bits &= bits - 1;
+               }
+            }
+         }
+      }
+   }
+
+   /**
+    * Off-heap storage plus the room to row mapping. Rows are only ever added, so
+    * a grown copy keeps the same mapping; readers holding an older grid simply
+    * see rooms added since then as having no bookings.
+    */
+   private static final class Grid {
+
+      private final LocalDate windowStart;
+      private final int capacity;
+      private final Map<Long, Integer> rows;
+      private final MemorySegment segment;
+
+      Grid(LocalDate windowStart, int capacity, Map<Long, Integer> rows) {
+         this.windowStart = windowStart;
+         this.capacity = capacity;
+         this.rows = rows;
+         // Arena.ofAuto() frees the memory once the segment is no longer reachable
+         this.segment = Arena.ofAuto().allocate(capacity * ROW_BYTES, Long.BYTES);
+      }
+
+      int usedRows() {
+         return Math.min(rows.size(), capacity);
+      }
+
+      int rowOf(Long roomId) {
+         Integer row = rows.get(roomId);
+         return row == null || row >= capacity ? -1 : row;
+      }
+
+      // Grid that has a row for the room, growing (copying) the segment if needed
+      Grid withRoom(Long roomId) {
+         if (rows.containsKey(roomId)) {
+            return this;
+         }
+         Grid target = this;
+         if (rows.size() == capacity) {
+            target = new Grid(windowStart, capacity * 2, rows);
+            MemorySegment.copy(segment, 0, target.segment, 0, capacity * ROW_BYTES);
+         }
+         rows.put(roomId, rows.size());
+         return target;
+      }
+
+      // Night index relative to the window, clamped to [0, WINDOW_NIGHTS]
+      int nightOf(LocalDate date) {
+         long night = ChronoUnit.DAYS.between(windowStart, date);
+         return (int) Math.max(0, Math.min(night, WINDOW_NIGHTS));
+      }
+
+      long word(int row, int word) {
+         return segment.get(ValueLayout.JAVA_LONG, row * ROW_BYTES + (long) word * Long.BYTES);
+      }
+
+      void mark(Long roomId, LocalDateTime checkIn, LocalDateTime checkOut, boolean booked) {
+         int row = rowOf(roomId);
+         if (row < 0) {
+            return;
+         }
+         int first = nightOf(checkIn.toLocalDate());
+         int last = nightOf(checkOut.toLocalDate());
+         for (int word = first >>> 6; word <= (last - 1) >>> 6 && first < last; word++) {
+            long offset = row * ROW_BYTES + (long) word * Long.BYTES;
+            long bits = segment.get(ValueLayout.JAVA_LONG, offset);
+            long mask = mask(word, first, last);
+            segment.set(ValueLayout.JAVA_LONG, offset, booked ? bits | mask : bits & ~mask);
+         }
+      }
+   }
+}
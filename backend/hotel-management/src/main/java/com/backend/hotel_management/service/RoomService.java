@@ -1,18 +1,32 @@
 package com.backend.hotel_management.service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import com.backend.hotel_management.dto.request.RoomRequestDto;
+import com.backend.hotel_management.dto.response.RoomCalendarResponseDto;
 import com.backend.hotel_management.dto.response.RoomResponseDto;
 import com.backend.hotel_management.model.Booking;
 import com.backend.hotel_management.model.Room;
+import com.backend.hotel_management.report.service.ReportCache;
 import com.backend.hotel_management.repository.BookingRepository;
+import com.backend.hotel_management.repository.KeysetPage;
+import com.backend.hotel_management.repository.KeysetRepository;
 import com.backend.hotel_management.repository.RoomRepository;
+import com.backend.hotel_management.repository.projection.RoomRow;
 
 @Service
 public class RoomService {
@@ -23,6 +37,24 @@ public class RoomService {
    @Autowired
    private BookingRepository bookingRepository;
 
+   @Autowired
+   private RoomAvailabilityIndex availabilityIndex;
+
+   @Autowired
+   private RoomNightCalendar roomNightCalendar;
+
+   @Autowired
+   private PricingEngine pricingEngine;
+
+   @Autowired
+   private ReportCache reportCache;
+
+   @Autowired
+   private KeysetRepository keysetRepository;
+
+   // Sort keys of the paged rooms list besides id; each is indexed for (key, id) order
+   private static final Set<String> PAGE_SORT_KEYS = Set.of("roomNumber");
+
    // Convert Request DTO to Entity
    public Room convertRequestDtoToEntity(RoomRequestDto request) {
       Room entity = new Room();
@@ -52,6 +84,12 @@ public class RoomService {
             .collect(Collectors.toList());
    }
 
+   // Convert a list row to Response DTO
+   private RoomResponseDto convertRowToResponseDto(RoomRow row) {
+      return new RoomResponseDto(row.id(), row.roomNumber(), row.roomType(), row.roomStatus(),
+            row.pricePerNight(), row.maxOccupancy());
+   }
+
    // Create new Room
    public RoomResponseDto createRoom(RoomRequestDto requestDto) {
       if (roomRepository.existsByRoomNumber(requestDto.getRoomNumber())) {
@@ -60,14 +98,26 @@ public class RoomService {
 
       Room room = convertRequestDtoToEntity(requestDto);
       Room savedRoom = roomRepository.save(room);
+      pricingEngine.reloadRoomTypes();
+      reportCache.invalidateAll(); // available room-nights changed
       return convertEntityToResponseDto(savedRoom);
 
    }
 
    // Get all Rooms
+   // Every room in id order; more than KeysetRepository.UNPAGED_LIMIT must be read in pages
    public List<RoomResponseDto> getAllRooms() {
-      List<Room> rooms = roomRepository.findAll();
-      return convertEntityListToResponseDtos(rooms);
+      return KeysetRepository.unpaged(roomRepository.findAllRows(Limit.of(KeysetRepository.UNPAGED_LIMIT + 1)))
+            .stream()
+            .map(this::convertRowToResponseDto)
+            .collect(Collectors.toList());
+   }
+
+   // One page of rooms in sort order, continuing after cursor (null for the first page)
+   public KeysetPage<RoomResponseDto> getRoomPage(String sort, Integer limit, String cursor) {
+      return keysetRepository.findPageIds(Room.class, PAGE_SORT_KEYS, sort, limit, cursor)
+            .load(roomRepository::findRowsByIdIn, RoomRow::id)
+            .map(this::convertRowToResponseDto);
    }
 
    // Get Room by ID
@@ -88,6 +138,8 @@ public class RoomService {
       existingRoom.setRoomType(requestDto.getRoomType());
 
       Room updatedRoom = roomRepository.save(existingRoom);
+      pricingEngine.reloadRoomTypes();
+      reportCache.invalidateAll();
       return convertEntityToResponseDto(updatedRoom);
    }
 
@@ -97,6 +149,8 @@ public class RoomService {
          throw new RuntimeException("Room not found with id: " + id);
       }
       roomRepository.deleteById(id);
+      pricingEngine.reloadRoomTypes();
+      reportCache.invalidateAll();
 
    }
 
@@ -105,16 +159,69 @@ public class RoomService {
       List<Room> allRooms = roomRepository.findAll();
 
       // Filter out rooms that have conflicting bookings
-      List<Room> availableRooms = allRooms.stream()
-            .filter(room -> !hasBookingConflict(room.getId(), checkIn, checkOut))
-            .collect(Collectors.toList());
+      List<Room> availableRooms;
+      if (availabilityIndex.canAnswer(checkIn)) {
+         // Rooms booked for any of the nights are rejected from the calendar bits;
+         // the rest are confirmed against the exact intervals (same-day stays have no nights)
+         LocalDate firstNight = checkIn.toLocalDate();
+         LocalDate lastNight = checkOut.toLocalDate();
+         boolean useCalendar = roomNightCalendar.canAnswer(firstNight, lastNight);
+         availableRooms = allRooms.stream()
+               .filter(room -> !(useCalendar && roomNightCalendar.isBooked(room.getId(), firstNight, lastNight)))
+               .filter(room -> !availabilityIndex.hasConflict(room.getId(), checkIn, checkOut))
+               .collect(Collectors.toList());
+      } else {
+         // Index not usable (still warming up, stale, or range before its horizon)
+         Set<Long> bookedRoomIds = new HashSet<>(
+               bookingRepository.findRoomIdsWithDateRangeOverlap(checkIn, checkOut));
+         availableRooms = allRooms.stream()
+               .filter(room -> !bookedRoomIds.contains(room.getId()))
+               .collect(Collectors.toList());
+      }
 
       return convertEntityListToResponseDtos(availableRooms);
    }
 
-   private boolean hasBookingConflict(Long roomId, LocalDateTime checkIn, LocalDateTime checkOut) {
-      List<Booking> existingBookings = bookingRepository.findByRoom_IdAndDateRangeOverlap(roomId, checkIn, checkOut);
-      return !existingBookings.isEmpty();
+   // Front-desk grid: booked nights per room from fromDate to toDate (inclusive)
+   public List<RoomCalendarResponseDto> getRoomCalendar(LocalDate fromDate, LocalDate toDate) {
+      LocalDate endExclusive = toDate.plusDays(1);
+      int nights = (int) ChronoUnit.DAYS.between(fromDate, endExclusive);
+      List<Room> rooms = roomRepository.findAll();
+
+      Map<Long, BitSet> bookedByRoom = new HashMap<>();
+      if (roomNightCalendar.canAnswer(fromDate, endExclusive)) {
+         for (Room room : rooms) {
+            bookedByRoom.put(room.getId(), roomNightCalendar.bookedNights(room.getId(), fromDate, endExclusive));
+         }
+      } else {
+         // Outside the calendar window, work it out from the bookings in range
+         List<Booking> bookings = bookingRepository.findByDateRangeOverlap(fromDate.atStartOfDay(),
+               endExclusive.atStartOfDay());
+         for (Booking booking : bookings) {
+            if (booking.getRoom() == null) {
+               continue;
+            }
+            BitSet booked = bookedByRoom.computeIfAbsent(booking.getRoom().getId(), id -> new BitSet(nights));
+            long first = Math.max(ChronoUnit.DAYS.between(fromDate, booking.getCheckInDateTime().toLocalDate()), 0);
+            long last = Math.min(ChronoUnit.DAYS.between(fromDate, booking.getCheckOutDateTime().toLocalDate()),
+                  nights);
+            if (first < last) {
+               booked.set((int) first, (int) last);
+            }
+         }
+      }
+
+      List<RoomCalendarResponseDto> calendar = new ArrayList<>();
+      for (Room room : rooms) {
+         BitSet booked = bookedByRoom.getOrDefault(room.getId(), new BitSet());
+         List<Boolean> bookedNights = new ArrayList<>(nights);
+         for (int night = 0; night < nights; night++) {
+            bookedNights.add(booked.get(night));
+         }
+         calendar.add(new RoomCalendarResponseDto(room.getId(), room.getRoomNumber(), room.getRoomType(),
+               bookedNights));
+      }
+      return calendar;
    }
 
 }
\ No newline at end of file
@@ -0,0 +1,236 @@
+package com.backend.hotel_management.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.backend.hotel_management.enums.RoomStatus;
+import com.backend.hotel_management.event.BookingChangedEvent;
+import com.backend.hotel_management.event.BookingChangedEvent.BookingSlot;
+import com.backend.hotel_management.repository.BookingRepository;
+import com.backend.hotel_management.repository.RoomRepository;
+import com.backend.hotel_management.repository.projection.BookingInterval;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Flips rooms between OCCUPIED and AVAILABLE at the moment a stay starts or ends.
+ *
+ * Upcoming check-in and check-out instants are kept in a queue ordered by time;
+ * a single thread sleeps until the earliest one is due, then recomputes the
+ * status of every due room from the availability index and writes them with
+ * one bulk UPDATE per status. Because the status is recomputed rather than
+ * taken from the queue entry, entries left behind by moved or deleted bookings
+ * are harmless.
+ *
+ * The queue only holds instants up to windowEnd. It is refilled from the
+ * bookings overlapping the window on startup and every WINDOW / 2, and booking
+ * changes inside the window are added as they commit.
+ */
+@Component
+public class RoomStatusScheduler {
+
+   private static final Logger log = LoggerFactory.getLogger(RoomStatusScheduler.class);
+
+   private static final Duration WINDOW = Duration.ofDays(1);
+   private static final Duration RETRY_DELAY = Duration.ofMinutes(1);
+
+   @Autowired
+   private BookingRepository bookingRepository;
+
+   @Autowired
+   private RoomRepository roomRepository;
+
+   @Autowired
+   private RoomAvailabilityIndex availabilityIndex;
+
+   @Autowired
+   private TransactionTemplate transactionTemplate;
+
+   private final ReentrantLock lock = new ReentrantLock();
+   private final Condition changed = lock.newCondition();
+   // Ordered by instant, then room; equal entries collapse. Guarded by lock.
+   private final NavigableSet<Transition> queue = new TreeSet<>(
+         Comparator.comparing(Transition::at).thenComparing(Transition::roomId));
+   private volatile LocalDateTime windowEnd = LocalDateTime.MIN;
+
+   private Thread worker;
+
+   @EventListener(ApplicationReadyEvent.class)
+   public void start() {
+      reconcile();
+      refill();
+      worker = new Thread(this::run, "room-status-transitions");
+      worker.setDaemon(true);
+      worker.start();
+   }
+
+   @PreDestroy
+   public void stop() {
+      if (worker != null) {
+         worker.interrupt();
+      }
+   }
+
+   // Catch up on stays that started or ended while the application was down, or were bulk imported
+   public void reconcile() {
+      try {
+         int updated = transactionTemplate.execute(
+               status -> roomRepository.reconcileRoomStatuses(LocalDateTime.now()));
+         log.info("Room statuses reconciled, {} rooms updated", updated);
+      } catch (RuntimeException e) {
+         log.error("Could not reconcile room statuses", e);
+      }
+   }
+
+   // Queue the transitions of every booking overlapping [now, now + WINDOW)
+   @Scheduled(fixedDelay = 60000 * 60 * 12, initialDelay = 60000 * 60 * 12)
+   public void refill() {
+      LocalDateTime now = LocalDateTime.now();
+      LocalDateTime end = now.plus(WINDOW);
+      try {
+         List<BookingInterval> intervals = bookingRepository.findIntervalsOverlapping(now, end);
+         lock.lock();
+         try {
+            windowEnd = end;
+            for (BookingInterval interval : intervals) {
+               enqueue(interval.roomId(), interval.checkIn(), now);
+               enqueue(interval.roomId(), interval.checkOut(), now);
+            }
+            changed.signal();
+         } finally {
+            lock.unlock();
+         }
+         log.debug("Room status queue refilled from {} bookings", intervals.size());
+      } catch (RuntimeException e) {
+         log.error("Could not refill room status queue", e);
+      }
+   }
+
+   // Runs after the availability index has applied the same event
+   @TransactionalEventListener(fallbackExecution = true)
+   public void onBookingChanged(BookingChangedEvent event) {
+      LocalDateTime now = LocalDateTime.now();
+      lock.lock();
+      try {
+         BookingSlot previous = event.previous();
+         if (previous != null && previous.roomId() != null) {
+            // The room may have just been freed
+            queue.add(new Transition(now, previous.roomId()));
+         }
+         BookingSlot current = event.current();
+         if (current != null && current.roomId() != null) {
+            enqueue(current.roomId(), current.checkIn(), now);
+            enqueue(current.roomId(), current.checkOut(), now);
+         }
+         changed.signal();
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   // Caller holds lock. Instants already passed are applied right away.
+   private void enqueue(Long roomId, LocalDateTime at, LocalDateTime now) {
+      if (roomId != null && at.isBefore(windowEnd)) {
+         queue.add(new Transition(at.isBefore(now) ? now : at, roomId));
+      }
+   }
+
+   private void run() {
+      while (!Thread.currentThread().isInterrupted()) {
+         Set<Long> rooms;
+         try {
+            rooms = takeDueRooms();
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+         }
+         try {
+            apply(rooms);
+         } catch (RuntimeException e) {
+            log.error("Could not apply room status transitions, retrying in {}", RETRY_DELAY, e);
+            retryLater(rooms);
+         }
+      }
+   }
+
+   private void retryLater(Set<Long> roomIds) {
+      LocalDateTime at = LocalDateTime.now().plus(RETRY_DELAY);
+      lock.lock();
+      try {
+         roomIds.forEach(roomId -> queue.add(new Transition(at, roomId)));
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   // Block until at least one transition is due, then remove and return the due rooms
+   private Set<Long> takeDueRooms() throws InterruptedException {
+      lock.lock();
+      try {
+         while (true) {
+            if (queue.isEmpty()) {
+               changed.await();
+               continue;
+            }
+            long waitNanos = Duration.between(LocalDateTime.now(), queue.first().at()).toNanos();
+            if (waitNanos > 0) {
+               changed.awaitNanos(waitNanos);
+               continue;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            Set<Long> rooms = new HashSet<>();
+            while (!queue.isEmpty() && !queue.first().at().isAfter(now)) {
+               rooms.add(queue.pollFirst().roomId());
+            }
+            return rooms;
+         }
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   private void apply(Set<Long> roomIds) {
+      LocalDateTime now = LocalDateTime.now();
+      LocalDateTime instantAfter = now.plusSeconds(1);
+      boolean indexed = availabilityIndex.canAnswer(now);
+      List<Long> occupied = new ArrayList<>();
+      List<Long> available = new ArrayList<>();
+      for (Long roomId : roomIds) {
+         boolean inStay = indexed
+               ? availabilityIndex.hasConflict(roomId, now, instantAfter)
+               : !bookingRepository.findByRoom_IdAndDateRangeOverlap(roomId, now, instantAfter).isEmpty();
+         (inStay ? occupied : available).add(roomId);
+      }
+      transactionTemplate.executeWithoutResult(status -> {
+         if (!occupied.isEmpty()) {
+            roomRepository.updateRoomStatus(occupied, RoomStatus.OCCUPIED);
+         }
+         if (!available.isEmpty()) {
+            roomRepository.updateRoomStatus(available, RoomStatus.AVAILABLE);
+         }
+      });
+      log.debug("Room status transitions applied: {} occupied, {} available", occupied, available);
+   }
+
+   private record Transition(LocalDateTime at, Long roomId) {
+   }
+}
@@ -1,7 +1,6 @@
 package com.backend.hotel_management.service;
 
 import java.math.BigDecimal;
-import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -9,14 +8,17 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.backend.hotel_management.dto.request.UpdateBookingRequestDto;
 import com.backend.hotel_management.dto.response.HotelServingResponseDto;
 import com.backend.hotel_management.dto.response.UpdateBookingResponseDto;
-import com.backend.hotel_management.enums.RoomStatus;
-import com.backend.hotel_management.enums.ServicePricingType;
+import com.backend.hotel_management.event.BookingChangedEvent;
+import com.backend.hotel_management.event.BookingChangedEvent.BookingSlot;
+import com.backend.hotel_management.exception.RoomNotAvailableException;
 import com.backend.hotel_management.model.Booking;
 import com.backend.hotel_management.model.Guest;
 import com.backend.hotel_management.model.HotelServing;
@@ -33,6 +35,9 @@ public class UpdateBookingService {
       @Autowired
       private BookingRepository bookingRepository;
 
+      @Autowired
+      private BookingReferenceService bookingReferenceService;
+
       @Autowired
       private GuestRepository guestRepository;
 
@@ -42,6 +47,12 @@ public class UpdateBookingService {
       @Autowired
       private HotelServingRepository hotelServingRepository;
 
+      @Autowired
+      private ApplicationEventPublisher eventPublisher;
+
+      @Autowired
+      private PricingEngine pricingEngine;
+
       private static final Logger log = LoggerFactory.getLogger(UpdateBookingService.class);
 
       // Convert to Response DTO - following the same pattern as ApplyBookingService
@@ -82,48 +93,6 @@ public class UpdateBookingService {
             return response;
       }
 
-      // Calculate total price - same logic as ApplyBookingService
-      private BigDecimal calculateTotalPrice(Room room, List<HotelServing> services, UpdateBookingRequestDto request) {
-            long nights = Duration.between(request.getCheckInDateTime(), request.getCheckOutDateTime()).toDays();
-            BigDecimal roomPricePerNight = room.getPricePerNight();
-            BigDecimal roomTotal = roomPricePerNight.multiply(BigDecimal.valueOf(nights));
-
-            System.out.println("Room price: " + roomPricePerNight + " x " + nights + " nights = " + roomTotal);
-
-            BigDecimal servicesTotal = services.stream()
-                        .map(service -> {
-                              Integer quantity = request.getServiceQuantities() != null
-                                          ? request.getServiceQuantities().getOrDefault(service.getId(), 1)
-                                          : 1;
-
-                              BigDecimal serviceCost;
-                              if (service.getPricingType() == ServicePricingType.PER_NIGHT) {
-                                    serviceCost = service.getPrice().multiply(BigDecimal.valueOf(quantity));
-
-                                    System.out.println("PER_NIGHT service: " + service.getName() + " - "
-                                                + service.getPrice() + " x "
-                                                + quantity + " x " + nights + " = " + serviceCost);
-                              } else if (service.getPricingType() == ServicePricingType.PER_HOUR) {
-                                    serviceCost = service.getPrice().multiply(BigDecimal.valueOf(quantity));
-                                    System.out.println("PER_HOUR service: " + service.getName() + " - "
-                                                + service.getPrice() + " x "
-                                                + quantity + " = " + serviceCost);
-                              } else {
-                                    serviceCost = service.getPrice().multiply(BigDecimal.valueOf(quantity));
-                                    System.out.println("PER_ORDER service: " + service.getName() + " - "
-                                                + service.getPrice() + " x "
-                                                + quantity + " = " + serviceCost);
-                              }
-                              return serviceCost;
-                        })
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            System.out.println("Services total: " + servicesTotal);
-            System.out.println("Grand total: " + roomTotal.add(servicesTotal));
-
-            return roomTotal.add(servicesTotal);
-      }
-
       // Check if room has booking conflicts (excluding current booking)
       private boolean hasBookingConflict(Long roomId, LocalDateTime checkIn, LocalDateTime checkOut,
                   Long excludeBookingId) {
@@ -152,7 +121,7 @@ public class UpdateBookingService {
                   Long authenticatedGuestId) {
 
             // 1. Find the existing booking by booking reference
-            Booking existingBooking = bookingRepository.findByBookingReference(bookingReference)
+            Booking existingBooking = bookingReferenceService.findBooking(bookingReference)
                         .orElseThrow(() -> new RuntimeException(
                                     "Booking not found with reference: " + bookingReference));
 
@@ -186,7 +155,7 @@ public class UpdateBookingService {
             // Check if new room has any booking conflicts (excluding current booking)
             if (hasBookingConflict(requestDto.getRoomId(), requestDto.getCheckInDateTime(),
                         requestDto.getCheckOutDateTime(), existingBooking.getId())) {
-                  throw new RuntimeException("Room is not available for the selected dates");
+                  throw new RoomNotAvailableException();
             }
 
             // Update guest information
@@ -203,10 +172,12 @@ public class UpdateBookingService {
             List<HotelServing> selectedServices = getSelectedServices(requestDto.getHotelServiceIds());
 
             // Calculate new total price
-            BigDecimal totalPrice = calculateTotalPrice(newRoom, selectedServices, requestDto);
+            BigDecimal totalPrice = PricingEngine.toMoney(pricingEngine.totalCents(newRoom.getRoomType(),
+                        requestDto.getCheckInDateTime(), requestDto.getCheckOutDateTime(),
+                        requestDto.getHotelServiceIds(), requestDto.getServiceQuantities()));
 
             // Update booking fields
-            Room oldRoom = existingBooking.getRoom();
+            BookingSlot previousSlot = BookingSlot.of(existingBooking);
             existingBooking.setCheckInDateTime(requestDto.getCheckInDateTime());
             existingBooking.setCheckOutDateTime(requestDto.getCheckOutDateTime());
             existingBooking.setRoom(newRoom);
@@ -217,40 +188,16 @@ public class UpdateBookingService {
             existingBooking.setTotalPrice(totalPrice);
 
             // Save updated booking
-            Booking updatedBooking = bookingRepository.save(existingBooking);
-
-            // Update room statuses - following the same pattern as ApplyBookingService
-            LocalDateTime now = LocalDateTime.now();
-
-            // Handle old room status (if room changed)
-            if (oldRoom != null && !oldRoom.getId().equals(newRoom.getId())) {
-                  // Check if old room has other active bookings
-                  List<Booking> oldRoomActiveBookings = bookingRepository.findByRoom_IdAndDateRangeOverlap(
-                              oldRoom.getId(), now, now.plusDays(1));
-                  oldRoomActiveBookings = oldRoomActiveBookings.stream()
-                              .filter(booking -> !booking.getId().equals(existingBooking.getId()))
-                              .collect(Collectors.toList());
-
-                  if (oldRoomActiveBookings.isEmpty()) {
-                        oldRoom.setRoomStatus(RoomStatus.AVAILABLE);
-                        roomRepository.save(oldRoom);
-                        log.info("Old room {} marked as AVAILABLE", oldRoom.getId());
-                  }
-            }
-
-            // Handle new room status
-            if (requestDto.getCheckInDateTime().isBefore(now) || requestDto.getCheckInDateTime().isEqual(now)) {
-                  newRoom.setRoomStatus(RoomStatus.OCCUPIED);
-                  log.info("New room {} marked as OCCUPIED immediately (check-in time has passed)", newRoom.getId());
-            } else {
-                  // Only set to AVAILABLE if not currently occupied by another booking
-                  if (newRoom.getRoomStatus() != RoomStatus.OCCUPIED) {
-                        newRoom.setRoomStatus(RoomStatus.AVAILABLE);
-                        log.info("New room {} kept as AVAILABLE (future booking)", newRoom.getId());
+            Booking updatedBooking;
+            try {
+                  updatedBooking = bookingRepository.saveAndFlush(existingBooking);
+            } catch (DataIntegrityViolationException e) {
+                  if (RoomNotAvailableException.isCausedByOverlap(e)) {
+                        throw new RoomNotAvailableException();
                   }
+                  throw e;
             }
-
-            roomRepository.save(newRoom);
+            eventPublisher.publishEvent(BookingChangedEvent.updated(previousSlot, updatedBooking));
 
             return convertToResponseDto(updatedBooking, selectedServices);
       }
@@ -0,0 +1,82 @@
+package com.backend.hotel_management.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Passwords recently found to match a stored hash, so the same password is
+ * not run through BCrypt against the same hash again.
+ *
+ * Entries are HMAC-SHA256 digests of the stored hash and the password under a
+ * key generated at startup, so they reveal nothing about a password without
+ * that key, and a new hash (new salt) never matches an old entry. Only matches
+ * are remembered: a wrong password always costs a full BCrypt check. Bounded
+ * like the verified-token cache in JwtService.
+ */
+@Service
+public class VerifiedCredentialCache {
+
+   private static final String ALGORITHM = "HmacSHA256";
+
+   @Value("${hotel.security.credentials.cache.max-entries:10000}")
+   private int maxEntries;
+
+   @Value("${hotel.security.credentials.cache.ttl:PT1H}")
+   private Duration ttl;
+
+   // Digest -> when it expires (nanoTime)
+   private final Map<String, Long> digests = new ConcurrentHashMap<>();
+   private final SecretKeySpec key;
+
+   public VerifiedCredentialCache() {
+      byte[] secret = new byte[32];
+      new SecureRandom().nextBytes(secret);
+      key = new SecretKeySpec(secret, ALGORITHM);
+   }
+
+   // Whether rawPassword was found to match encodedPassword within the ttl
+   public boolean contains(String encodedPassword, CharSequence rawPassword) {
+      Long expiresAt = digests.get(digest(encodedPassword, rawPassword));
+      return expiresAt != null && expiresAt - System.nanoTime() > 0;
+   }
+
+   // Remember that rawPassword matches encodedPassword
+   public void add(String encodedPassword, CharSequence rawPassword) {
+      if (digests.size() >= maxEntries) {
+         purgeExpired();
+      }
+      if (digests.size() < maxEntries) {
+         digests.put(digest(encodedPassword, rawPassword), System.nanoTime() + ttl.toNanos());
+      }
+   }
+
+   @Scheduled(fixedDelay = 300000)
+   public void purgeExpired() {
+      long now = System.nanoTime();
+      digests.values().removeIf(expiresAt -> expiresAt - now <= 0);
+   }
+
+   private String digest(String encodedPassword, CharSequence rawPassword) {
+      try {
+         Mac mac = Mac.getInstance(ALGORITHM); // not thread-safe, and cheap to create
+         mac.init(key);
+         mac.update(encodedPassword.getBytes(StandardCharsets.UTF_8));
+         mac.update((byte) 0);
+         return Base64.getEncoder().encodeToString(mac.doFinal(rawPassword.toString().getBytes(StandardCharsets.UTF_8)));
+      } catch (GeneralSecurityException e) {
+         throw new IllegalStateException(e);
+      }
+   }
+}
@@ -0,0 +1,84 @@
+-- Schema as Hibernate generated it before versioned migrations were introduced.
+-- Existing databases are baselined at this version and skip this script.
+
+CREATE TABLE IF NOT EXISTS employee (
+    id        bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email     varchar(255) NOT NULL UNIQUE,
+    full_name varchar(255) NOT NULL,
+    password  varchar(255) NOT NULL,
+    role      varchar(255) NOT NULL
+        CHECK (role IN ('MANAGER', 'RECEPTIONIST', 'HOUSEKEEPING', 'MAINTENANCE', 'KITCHEN'))
+);
+
+CREATE TABLE IF NOT EXISTS guest (
+    id           bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    address      varchar(255) NOT NULL,
+    city         varchar(255) NOT NULL,
+    country      varchar(255) NOT NULL,
+    email        varchar(255) NOT NULL UNIQUE,
+    full_name    varchar(255) NOT NULL,
+    password     varchar(255) NOT NULL,
+    phone_number varchar(255) NOT NULL UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS room (
+    id              bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    max_occupancy   integer DEFAULT 1 NOT NULL,
+    price_per_night numeric(38, 2) NOT NULL,
+    room_number     varchar(255) NOT NULL UNIQUE,
+    room_status     varchar(255) NOT NULL CHECK (room_status IN ('AVAILABLE', 'OCCUPIED')),
+    room_type       varchar(255) NOT NULL CHECK (room_type IN ('SINGLE', 'DOUBLE', 'DELUXE', 'SUITE'))
+);
+
+CREATE TABLE IF NOT EXISTS hotel_serving (
+    id           bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    duration     varchar(255),
+    name         varchar(255) NOT NULL UNIQUE,
+    price        numeric(38, 2) NOT NULL,
+    pricing_type varchar(255) NOT NULL CHECK (pricing_type IN ('PER_ORDER', 'PER_HOUR', 'PER_NIGHT'))
+);
+
+CREATE TABLE IF NOT EXISTS booking (
+    id                  bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    booking_reference   varchar(255) NOT NULL UNIQUE,
+    check_in_date_time  timestamp(6) NOT NULL,
+    check_out_date_time timestamp(6) NOT NULL,
+    total_price         numeric(38, 2) NOT NULL,
+    guest_id            bigint REFERENCES guest (id),
+    room_id             bigint REFERENCES room (id)
+);
+
+CREATE TABLE IF NOT EXISTS booking_additional_guests (
+    booking_id bigint NOT NULL REFERENCES booking (id),
+    guest_name varchar(255)
+);
+
+CREATE TABLE IF NOT EXISTS booking_services (
+    booking_id       bigint NOT NULL REFERENCES booking (id),
+    hotel_serving_id bigint NOT NULL REFERENCES hotel_serving (id)
+);
+
+CREATE TABLE IF NOT EXISTS booking_serving_quantities (
+    booking_id bigint NOT NULL REFERENCES booking (id),
+    quantity   integer,
+    service_id bigint NOT NULL,
+    PRIMARY KEY (booking_id, service_id)
+);
+
+CREATE TABLE IF NOT EXISTS complaint (
+    id              bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    created_at      timestamp(6),
+    message         varchar(255),
+    title           varchar(255),
+    complaint_guest bigint REFERENCES guest (id)
+);
+
+CREATE TABLE IF NOT EXISTS contact_us (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    created_at timestamp(6),
+    email      varchar(255) NOT NULL,
+    first_name varchar(255) NOT NULL,
+    last_name  varchar(255) NOT NULL,
+    message    varchar(255) NOT NULL,
+    subject    varchar(255) NOT NULL
+);
@@ -0,0 +1,18 @@
+-- Let the database refuse double bookings instead of relying on check-then-insert.
+--
+-- stay_range is the half-open stay [check-in, check-out), kept in sync by Postgres.
+-- The exclusion constraint rejects two bookings of the same room whose ranges overlap,
+-- and its GiST index also serves the overlap lookups in BookingRepository.
+--
+-- If this migration fails on the constraint, the table already holds overlapping
+-- bookings for some room; resolve them first.
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE booking
+    ADD COLUMN IF NOT EXISTS stay_range tsrange
+        GENERATED ALWAYS AS (tsrange(check_in_date_time, check_out_date_time, '[)')) STORED;
+
+ALTER TABLE booking
+    ADD CONSTRAINT booking_no_overlapping_stays
+        EXCLUDE USING gist (room_id WITH =, stay_range WITH &&);
@@ -0,0 +1,16 @@
+-- Booking ids are handed out by the application from blocks reserved on this
+-- sequence (BookingReferenceService), so the public booking reference can be
+-- derived from the id before the row is inserted.
+--
+-- INCREMENT BY must stay equal to BookingReferenceService.BLOCK_SIZE: each
+-- nextval() reserves the ids [value, value + 100).
+--
+-- The identity column owns an implicit sequence of the same name, so the
+-- identity is dropped (and its sequence with it) before booking_id_seq is
+-- created; INCREMENT BY is set separately in case the sequence already exists.
+
+ALTER TABLE booking ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE booking ALTER COLUMN id DROP DEFAULT;
+CREATE SEQUENCE IF NOT EXISTS booking_id_seq;
+ALTER SEQUENCE booking_id_seq INCREMENT BY 100;
+SELECT setval('booking_id_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM booking), false);
@@ -0,0 +1,18 @@
+-- Per-day, per-room-type totals that the revenue and occupancy reports read
+-- instead of scanning bookings. Maintained by RevenueRollupService in the same
+-- transaction as every booking write; rebuilt from bookings when empty.
+--
+-- A booking's nights are attributed to the date each night starts. PER_NIGHT
+-- services follow the nights; one-time services land on the check-in date.
+
+CREATE TABLE IF NOT EXISTS daily_room_type_rollup (
+    day                   date         NOT NULL,
+    room_type             varchar(255) NOT NULL,
+    room_nights           bigint       NOT NULL,
+    room_revenue_cents    bigint       NOT NULL,
+    service_revenue_cents bigint       NOT NULL,
+    PRIMARY KEY (day, room_type)
+);
+
+-- Zero-length stays have an empty stay_range; the rollup finds them by check-in
+CREATE INDEX IF NOT EXISTS booking_check_in_idx ON booking (check_in_date_time);
@@ -0,0 +1,7 @@
+-- booking_services and booking_additional_guests have no key, so looking up the
+-- services or guest names of one booking scanned the whole table. The booking
+-- export and the revenue rollup do that for every booking they touch.
+
+CREATE INDEX IF NOT EXISTS booking_services_booking_idx ON booking_services (booking_id);
+
+CREATE INDEX IF NOT EXISTS booking_additional_guests_booking_idx ON booking_additional_guests (booking_id);
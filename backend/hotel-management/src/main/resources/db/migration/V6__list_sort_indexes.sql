@@ -0,0 +1,12 @@
+-- Indexes for the keyset-paged list endpoints (see KeysetRepository).
+--
+-- A page is read in (sort key, id) order starting after the previous page's last
+-- row, which is a range scan only when an index covers that order. Primary keys
+-- cover sorting by id, and the unique indexes on guest.email, employee.email and
+-- room.room_number cover those keys; these cover the rest.
+
+CREATE INDEX IF NOT EXISTS booking_check_in_id_idx ON booking (check_in_date_time, id);
+
+CREATE INDEX IF NOT EXISTS guest_full_name_id_idx ON guest (full_name, id);
+
+CREATE INDEX IF NOT EXISTS employee_full_name_id_idx ON employee (full_name, id);
@@ -0,0 +1,48 @@
+-- Ids of the entities below come from sequences in blocks of 50 instead of from
+-- identity columns. With IDENTITY, Hibernate must run every INSERT on its own to
+-- read the generated id back, which rules out JDBC batching; with a pooled
+-- sequence it knows the ids up front and sends the inserts in batches.
+--
+-- Hibernate uses the pooled-lo optimizer (hibernate.id.optimizer.pooled.preferred):
+-- each nextval() reserves [value, value + 50), so INCREMENT BY must stay equal to
+-- the allocationSize of the entity's @SequenceGenerator. Existing ids are kept;
+-- each sequence starts after the current maximum. booking is already allocated
+-- from booking_id_seq (V3).
+--
+-- Rows inserted outside the application must take their id from the sequence.
+
+ALTER TABLE employee ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE employee ALTER COLUMN id DROP DEFAULT;
+CREATE SEQUENCE IF NOT EXISTS employee_id_seq;
+ALTER SEQUENCE employee_id_seq INCREMENT BY 50;
+SELECT setval('employee_id_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM employee), false);
+
+ALTER TABLE guest ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE guest ALTER COLUMN id DROP DEFAULT;
+CREATE SEQUENCE IF NOT EXISTS guest_id_seq;
+ALTER SEQUENCE guest_id_seq INCREMENT BY 50;
+SELECT setval('guest_id_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM guest), false);
+
+ALTER TABLE room ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE room ALTER COLUMN id DROP DEFAULT;
+CREATE SEQUENCE IF NOT EXISTS room_id_seq;
+ALTER SEQUENCE room_id_seq INCREMENT BY 50;
+SELECT setval('room_id_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM room), false);
+
+ALTER TABLE hotel_serving ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE hotel_serving ALTER COLUMN id DROP DEFAULT;
+CREATE SEQUENCE IF NOT EXISTS hotel_serving_id_seq;
+ALTER SEQUENCE hotel_serving_id_seq INCREMENT BY 50;
+SELECT setval('hotel_serving_id_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM hotel_serving), false);
+
+ALTER TABLE complaint ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE complaint ALTER COLUMN id DROP DEFAULT;
+CREATE SEQUENCE IF NOT EXISTS complaint_id_seq;
+ALTER SEQUENCE complaint_id_seq INCREMENT BY 50;
+SELECT setval('complaint_id_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM complaint), false);
+
+ALTER TABLE contact_us ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE contact_us ALTER COLUMN id DROP DEFAULT;
+CREATE SEQUENCE IF NOT EXISTS contact_us_id_seq;
+ALTER SEQUENCE contact_us_id_seq INCREMENT BY 50;
+SELECT setval('contact_us_id_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM contact_us), false);
@@ -0,0 +1,19 @@
+-- HMAC keys the login tokens are signed and verified with, shared by every node
+-- (JwtKeyRing). A token names its key in the kid header, so any node can verify
+-- a token another node issued, and tokens survive restarts.
+--
+-- A key signs new tokens from active_from on; the newest active key is used.
+-- Nodes reload the keys every hotel.security.jwt.keys.refresh, so a new key is
+-- inserted with active_from at least two refreshes ahead and every node knows
+-- it before any node signs with it. A key verifies tokens until retired_at,
+-- which must leave the tokens it signed time to expire (8 hours).
+-- JwtKeyRing creates the first key and rotates them every
+-- hotel.security.jwt.keys.rotate-after.
+
+CREATE TABLE IF NOT EXISTS jwt_signing_key (
+    kid         varchar(64)  PRIMARY KEY,
+    secret      varchar(255) NOT NULL, -- Base64 of at least 32 bytes
+    created_at  timestamptz  NOT NULL DEFAULT now(),
+    active_from timestamptz  NOT NULL DEFAULT now(),
+    retired_at  timestamptz
+);
@@ -0,0 +1,159 @@
+package com.backend.hotel_management.report.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.backend.hotel_management.enums.RevenueBucket;
+import com.backend.hotel_management.enums.RoomStatus;
+import com.backend.hotel_management.enums.RoomType;
+import com.backend.hotel_management.model.Guest;
+import com.backend.hotel_management.model.Room;
+import com.backend.hotel_management.repository.GuestRepository;
+import com.backend.hotel_management.repository.RoomRepository;
+
+/**
+ * Heap used by a year-long report over a history of 1M bookings.
+ *
+ * Seeds 1,000 rooms with 1,000 consecutive two-night stays each (about eight
+ * years), rebuilds the rollup for them, then runs the occupancy, breakdown,
+ * revenue and daily revenue series reports for one year and asserts the heap
+ * never grew by more than HEAP_BUDGET_BYTES while they ran. Everything is
+ * deleted afterwards. Run with
+ * mvn test -Dtest=ReportHeapBudgetTest -Dbenchmark=true
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ReportHeapBudgetTest {
+
+	private static final int ROOMS = 1_000;
+	private static final int STAYS_PER_ROOM = 1_000;
+	private static final long HEAP_BUDGET_BYTES = 64L * 1024 * 1024;
+
+	// Far from today, so the room night calendar holds none of it and reports read the database
+	private static final LocalDate FIRST_DAY = LocalDate.of(2060, 1, 1);
+	private static final LocalDate LAST_DAY = FIRST_DAY.plusDays(3L * STAYS_PER_ROOM);
+	private static final LocalDate REPORT_FROM = LocalDate.of(2063, 1, 1);
+	private static final LocalDate REPORT_TO = LocalDate.of(2063, 12, 31);
+
+	@Autowired
+	private ReportService reportService;
+
+	@Autowired
+	private RevenueRollupService revenueRollupService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private GuestRepository guestRepository;
+
+	@Autowired
+	private RoomRepository roomRepository;
+
+	private Guest guest;
+	private List<Room> rooms;
+	private long firstBookingId;
+
+	@BeforeEach
+	void seedBookings() {
+		String unique = UUID.randomUUID().toString().substring(0, 8);
+
+		guest = new Guest();
+		guest.setFullName("Heap Budget " + unique);
+		guest.setEmail("heap-budget-" + unique + "@example.com");
+		guest.setPassword("not-used");
+		guest.setPhoneNumber("hb-" + unique);
+		guest.setCountry("Country");
+		guest.setAddress("Address");
+		guest.setCity("City");
+		guest = guestRepository.save(guest);
+
+		List<Room> newRooms = new ArrayList<>();
+		for (int i = 0; i < ROOMS; i++) {
+			Room room = new Room();
+			room.setRoomNumber("HB-" + unique + "-" + i);
+			room.setRoomType(RoomType.values()[i % RoomType.values().length]);
+			room.setRoomStatus(RoomStatus.AVAILABLE);
+			newRooms.add(room);
+		}
+		rooms = roomRepository.saveAll(newRooms);
+
+		// Reserve the ids in one step; booking_id_seq hands out blocks of 100 from the value it returns
+		long bookings = (long) ROOMS * STAYS_PER_ROOM;
+		firstBookingId = jdbcTemplate.queryForObject("SELECT nextval('booking_id_seq')", Long.class);
+		jdbcTemplate.queryForObject("SELECT setval('booking_id_seq', ?)", Long.class, firstBookingId + bookings);
+
+		LocalDateTime checkIn = FIRST_DAY.atTime(14, 0);
+		LocalDateTime checkOut = FIRST_DAY.plusDays(2).atTime(11, 0);
+		for (int i = 0; i < ROOMS; i++) {
+			long base = firstBookingId + (long) i * STAYS_PER_ROOM;
+			jdbcTemplate.update("INSERT INTO booking (id, booking_reference, check_in_date_time, "
+					+ "check_out_date_time, total_price, guest_id, room_id) "
+					+ "SELECT ? + k, 'HEAP-' || (? + k), CAST(? AS timestamp) + k * INTERVAL '3 days', "
+					+ "CAST(? AS timestamp) + k * INTERVAL '3 days', 300.00, ?, ? "
+					+ "FROM generate_series(0, ?) AS k",
+					base, base, checkIn, checkOut, guest.getId(), rooms.get(i).getId(), STAYS_PER_ROOM - 1);
+		}
+		// Written without BookingChangedEvents, so the rollup is built the way the import does it
+		revenueRollupService.rebuild(FIRST_DAY, LAST_DAY);
+	}
+
+	@AfterEach
+	void deleteBookings() {
+		jdbcTemplate.update("DELETE FROM booking WHERE id >= ? AND id < ?", firstBookingId,
+				firstBookingId + (long) ROOMS * STAYS_PER_ROOM);
+		revenueRollupService.rebuild(FIRST_DAY, LAST_DAY);
+		roomRepository.deleteAll(rooms);
+		guestRepository.delete(guest);
+	}
+
+	@Test
+	void yearLongReportsStayWithinTheHeapBudget() {
+		AtomicInteger seriesPoints = new AtomicInteger();
+		long heap = peakHeapGrowthDuring(() -> {
+			reportService.generateOccupancyReport(REPORT_FROM, REPORT_TO);
+			reportService.generateOccupancyBreakdown(REPORT_FROM, REPORT_TO);
+			reportService.generateRevenueReport(REPORT_FROM, REPORT_TO);
+			reportService.streamRevenueSeries(REPORT_FROM, REPORT_TO, RevenueBucket.DAY,
+					point -> seriesPoints.incrementAndGet());
+		});
+
+		System.out.printf("Year-long reports over %d bookings: peak heap growth %.1f MB (budget %d MB)%n",
+				(long) ROOMS * STAYS_PER_ROOM, heap / (1024.0 * 1024), HEAP_BUDGET_BYTES / (1024 * 1024));
+		assertEquals(365, seriesPoints.get(), "expected one series point per day");
+		assertTrue(heap < HEAP_BUDGET_BYTES, "reports used " + heap + " bytes of heap");
+	}
+
+	// Most the heap grew above its post-GC level while work ran; pool peaks are summed, so it may overstate
+	private static long peakHeapGrowthDuring(Runnable work) {
+		List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+				.filter(pool -> pool.getType() == MemoryType.HEAP)
+				.toList();
+		System.gc();
+		long baseline = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+		heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+		work.run();
+
+		long peak = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+		return peak - baseline;
+	}
+}
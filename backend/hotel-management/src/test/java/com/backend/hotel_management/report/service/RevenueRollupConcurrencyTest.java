@@ -0,0 +1,148 @@
+package com.backend.hotel_management.report.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.backend.hotel_management.enums.RoomStatus;
+import com.backend.hotel_management.enums.RoomType;
+import com.backend.hotel_management.event.BookingChangedEvent;
+import com.backend.hotel_management.model.Booking;
+import com.backend.hotel_management.model.Guest;
+import com.backend.hotel_management.model.Room;
+import com.backend.hotel_management.report.repository.RevenueRollupRepository;
+import com.backend.hotel_management.repository.BookingRepository;
+import com.backend.hotel_management.repository.GuestRepository;
+import com.backend.hotel_management.repository.RoomRepository;
+
+// Concurrent booking batches touching the same months in opposite orders must both commit
+@SpringBootTest
+class RevenueRollupConcurrencyTest {
+
+	private static final int ROUNDS = 5;
+	private static final LocalDate JANUARY = LocalDate.of(2091, 1, 1);
+	private static final LocalDate MARCH = LocalDate.of(2091, 3, 1);
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private GuestRepository guestRepository;
+
+	@Autowired
+	private RoomRepository roomRepository;
+
+	@Autowired
+	private RevenueRollupRepository rollupRepository;
+
+	private Guest guest;
+	private Room room;
+	private final List<Long> bookingIds = new ArrayList<>();
+
+	@BeforeEach
+	void createGuestAndRoom() {
+		String unique = UUID.randomUUID().toString().substring(0, 8);
+
+		guest = new Guest();
+		guest.setFullName("Rollup Concurrency " + unique);
+		guest.setEmail("rollup-concurrency-" + unique + "@example.com");
+		guest.setPassword("not-used");
+		guest.setPhoneNumber("rc-" + unique);
+		guest.setCountry("Country");
+		guest.setAddress("Address");
+		guest.setCity("City");
+		guest = guestRepository.save(guest);
+
+		room = new Room();
+		room.setRoomNumber("RC-" + unique);
+		room.setRoomType(RoomType.SINGLE);
+		room.setRoomStatus(RoomStatus.AVAILABLE);
+		room = roomRepository.save(room);
+	}
+
+	// Deleted with their events, so the rollup rows and in-memory indexes are put back as well
+	@AfterEach
+	void deleteBookingsGuestAndRoom() {
+		transactionTemplate.executeWithoutResult(status -> bookingRepository.findAllById(bookingIds)
+				.forEach(booking -> {
+					bookingRepository.delete(booking);
+					eventPublisher.publishEvent(BookingChangedEvent.deleted(booking));
+				}));
+		guestRepository.deleteById(guest.getId());
+		roomRepository.deleteById(room.getId());
+	}
+
+	@Test
+	void batchesTouchingMonthsInOppositeOrdersBothCommit() throws Exception {
+		long nightsBefore = rollupRepository.sumDays(JANUARY, MARCH.plusMonths(1).minusDays(1)).roomNights();
+
+		for (int round = 0; round < ROUNDS; round++) {
+			// Both batches reach their commit together, one having booked March first and the other January
+			CyclicBarrier beforeCommit = new CyclicBarrier(2);
+			int day = round * 2;
+			CompletableFuture<Void> marchFirst = CompletableFuture.runAsync(
+					() -> writeBatch(beforeCommit, MARCH.plusDays(day), JANUARY.plusDays(day)));
+			CompletableFuture<Void> januaryFirst = CompletableFuture.runAsync(
+					() -> writeBatch(beforeCommit, JANUARY.plusDays(day + 1), MARCH.plusDays(day + 1)));
+			CompletableFuture.allOf(marchFirst, januaryFirst).get(30, TimeUnit.SECONDS);
+		}
+
+		long nightsAfter = rollupRepository.sumDays(JANUARY, MARCH.plusMonths(1).minusDays(1)).roomNights();
+		assertEquals(nightsBefore + 4L * ROUNDS, nightsAfter, "rollup rows missing for committed bookings");
+	}
+
+	// One transaction booking a night on each day, in order, like a batch of the booking engine
+	private void writeBatch(CyclicBarrier beforeCommit, LocalDate... days) {
+		transactionTemplate.executeWithoutResult(status -> {
+			for (LocalDate day : days) {
+				Booking booking = book(day.atTime(14, 0));
+				eventPublisher.publishEvent(BookingChangedEvent.created(booking));
+			}
+			try {
+				beforeCommit.await(10, TimeUnit.SECONDS);
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+	}
+
+	private Booking book(LocalDateTime checkIn) {
+		Booking booking = new Booking();
+		booking.setCheckInDateTime(checkIn);
+		booking.setCheckOutDateTime(checkIn.plusHours(20));
+		booking.setTotalPrice(new BigDecimal("100.00"));
+		booking.setGuest(guest);
+		booking.setRoom(room);
+		booking.setAdditionalGuests(new ArrayList<>());
+		booking.setSelectedServices(new ArrayList<>());
+		booking.setServiceQuantities(new HashMap<>());
+		booking = bookingRepository.save(booking);
+		synchronized (bookingIds) {
+			bookingIds.add(booking.getId());
+		}
+		return booking;
+	}
+}
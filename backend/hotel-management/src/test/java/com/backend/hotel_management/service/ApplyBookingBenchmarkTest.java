@@ -0,0 +1,174 @@
+package com.backend.hotel_management.service;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.backend.hotel_management.dto.request.ApplyBookingRequestDto;
+import com.backend.hotel_management.enums.RoomStatus;
+import com.backend.hotel_management.enums.RoomType;
+import com.backend.hotel_management.model.Room;
+import com.backend.hotel_management.repository.GuestRepository;
+import com.backend.hotel_management.repository.RoomRepository;
+import com.backend.hotel_management.service.ApplyBookingService.GuestCredential;
+
+/**
+ * Apply-booking throughput for returning guests, before and after credentials
+ * were checked ahead of the booking write.
+ *
+ * Before, every apply-booking hashed the password again on its partition's
+ * writer thread and updated the guest with the new hash. The "before" run
+ * does exactly that work: one writer per core, rooms split between them as
+ * the booking engine splits them, and per booking one BCrypt hash on the
+ * writer followed by the booking written with that hash. The "after" run
+ * sends the same guests, with unchanged details, through the booking engine.
+ * Both timings are printed. Bookings, guests and rooms are deleted afterwards
+ * with their events, so the rollup and in-memory indexes are put back too.
+ * Run with mvn test -Dtest=ApplyBookingBenchmarkTest -Dbenchmark=true
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ApplyBookingBenchmarkTest {
+
+	private static final int GUESTS = 100;
+	private static final int WRITERS = Runtime.getRuntime().availableProcessors();
+
+	@Autowired
+	private BookingCommandEngine bookingCommandEngine;
+
+	@Autowired
+	private ApplyBookingService applyBookingService;
+
+	@Autowired
+	private PasswordHashingService passwordHashingService;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private RoomService roomService;
+
+	@Autowired
+	private RoomRepository roomRepository;
+
+	@Autowired
+	private GuestService guestService;
+
+	@Autowired
+	private GuestRepository guestRepository;
+
+	private String run;
+	private final List<Room> rooms = new ArrayList<>();
+
+	// One room per guest, and every guest booked once so they are all returning guests
+	@BeforeEach
+	void createRoomsAndGuests() {
+		run = UUID.randomUUID().toString().substring(0, 8);
+		for (int i = 0; i < GUESTS; i++) {
+			Room room = new Room();
+			room.setRoomNumber("AB-" + run + "-" + i);
+			room.setRoomType(RoomType.DOUBLE);
+			room.setRoomStatus(RoomStatus.AVAILABLE);
+			room.setPricePerNight(new BigDecimal("150.00"));
+			rooms.add(roomRepository.save(room));
+		}
+		applyThroughEngine(0);
+	}
+
+	@AfterEach
+	void deleteGuestsAndRooms() {
+		for (int i = 0; i < GUESTS; i++) {
+			guestRepository.findByEmail(email(i)).ifPresent(guest -> transactionTemplate
+					.executeWithoutResult(status -> guestService.deleteGuest(guest.getId())));
+		}
+		rooms.forEach(room -> roomService.deleteRoom(room.getId()));
+	}
+
+	@Test
+	void returningGuestsAreNotHashedOnTheWriters() throws Exception {
+		long after = applyThroughEngine(1);
+		long before = applyHashingOnWriters(2);
+
+		System.out.printf("Apply-booking for %d returning guests: %d ms before (hash on the writer), "
+				+ "%d ms after (checked ahead, unchanged credentials), %.1fx the throughput%n", GUESTS,
+				before / 1_000_000, after / 1_000_000, (double) before / after);
+		assertTrue(after < before, "returning guests were not faster");
+	}
+
+	// Nanoseconds to book a stay for every guest through the booking engine, all submitted at once
+	private long applyThroughEngine(int stay) {
+		long start = System.nanoTime();
+		List<CompletableFuture<?>> futures = new ArrayList<>();
+		for (int i = 0; i < GUESTS; i++) {
+			futures.add(bookingCommandEngine.submit(request(i, stay)).getFuture());
+		}
+		CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+		return System.nanoTime() - start;
+	}
+
+	// Nanoseconds to book a stay for every guest the way the writers did before: hash, then write with the hash
+	private long applyHashingOnWriters(int stay) throws Exception {
+		List<List<ApplyBookingRequestDto>> perWriter = new ArrayList<>();
+		for (int w = 0; w < WRITERS; w++) {
+			perWriter.add(new ArrayList<>());
+		}
+		for (int i = 0; i < GUESTS; i++) {
+			ApplyBookingRequestDto request = request(i, stay);
+			perWriter.get(Math.floorMod(request.getRoomId().hashCode(), WRITERS)).add(request);
+		}
+
+		ExecutorService writers = Executors.newFixedThreadPool(WRITERS);
+		try {
+			long start = System.nanoTime();
+			List<CompletableFuture<Void>> futures = new ArrayList<>();
+			for (List<ApplyBookingRequestDto> requests : perWriter) {
+				futures.add(CompletableFuture.runAsync(() -> requests.forEach(request -> transactionTemplate
+						.executeWithoutResult(status -> {
+							String storedHash = guestRepository.findPasswordByEmail(request.getEmail()).orElseThrow();
+							String newHash = passwordHashingService.encode(request.getPassword());
+							applyBookingService.createApplyBooking(request, false,
+									new GuestCredential(storedHash, newHash));
+						})), writers));
+			}
+			CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+			return System.nanoTime() - start;
+		} finally {
+			writers.shutdown();
+		}
+	}
+
+	private ApplyBookingRequestDto request(int guest, int stay) {
+		LocalDateTime checkIn = LocalDateTime.of(2100, 1, 1, 14, 0).plusDays(2L * stay);
+		ApplyBookingRequestDto request = new ApplyBookingRequestDto();
+		request.setFullName("Benchmark Guest " + guest);
+		request.setEmail(email(guest));
+		request.setPassword("benchmark-password-" + guest);
+		request.setPhoneNumber("ab-" + run + "-" + guest);
+		request.setCountry("Country");
+		request.setAddress("Address");
+		request.setCity("City");
+		request.setCheckInDateTime(checkIn);
+		request.setCheckOutDateTime(checkIn.plusHours(20));
+		request.setRoomId(rooms.get(guest).getId());
+		return request;
+	}
+
+	private String email(int guest) {
+		return "apply-benchmark-" + run + "-" + guest + "@example.com";
+	}
+}
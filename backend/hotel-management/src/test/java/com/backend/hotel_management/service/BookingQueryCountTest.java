@@ -0,0 +1,157 @@
+package com.backend.hotel_management.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.backend.hotel_management.enums.RoomStatus;
+import com.backend.hotel_management.enums.RoomType;
+import com.backend.hotel_management.enums.ServicePricingType;
+import com.backend.hotel_management.model.Booking;
+import com.backend.hotel_management.model.Guest;
+import com.backend.hotel_management.model.HotelServing;
+import com.backend.hotel_management.model.Room;
+import com.backend.hotel_management.repository.BookingRepository;
+import com.backend.hotel_management.repository.GuestRepository;
+import com.backend.hotel_management.repository.HotelServingRepository;
+import com.backend.hotel_management.repository.RoomRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+// Booking reads must cost a fixed number of queries, however many bookings they return
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class BookingQueryCountTest {
+
+	// The bookings query plus one query per collection (guest names, services, quantities)
+	private static final long MAX_STATEMENTS = 4;
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private GuestRepository guestRepository;
+
+	@Autowired
+	private RoomRepository roomRepository;
+
+	@Autowired
+	private HotelServingRepository hotelServingRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Guest guest;
+	private Room room;
+	private HotelServing service;
+	private int bookings;
+
+	@BeforeEach
+	void createGuestRoomAndService() {
+		String unique = UUID.randomUUID().toString().substring(0, 8);
+
+		guest = new Guest();
+		guest.setFullName("Query Count " + unique);
+		guest.setEmail("query-count-" + unique + "@example.com");
+		guest.setPassword("not-used");
+		guest.setPhoneNumber("qc-" + unique);
+		guest.setCountry("Country");
+		guest.setAddress("Address");
+		guest.setCity("City");
+		guest = guestRepository.save(guest);
+
+		room = new Room();
+		room.setRoomNumber("QC-" + unique);
+		room.setRoomType(RoomType.SUITE);
+		room.setRoomStatus(RoomStatus.AVAILABLE);
+		room = roomRepository.save(room);
+
+		service = new HotelServing();
+		service.setName("Query count breakfast " + unique);
+		service.setPricingType(ServicePricingType.PER_NIGHT);
+		service.setPrice(new BigDecimal("12.50"));
+		service = hotelServingRepository.save(service);
+	}
+
+	@Test
+	void guestBookingListCostsTheSameForOneOrManyBookings() {
+		addBookings(1);
+		long few = statementsFor(() -> bookingService.getBookingsByGuestEmail(guest.getEmail()));
+		addBookings(9);
+		long many = statementsFor(() -> bookingService.getBookingsByGuestEmail(guest.getEmail()));
+
+		assertEquals(few, many, "queries grew with the number of bookings");
+		assertTrue(many <= MAX_STATEMENTS, "expected at most " + MAX_STATEMENTS + " queries, got " + many);
+	}
+
+	@Test
+	void bookingListCostsTheSameForOneOrManyBookings() {
+		addBookings(1);
+		long few = statementsFor(() -> bookingService.getAllBookings());
+		addBookings(9);
+		long many = statementsFor(() -> bookingService.getAllBookings());
+
+		assertEquals(few, many, "queries grew with the number of bookings");
+		assertTrue(many <= MAX_STATEMENTS, "expected at most " + MAX_STATEMENTS + " queries, got " + many);
+	}
+
+	@Test
+	void bookingDetailCostsAFixedNumberOfQueries() {
+		String reference = addBookings(1).getBookingReference();
+		long statements = statementsFor(() -> bookingService.getBookingByReference(reference));
+
+		assertTrue(statements <= MAX_STATEMENTS,
+				"expected at most " + MAX_STATEMENTS + " queries, got " + statements);
+	}
+
+	// Consecutive one-night stays in the test room, each with a guest name and a service
+	private Booking addBookings(int count) {
+		Booking booking = null;
+		for (int i = 0; i < count; i++) {
+			LocalDateTime checkIn = LocalDateTime.of(2090, 1, 1, 14, 0).plusDays(bookings++);
+			booking = new Booking();
+			booking.setCheckInDateTime(checkIn);
+			booking.setCheckOutDateTime(checkIn.plusHours(20));
+			booking.setTotalPrice(new BigDecimal("412.50"));
+			booking.setGuest(guest);
+			booking.setRoom(room);
+			booking.setAdditionalGuests(new ArrayList<>(List.of("Companion " + i)));
+			booking.setSelectedServices(new ArrayList<>(List.of(service)));
+			booking.setServiceQuantities(new HashMap<>());
+			booking.getServiceQuantities().put(service.getId(), 1);
+			booking = bookingRepository.save(booking);
+		}
+		return booking;
+	}
+
+	// Statements prepared while running the read against an empty persistence context
+	private long statementsFor(Runnable read) {
+		entityManager.flush();
+		entityManager.clear();
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		read.run();
+		return statistics.getPrepareStatementCount();
+	}
+}
@@ -0,0 +1,108 @@
+package com.backend.hotel_management.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.OptionalLong;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Reference encoding without Spring or a database: the Feistel permutation
+ * must round-trip and stay a bijection, and the check character must reject
+ * a mistyped reference.
+ */
+class BookingReferenceServiceTest {
+
+	private static final long MAX_ID = (1L << 40) - 1;
+	private static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+
+	private BookingReferenceService referenceService;
+
+	@BeforeEach
+	void setUp() {
+		referenceService = serviceWithSecret("test-reference-secret");
+	}
+
+	@Test
+	void referencesDecodeToTheirId() {
+		long[] ids = { 0, 1, 2, 99, 100, 101, 123_456_789, MAX_ID - 1, MAX_ID };
+		for (long id : ids) {
+			String reference = referenceService.referenceFor(id);
+			assertEquals(11, reference.length(), reference);
+			assertTrue(reference.startsWith("BK"), reference);
+			assertEquals(OptionalLong.of(id), referenceService.decode(reference), reference);
+		}
+		for (long id = 1; id <= 10_000; id++) {
+			assertEquals(OptionalLong.of(id), referenceService.decode(referenceService.referenceFor(id)));
+		}
+	}
+
+	@Test
+	void neighbouringIdsGetDistinctReferences() {
+		Set<String> references = new HashSet<>();
+		for (long id = 1; id <= 10_000; id++) {
+			assertTrue(references.add(referenceService.referenceFor(id)), "duplicate reference for " + id);
+		}
+		assertNotEquals(referenceService.referenceFor(1).substring(2, 8),
+				referenceService.referenceFor(2).substring(2, 8));
+	}
+
+	@Test
+	void decodingIsCaseInsensitiveAndReadsCrockfordAliases() {
+		String reference = referenceService.referenceFor(424_242);
+		assertEquals(OptionalLong.of(424_242), referenceService.decode(reference.toLowerCase()));
+
+		String aliased = reference.substring(0, 2) + reference.substring(2).replace('0', 'O').replace('1', 'I');
+		assertEquals(OptionalLong.of(424_242), referenceService.decode(aliased));
+	}
+
+	@Test
+	void checkCharacterRejectsAnySingleWrongCharacter() {
+		String reference = referenceService.referenceFor(987_654);
+		for (int i = 2; i < reference.length(); i++) {
+			for (char replacement : ALPHABET.toCharArray()) {
+				if (replacement == reference.charAt(i)) {
+					continue;
+				}
+				String mistyped = reference.substring(0, i) + replacement + reference.substring(i + 1);
+				assertTrue(referenceService.decode(mistyped).isEmpty(), mistyped);
+			}
+		}
+	}
+
+	@Test
+	void malformedReferencesDoNotDecode() {
+		assertTrue(referenceService.decode(null).isEmpty());
+		assertTrue(referenceService.decode("").isEmpty());
+		assertTrue(referenceService.decode("BK123").isEmpty());
+		assertTrue(referenceService.decode("XX" + referenceService.referenceFor(5).substring(2)).isEmpty());
+		assertTrue(referenceService.decode(referenceService.referenceFor(5).substring(0, 10) + "U").isEmpty());
+	}
+
+	@Test
+	void idsOutsideTheReferenceRangeAreRefused() {
+		assertThrows(IllegalArgumentException.class, () -> referenceService.referenceFor(-1));
+		assertThrows(IllegalArgumentException.class, () -> referenceService.referenceFor(MAX_ID + 1));
+	}
+
+	@Test
+	void theSecretKeysThePermutation() {
+		BookingReferenceService other = serviceWithSecret("another-reference-secret");
+		assertNotEquals(referenceService.referenceFor(42), other.referenceFor(42));
+		assertEquals(OptionalLong.of(42), other.decode(other.referenceFor(42)));
+	}
+
+	private static BookingReferenceService serviceWithSecret(String secret) {
+		BookingReferenceService service = new BookingReferenceService();
+		ReflectionTestUtils.setField(service, "referenceSecret", secret);
+		service.deriveRoundKeys();
+		return service;
+	}
+}
@@ -0,0 +1,170 @@
+package com.backend.hotel_management.service;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.backend.hotel_management.enums.RoomStatus;
+import com.backend.hotel_management.enums.RoomType;
+import com.backend.hotel_management.enums.ServicePricingType;
+import com.backend.hotel_management.model.Booking;
+import com.backend.hotel_management.model.Guest;
+import com.backend.hotel_management.model.HotelServing;
+import com.backend.hotel_management.model.Room;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Bulk write timing before and after sequence ids and JDBC batching.
+ *
+ * Before, every table had an IDENTITY id, so Hibernate ran each INSERT on its
+ * own to read the id back, and nothing was batched. The "before" run does
+ * exactly those statements, one round trip each, against copies of the guest
+ * and booking tables (indexes and constraints included) whose ids are
+ * IDENTITY columns again. The "after" run persists the same guests and
+ * bookings (two guest names and one service each) through Hibernate as
+ * configured. Both timings are printed and the speedup must reach
+ * TARGET_SPEEDUP. Everything is rolled back. Run with
+ * mvn test -Dtest=BulkInsertBenchmarkTest -Dbenchmark=true
+ */
+@SpringBootTest
+@Transactional
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BulkInsertBenchmarkTest {
+
+	private static final int WARM_UP_ROWS = 200;
+	private static final int ROWS = 2000;
+	private static final double TARGET_SPEEDUP = 10;
+
+	// The tables as they were before V7__pooled_id_sequences.sql, as temporary copies
+	private static final String[] IDENTITY_TABLES = { "guest", "booking", "booking_additional_guests",
+			"booking_services", "booking_serving_quantities" };
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Room room;
+	private HotelServing service;
+	private int stays;
+
+	@BeforeEach
+	void createRoomAndService() {
+		String unique = UUID.randomUUID().toString().substring(0, 8);
+
+		room = new Room();
+		room.setRoomNumber("BM-" + unique);
+		room.setRoomType(RoomType.DOUBLE);
+		room.setRoomStatus(RoomStatus.AVAILABLE);
+		entityManager.persist(room);
+
+		service = new HotelServing();
+		service.setName("Benchmark breakfast " + unique);
+		service.setPricingType(ServicePricingType.PER_NIGHT);
+		service.setPrice(new BigDecimal("12.50"));
+		entityManager.persist(service);
+		entityManager.flush();
+
+		for (String table : IDENTITY_TABLES) {
+			jdbcTemplate.execute("CREATE TEMPORARY TABLE identity_" + table + " (LIKE " + table + " INCLUDING ALL)");
+		}
+		jdbcTemplate.execute("ALTER TABLE identity_guest ALTER COLUMN id ADD GENERATED BY DEFAULT AS IDENTITY");
+		jdbcTemplate.execute("ALTER TABLE identity_booking ALTER COLUMN id ADD GENERATED BY DEFAULT AS IDENTITY");
+	}
+
+	@Test
+	void batchedWritesWithSequenceIdsAreFasterThanIdentityInserts() {
+		writeWithIdentity(WARM_UP_ROWS);
+		write(WARM_UP_ROWS);
+
+		long before = writeWithIdentity(ROWS);
+		long after = write(ROWS);
+
+		double speedup = (double) before / after;
+		System.out.printf("Bulk write of %d guests and %d bookings: %d ms before (IDENTITY, one statement "
+				+ "per row), %d ms after (sequence ids, batched), %.1fx faster%n", ROWS, ROWS,
+				before / 1_000_000, after / 1_000_000, speedup);
+		assertTrue(speedup >= TARGET_SPEEDUP, String.format("%.1fx faster, expected %.0fx", speedup, TARGET_SPEEDUP));
+	}
+
+	// Nanoseconds to insert rows guests with bookings the way IDENTITY ids did: one round trip per row
+	private long writeWithIdentity(int rows) {
+		String run = UUID.randomUUID().toString().substring(0, 8);
+
+		long start = System.nanoTime();
+		for (int i = 0; i < rows; i++) {
+			Long guestId = jdbcTemplate.queryForObject("INSERT INTO identity_guest (full_name, email, password, "
+					+ "phone_number, country, address, city) VALUES (?, ?, ?, ?, ?, ?, ?) RETURNING id", Long.class,
+					"Benchmark Guest " + i, "identity-" + run + "-" + i + "@example.com", "not-used",
+					"id-" + run + "-" + i, "Country", "Address", "City");
+
+			LocalDateTime checkIn = LocalDateTime.of(2100, 1, 1, 14, 0).plusDays(stays++);
+			Long bookingId = jdbcTemplate.queryForObject("INSERT INTO identity_booking (booking_reference, "
+					+ "check_in_date_time, check_out_date_time, total_price, guest_id, room_id) "
+					+ "VALUES (?, ?, ?, ?, ?, ?) RETURNING id", Long.class, "ID-" + run + "-" + i, checkIn,
+					checkIn.plusHours(20), new BigDecimal("162.50"), guestId, room.getId());
+			for (String name : List.of("Companion A", "Companion B")) {
+				jdbcTemplate.update("INSERT INTO identity_booking_additional_guests (booking_id, guest_name) "
+						+ "VALUES (?, ?)", bookingId, name);
+			}
+			jdbcTemplate.update("INSERT INTO identity_booking_services (booking_id, hotel_serving_id) VALUES (?, ?)",
+					bookingId, service.getId());
+			jdbcTemplate.update("INSERT INTO identity_booking_serving_quantities (booking_id, quantity, service_id) "
+					+ "VALUES (?, ?, ?)", bookingId, 1, service.getId());
+		}
+		return System.nanoTime() - start;
+	}
+
+	// Nanoseconds to insert rows guests, each with a booking, through Hibernate as configured
+	private long write(int rows) {
+		String run = UUID.randomUUID().toString().substring(0, 8);
+
+		long start = System.nanoTime();
+		for (int i = 0; i < rows; i++) {
+			Guest guest = new Guest();
+			guest.setFullName("Benchmark Guest " + i);
+			guest.setEmail("benchmark-" + run + "-" + i + "@example.com");
+			guest.setPassword("not-used");
+			guest.setPhoneNumber("bm-" + run + "-" + i);
+			guest.setCountry("Country");
+			guest.setAddress("Address");
+			guest.setCity("City");
+			entityManager.persist(guest);
+
+			LocalDateTime checkIn = LocalDateTime.of(2100, 1, 1, 14, 0).plusDays(stays++);
+			Booking booking = new Booking();
+			booking.setCheckInDateTime(checkIn);
+			booking.setCheckOutDateTime(checkIn.plusHours(20));
+			booking.setTotalPrice(new BigDecimal("162.50"));
+			booking.setGuest(guest);
+			booking.setRoom(room);
+			booking.setAdditionalGuests(new ArrayList<>(List.of("Companion A", "Companion B")));
+			booking.setSelectedServices(new ArrayList<>(List.of(service)));
+			booking.setServiceQuantities(new HashMap<>());
+			booking.getServiceQuantities().put(service.getId(), 1);
+			entityManager.persist(booking);
+		}
+		entityManager.flush();
+		long elapsed = System.nanoTime() - start;
+
+		entityManager.clear();
+		room = entityManager.find(Room.class, room.getId());
+		service = entityManager.find(HotelServing.class, service.getId());
+		return elapsed;
+	}
+}
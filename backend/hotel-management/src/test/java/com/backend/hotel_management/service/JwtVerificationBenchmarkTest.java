@@ -0,0 +1,89 @@
+package com.backend.hotel_management.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.backend.hotel_management.enums.EmployeeRole;
+
+/**
+ * Token verification timing with and without the verified-token cache.
+ *
+ * Times a full parse (HMAC check and JSON parse, once per call) against
+ * verify() on a token already seen, and prints the median per call of several
+ * rounds after a warm-up. Before the cache, an authenticated request parsed
+ * its token about five times. An opt-in JUnit loop like the other benchmarks
+ * rather than JMH, which the build does not include; the gap it measures is
+ * over an order of magnitude, well above what JIT and GC noise can move. Run with
+ * mvn test -Dtest=JwtVerificationBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class JwtVerificationBenchmarkTest {
+
+	private static final int WARM_UP_CALLS = 50_000;
+	private static final int CALLS = 200_000;
+	private static final int ROUNDS = 5;
+
+	// Read by the loops so the JIT cannot drop them
+	private int sink;
+
+	@Test
+	void cachedVerificationIsFasterThanParsing() {
+		JwtKeyRing keyRing = new JwtKeyRing();
+		byte[] secret = new byte[32];
+		new SecureRandom().nextBytes(secret);
+		keyRing.install(List.of(JwtKeyRing.decode("benchmark", Base64.getEncoder().encodeToString(secret),
+				Instant.EPOCH, null)));
+		JwtService jwtService = new JwtService(keyRing, 10_000);
+		String token = jwtService.generateToken(1L, "benchmark@example.com", EmployeeRole.MANAGER);
+		assertEquals("benchmark@example.com", jwtService.verify(token).subject());
+
+		parse(jwtService, token, WARM_UP_CALLS);
+		verify(jwtService, token, WARM_UP_CALLS);
+
+		long[] parseRounds = new long[ROUNDS];
+		long[] verifyRounds = new long[ROUNDS];
+		for (int round = 0; round < ROUNDS; round++) {
+			parseRounds[round] = parse(jwtService, token, CALLS);
+			verifyRounds[round] = verify(jwtService, token, CALLS);
+		}
+		long parsed = median(parseRounds);
+		long cached = median(verifyRounds);
+
+		System.out.printf("JWT verification: %d ns per full parse (about %d ns per request before, at five parses), "
+				+ "%d ns per cached verify, %.1fx faster per request%n", parsed / CALLS, 5 * parsed / CALLS,
+				cached / CALLS, 5.0 * parsed / cached);
+		assertTrue(cached < parsed, "cached verification was not faster");
+		assertTrue(sink != 0);
+	}
+
+	private static long median(long[] rounds) {
+		long[] sorted = rounds.clone();
+		Arrays.sort(sorted);
+		return sorted[sorted.length / 2];
+	}
+
+	private long parse(JwtService jwtService, String token, int calls) {
+		long start = System.nanoTime();
+		for (int i = 0; i < calls; i++) {
+			sink += jwtService.parse(token).subject().length();
+		}
+		return System.nanoTime() - start;
+	}
+
+	private long verify(JwtService jwtService, String token, int calls) {
+		long start = System.nanoTime();
+		for (int i = 0; i < calls; i++) {
+			sink += jwtService.verify(token).subject().length();
+		}
+		return System.nanoTime() - start;
+	}
+}
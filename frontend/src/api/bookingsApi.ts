@@ -2,6 +2,7 @@ import { baseQueryWithReauth } from "@/auth/baseApi";
 import type { BookingRequest } from "@/types/requestTypes";
 import { type BookingResponse } from "@/types/responseTypes";
 import { createApi } from "@reduxjs/toolkit/query/react";
+import { fetchAllPages } from "@/api/fetchAllPages";
 
 export const bookingApi = createApi({
   reducerPath: "bookingApi",
@@ -10,10 +11,9 @@ export const bookingApi = createApi({
   endpoints(builder) {
     return {
       getBookings: builder.query<BookingResponse[], void>({
-        query: () => ({
-          url: "/bookings",
-          method: "GET",
-        }),
+        // Every page of the list, see fetchAllPages
+        queryFn: (_arg, _api, _extraOptions, baseQuery) =>
+          fetchAllPages<BookingResponse>("/bookings", baseQuery),
         providesTags: (result) =>
           result
             ? [
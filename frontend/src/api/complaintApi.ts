@@ -1,6 +1,7 @@
 import type { ComplaintRequest } from "@/types/requestTypes";
 import type { ComplaintResponse } from "@/types/responseTypes";
 import { createApi, fetchBaseQuery } from "@reduxjs/toolkit/query/react";
+import { fetchAllPages } from "@/api/fetchAllPages";
 
 export const complaintApi = createApi({
   reducerPath: "complaintApi",
@@ -19,10 +20,9 @@ export const complaintApi = createApi({
         invalidatesTags: [{ type: "Complaint", id: "LIST" }],
       }),
       getComplaints: builder.query<ComplaintResponse[], void>({
-        query: () => ({
-          url: "/complaints",
-          method: "GET",
-        }),
+        // Every page of the list, see fetchAllPages
+        queryFn: (_arg, _api, _extraOptions, baseQuery) =>
+          fetchAllPages<ComplaintResponse>("/complaints", baseQuery),
         providesTags: (result) =>
           result
             ? [
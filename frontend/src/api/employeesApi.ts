@@ -3,6 +3,7 @@ import { baseQueryWithReauth } from "@/auth/baseApi";
 import type { EmployeeRequest } from "@/types/requestTypes";
 import type { EmployeeResponse } from "@/types/responseTypes";
 import { createApi } from "@reduxjs/toolkit/query/react";
+import { fetchAllPages } from "@/api/fetchAllPages";
 
 export const employeeApi = createApi({
   reducerPath: "employeeApi",
@@ -11,10 +12,9 @@ export const employeeApi = createApi({
   endpoints(builder) {
     return {
       getEmployees: builder.query<EmployeeResponse[], void>({
-        query: () => ({
-          url: "/employees",
-          method: "GET",
-        }),
+        // Every page of the list, see fetchAllPages
+        queryFn: (_arg, _api, _extraOptions, baseQuery) =>
+          fetchAllPages<EmployeeResponse>("/employees", baseQuery),
         providesTags: (result) =>
           result
             ? [
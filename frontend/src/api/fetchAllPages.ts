@@ -0,0 +1,44 @@
+import type {
+  FetchArgs,
+  FetchBaseQueryError,
+  FetchBaseQueryMeta,
+} from "@reduxjs/toolkit/query/react";
+
+// Largest page the list endpoints serve (KeysetRepository.MAX_LIMIT on the backend)
+const PAGE_SIZE = 200;
+
+// Set on every page but the last; exposed to the browser by the backend's CORS config
+const NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+type PageResult = {
+  data?: unknown;
+  error?: FetchBaseQueryError;
+  meta?: FetchBaseQueryMeta;
+};
+
+type PageQuery = (args: FetchArgs) => PageResult | Promise<PageResult>;
+
+// Loads a whole list endpoint page by page, following the next-page cursor until the last page.
+// The backend refuses an unpaged list request once the list is longer than 1000 rows,
+// so tables that show every row load their list through here.
+// Use it as a queryFn: (_arg, _api, _extraOptions, baseQuery) => fetchAllPages("/bookings", baseQuery)
+export async function fetchAllPages<T>(
+  url: string,
+  baseQuery: PageQuery
+): Promise<{ data: T[] } | { error: FetchBaseQueryError }> {
+  const items: T[] = [];
+  let cursor: string | null = null;
+  do {
+    const params: Record<string, string | number> = { limit: PAGE_SIZE };
+    if (cursor) {
+      params.cursor = cursor;
+    }
+    const result = await baseQuery({ url, method: "GET", params });
+    if (result.error) {
+      return { error: result.error };
+    }
+    items.push(...(result.data as T[]));
+    cursor = result.meta?.response?.headers.get(NEXT_CURSOR_HEADER) ?? null;
+  } while (cursor);
+  return { data: items };
+}
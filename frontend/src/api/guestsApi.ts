@@ -3,6 +3,7 @@ import { baseQueryWithReauth } from "@/auth/baseApi";
 import type { GuestRequest } from "@/types/requestTypes";
 import type { GuestResponse } from "@/types/responseTypes";
 import { createApi } from "@reduxjs/toolkit/query/react";
+import { fetchAllPages } from "@/api/fetchAllPages";
 
 export const guestApi = createApi({
   reducerPath: "guestApi",
@@ -11,10 +12,9 @@ export const guestApi = createApi({
   endpoints(builder) {
     return {
       getGuests: builder.query<GuestResponse[], void>({
-        query: () => ({
-          url: "guests",
-          method: "GET",
-        }),
+        // Every page of the list, see fetchAllPages
+        queryFn: (_arg, _api, _extraOptions, baseQuery) =>
+          fetchAllPages<GuestResponse>("guests", baseQuery),
         providesTags: (result) =>
           result
             ? [
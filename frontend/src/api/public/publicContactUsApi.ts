@@ -2,6 +2,7 @@
 import { createApi, fetchBaseQuery } from "@reduxjs/toolkit/query/react";
 import type { ContactUsRequest } from "@/types/requestTypes";
 import { type ContactUsResponse } from "@/types/responseTypes";
+import { fetchAllPages } from "@/api/fetchAllPages";
 
 export const publicContactUsApi = createApi({
   reducerPath: "publicContactUsApi",
@@ -20,10 +21,9 @@ export const publicContactUsApi = createApi({
         invalidatesTags: [{ type: "PublicContactUs", id: "LIST" }],
       }),
       getAllContactUs: builder.query<ContactUsResponse[], void>({
-        query: () => ({
-          url: `/contact-us`,
-          method: "GET",
-        }),
+        // Every page of the list, see fetchAllPages
+        queryFn: (_arg, _api, _extraOptions, baseQuery) =>
+          fetchAllPages<ContactUsResponse>("/contact-us", baseQuery),
       }),
     };
   },
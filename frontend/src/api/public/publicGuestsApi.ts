@@ -2,6 +2,7 @@
 import { createApi, fetchBaseQuery } from "@reduxjs/toolkit/query/react";
 import type { GuestRequest } from "@/types/requestTypes";
 import type { GuestResponse } from "@/types/responseTypes";
+import { fetchAllPages } from "@/api/fetchAllPages";
 
 export const publicGuestApi = createApi({
   reducerPath: "publicGuestApi",
@@ -21,10 +22,9 @@ export const publicGuestApi = createApi({
 
       // Get guests
       getGuestsPublic: builder.query<GuestResponse[], void>({
-        query: () => ({
-          url: "/guests",
-          method: "GET",
-        }),
+        // Every page of the list, see fetchAllPages
+        queryFn: (_arg, _api, _extraOptions, baseQuery) =>
+          fetchAllPages<GuestResponse>("/guests", baseQuery),
       }),
     };
   },
@@ -1,5 +1,6 @@
 import type { RoomResponse } from "@/types/responseTypes";
 import { createApi, fetchBaseQuery } from "@reduxjs/toolkit/query/react";
+import { fetchAllPages } from "@/api/fetchAllPages";
 
 export const publicRoomsApi = createApi({
   reducerPath: "publicRoomsApi",
@@ -10,10 +11,9 @@ export const publicRoomsApi = createApi({
   endpoints(builder) {
     return {
       getPublicRooms: builder.query<RoomResponse[], void>({
-        query: () => ({
-          url: "/rooms",
-          method: "GET",
-        }),
+        // Every page of the list, see fetchAllPages
+        queryFn: (_arg, _api, _extraOptions, baseQuery) =>
+          fetchAllPages<RoomResponse>("/rooms", baseQuery),
         providesTags: ["Room"],
       }),
       getAvailableRooms: builder.query<
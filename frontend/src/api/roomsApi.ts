@@ -3,6 +3,7 @@ import { baseQueryWithReauth } from "@/auth/baseApi";
 import type { RoomRequest } from "@/types/requestTypes";
 import type { RoomResponse } from "@/types/responseTypes";
 import { createApi } from "@reduxjs/toolkit/query/react";
+import { fetchAllPages } from "@/api/fetchAllPages";
 
 export const roomApi = createApi({
   reducerPath: "roomApi",
@@ -11,10 +12,9 @@ export const roomApi = createApi({
   endpoints(builder) {
     return {
       getRooms: builder.query<RoomResponse[], void>({
-        query: () => ({
-          url: "rooms",
-          method: "GET",
-        }),
+        // Every page of the list, see fetchAllPages
+        queryFn: (_arg, _api, _extraOptions, baseQuery) =>
+          fetchAllPages<RoomResponse>("rooms", baseQuery),
         providesTags: (result) =>
           result
             ? [